@@ -0,0 +1,224 @@
+package com.splunk.logging;
+
+/**
+ * @copyright
+ *
+ * Copyright 2013-2015 Splunk, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"): you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Splunk http event collector aggregation stage.
+ *
+ * Event stage counting the events of chatty loggers instead of sending each of them. Matching events
+ * are counted per logger, severity and message template, the template being the message with its
+ * numbers masked. Once per interval every count is sent as a single event: either a summary event
+ * holding the template with a "count" property, or a metric event named "log.events" with the
+ * logger, severity and template as dimensions.
+ *
+ * At most MaxKeys different keys are counted per interval, other events are sent as they are.
+ * Events are counted without locking: the aggregates of an interval are kept in a concurrent map,
+ * replaced as a whole when the interval ends, and each count is updated atomically.
+ */
+public class HttpEventCollectorAggregationStage extends HttpEventCollectorEventStage {
+    public static final long DefaultInterval = 60 * 1000; // 1 minute
+    public static final int MaxKeys = 1000;
+    public static final String MetricName = "log.events";
+    // count of a sent aggregate, events counted from then on go to the next interval
+    private static final long Drained = Long.MIN_VALUE;
+
+    private final String[] loggers;
+    private final Set<String> levels = new HashSet<>();
+    private final long interval;
+    private final boolean asMetrics;
+    private final AtomicReference<Interval> current = new AtomicReference<>(new Interval());
+
+    /**
+     * Create an aggregation stage. Events are aggregated when they match both the loggers and the
+     * levels, an empty list matches every event.
+     * @param loggers comma separated logger names, descendant loggers are included
+     * @param levels comma separated severities, e.g. "WARN,ERROR"
+     * @param interval aggregation interval in milliseconds, DefaultInterval if not positive
+     * @param asMetrics send the counts as metric events instead of summary events
+     */
+    public HttpEventCollectorAggregationStage(String loggers, String levels, long interval, boolean asMetrics) {
+        this.loggers = HttpEventCollectorSender.parseList(loggers);
+        for (String level : HttpEventCollectorSender.parseList(levels)) {
+            this.levels.add(level.toUpperCase(Locale.ROOT));
+        }
+        this.interval = interval > 0 ? interval : DefaultInterval;
+        this.asMetrics = asMetrics;
+    }
+
+    @Override
+    public void process(HttpEventCollectorEventInfo event) {
+        if (!matches(event)) {
+            callNext(event);
+            return;
+        }
+        String template = event.getMessage() != null ? template(event.getMessage()) : "";
+        String key = event.getLoggerName() + '\u0000' + event.getSeverity() + '\u0000' + template;
+        while (true) {
+            Interval interval = current.get();
+            Aggregate aggregate = interval.aggregates.get(key);
+            if (aggregate == null) {
+                if (interval.keys.get() >= MaxKeys || interval.keys.incrementAndGet() > MaxKeys) {
+                    break;
+                }
+                Aggregate created = new Aggregate(event, template);
+                aggregate = interval.aggregates.putIfAbsent(key, created);
+                if (aggregate == null) {
+                    aggregate = created;
+                    interval.arrivals.add(created);
+                    interval.start.compareAndSet(-1, System.currentTimeMillis());
+                    // drained meanwhile, the interval may have been sent without it
+                    if (current.get() != interval && created.count.compareAndSet(0, Drained)) {
+                        continue;
+                    }
+                } else {
+                    interval.keys.decrementAndGet();
+                }
+            }
+            if (aggregate.count.getAndIncrement() >= 0) {
+                return;
+            }
+        }
+        callNext(event);
+    }
+
+    /**
+     * @param message event message
+     * @return the message with each number, e.g. 42, 1.5 or 12:30:05, replaced by "#"
+     */
+    static String template(String message) {
+        int length = message.length();
+        int i = 0;
+        while (i < length && !isDigit(message.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return message;
+        }
+        StringBuilder sb = new StringBuilder(length).append(message, 0, i);
+        while (i < length) {
+            char c = message.charAt(i);
+            if (!isDigit(c)) {
+                sb.append(c);
+                i++;
+                continue;
+            }
+            // digits, and further digits after a separator
+            do {
+                i++;
+                while (i < length && isDigit(message.charAt(i))) {
+                    i++;
+                }
+            } while (i + 1 < length && isSeparator(message.charAt(i)) && isDigit(message.charAt(i + 1)));
+            sb.append('#');
+        }
+        return sb.toString();
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '.' || c == ',' || c == ':';
+    }
+
+    private boolean matches(HttpEventCollectorEventInfo event) {
+        if (event instanceof HttpEventCollectorMetricInfo) {
+            return false;
+        }
+        if (loggers.length > 0 && !HttpEventCollectorSender.matchesLogger(loggers, event.getLoggerName())) {
+            return false;
+        }
+        return levels.isEmpty()
+                || (event.getSeverity() != null && levels.contains(event.getSeverity().toUpperCase(Locale.ROOT)));
+    }
+
+    @Override
+    public void tick(long currentTimeMillis) {
+        long start = current.get().start.get();
+        if (start >= 0 && currentTimeMillis - start >= interval) {
+            drain();
+        }
+    }
+
+    @Override
+    public void drain() {
+        // counting goes on in the next interval meanwhile
+        Interval drained = current.getAndSet(new Interval());
+        for (Aggregate aggregate : drained.arrivals) {
+            long count = aggregate.count.getAndSet(Drained);
+            if (count <= 0) {
+                continue;
+            }
+            if (asMetrics) {
+                Map<String, String> dimensions = new HashMap<>();
+                if (aggregate.loggerName != null) {
+                    dimensions.put("logger", aggregate.loggerName);
+                }
+                if (aggregate.severity != null) {
+                    dimensions.put("severity", aggregate.severity);
+                }
+                dimensions.put("template", aggregate.template);
+                callNext(new HttpEventCollectorMetricInfo(
+                        aggregate.timeMillis, Collections.singletonMap(MetricName, count), dimensions));
+            } else {
+                Map<String, String> properties = new HashMap<>();
+                properties.put("count", Long.toString(count));
+                callNext(new HttpEventCollectorEventInfo(aggregate.timeMillis, aggregate.severity, aggregate.template,
+                        aggregate.loggerName, null, properties, null, null));
+            }
+        }
+    }
+
+    private static final class Interval {
+        private final Map<String, Aggregate> aggregates = new ConcurrentHashMap<>();
+        // the same aggregates, in order of arrival
+        private final Queue<Aggregate> arrivals = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger keys = new AtomicInteger();
+        private final AtomicLong start = new AtomicLong(-1);
+    }
+
+    private static final class Aggregate {
+        private final long timeMillis; // time of the first event
+        private final String severity;
+        private final String loggerName;
+        private final String template;
+        private final AtomicLong count = new AtomicLong();
+
+        Aggregate(HttpEventCollectorEventInfo event, String template) {
+            this.timeMillis = event.getTimeMillis();
+            this.severity = event.getSeverity();
+            this.loggerName = event.getLoggerName();
+            this.template = template;
+        }
+    }
+}
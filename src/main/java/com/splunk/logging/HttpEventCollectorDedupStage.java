@@ -0,0 +1,193 @@
+package com.splunk.logging;
+
+/**
+ * @copyright
+ *
+ * Copyright 2013-2015 Splunk, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"): you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Splunk http event collector deduplication stage.
+ *
+ * Event stage dropping the copies of an event repeated by the same logger, with the same severity,
+ * message and exception, stack frames included when the exception is structured, within a sliding
+ * window: the first copy is sent, the next ones are only counted and a "repeated" event is sent once
+ * per window while the copies go on. The repeated event is the first copy with the number of dropped
+ * copies, and the times of the first and last of them in milliseconds, as "repeated",
+ * "first_repeat_time" and "last_repeat_time" properties.
+ *
+ * Events are tracked in a fixed size table indexed by their hash, an event taking the slot of
+ * another one sends the pending count of the evicted event first. Repeated events are dropped
+ * without allocating anything, nor locking: slots are replaced with compare-and-set and copies are
+ * counted atomically.
+ */
+public class HttpEventCollectorDedupStage extends HttpEventCollectorEventStage {
+    public static final long DefaultWindow = 10 * 1000; // 10 seconds
+    private static final int Slots = 1024;
+    // count of an evicted entry, copies counted from then on look for their slot again
+    private static final long Evicted = Long.MIN_VALUE;
+
+    private final long window;
+    private final AtomicReferenceArray<Entry> entries = new AtomicReferenceArray<>(Slots);
+
+    /**
+     * Create a deduplication stage.
+     * @param window length of the sliding window in milliseconds, DefaultWindow if not positive
+     */
+    public HttpEventCollectorDedupStage(long window) {
+        this.window = window > 0 ? window : DefaultWindow;
+    }
+
+    @Override
+    public void process(HttpEventCollectorEventInfo event) {
+        if (event instanceof HttpEventCollectorMetricInfo) {
+            callNext(event);
+            return;
+        }
+        int slot = hash(event) & (Slots - 1);
+        long time = event.getTimeMillis();
+        Entry created = null;
+        while (true) {
+            Entry entry = entries.get(slot);
+            if (entry != null && entry.matches(event) && time - entry.lastTime <= window) {
+                long repeated = entry.repeated.getAndIncrement();
+                if (repeated < 0) {
+                    // evicted meanwhile
+                    continue;
+                }
+                if (repeated == 0) {
+                    entry.firstRepeatTime = time;
+                    entry.reportTime = time;
+                }
+                entry.lastTime = time;
+                return;
+            }
+            if (created == null) {
+                created = new Entry(event);
+            }
+            if (entries.compareAndSet(slot, entry, created)) {
+                if (entry != null) {
+                    evict(entry);
+                }
+                callNext(event);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void tick(long currentTimeMillis) {
+        for (int slot = 0; slot < Slots; slot++) {
+            Entry entry = entries.get(slot);
+            if (entry == null) {
+                continue;
+            }
+            if (currentTimeMillis - entry.lastTime > window) {
+                // the event stopped repeating
+                if (entries.compareAndSet(slot, entry, null)) {
+                    evict(entry);
+                }
+            } else if (entry.repeated.get() > 0 && currentTimeMillis - entry.reportTime >= window) {
+                report(entry);
+            }
+        }
+    }
+
+    @Override
+    public void drain() {
+        for (int slot = 0; slot < Slots; slot++) {
+            Entry entry = entries.getAndSet(slot, null);
+            if (entry != null) {
+                evict(entry);
+            }
+        }
+    }
+
+    private void report(Entry entry) {
+        long repeated;
+        do {
+            repeated = entry.repeated.get();
+            if (repeated <= 0) {
+                return;
+            }
+        } while (!entry.repeated.compareAndSet(repeated, 0));
+        sendRepeated(entry, repeated);
+    }
+
+    /**
+     * Send the pending count of an entry removed from the table, copies can't be counted anymore.
+     */
+    private void evict(Entry entry) {
+        long repeated = entry.repeated.getAndSet(Evicted);
+        if (repeated > 0) {
+            sendRepeated(entry, repeated);
+        }
+    }
+
+    private void sendRepeated(Entry entry, long repeated) {
+        HttpEventCollectorEventInfo first = entry.event;
+        Map<String, String> properties = first.getProperties() != null
+                ? new HashMap<>(first.getProperties()) : new HashMap<String, String>();
+        properties.put("repeated", Long.toString(repeated));
+        properties.put("first_repeat_time", Long.toString(entry.firstRepeatTime));
+        properties.put("last_repeat_time", Long.toString(entry.lastTime));
+        callNext(new HttpEventCollectorEventInfo(entry.lastTime, first.getSeverity(), first.getMessage(),
+                first.getLoggerName(), first.getThreadName(), properties, first.getExceptionMessage(),
+                first.getException(), first.getMarker()));
+    }
+
+    private static int hash(HttpEventCollectorEventInfo event) {
+        int hash = hashCode(event.getLoggerName());
+        hash = 31 * hash + hashCode(event.getSeverity());
+        hash = 31 * hash + hashCode(event.getMessage());
+        hash = 31 * hash + hashCode(event.getExceptionMessage());
+        hash = 31 * hash + hashCode(event.getException());
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int hashCode(Object value) {
+        return value != null ? value.hashCode() : 0;
+    }
+
+    private static boolean same(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static final class Entry {
+        private final HttpEventCollectorEventInfo event; // first copy
+        private final AtomicLong repeated = new AtomicLong();
+        private volatile long lastTime;
+        private volatile long firstRepeatTime;
+        private volatile long reportTime;
+
+        Entry(HttpEventCollectorEventInfo event) {
+            this.event = event;
+            this.lastTime = event.getTimeMillis();
+        }
+
+        boolean matches(HttpEventCollectorEventInfo other) {
+            return same(event.getMessage(), other.getMessage())
+                    && same(event.getLoggerName(), other.getLoggerName())
+                    && same(event.getSeverity(), other.getSeverity())
+                    && same(event.getExceptionMessage(), other.getExceptionMessage())
+                    && same(event.getException(), other.getException());
+        }
+    }
+}
@@ -25,13 +25,14 @@ import java.util.Map;
  * Container for Splunk http event collector event data
  */
 public class HttpEventCollectorEventInfo {
-    private double time; // time in fractional seconds since "unix epoch" format
+    private final long timeMillis; // time in milliseconds since "unix epoch"
     private final String severity;
     private final String message;
     private final String logger_name;
     private final String thread_name;
     private final Map<String, String> properties;
     private final String exception_message;
+    private final HttpEventCollectorExceptionInfo exception;
     private final Serializable marker;
 
     /**
@@ -53,13 +54,64 @@ public class HttpEventCollectorEventInfo {
             final String exception_message,
             final Serializable marker
     ) {
-        this.time = System.currentTimeMillis() / 1000.0;
+        this(System.currentTimeMillis(), severity, message, logger_name, thread_name, properties, exception_message, marker);
+    }
+
+    /**
+     * Create a new HttpEventCollectorEventInfo container
+     * @param timeMillis event timestamp in milliseconds since the epoch, as reported by the logging framework
+     * @param severity of event
+     * @param message is an event content
+     * @param logger_name name of the logger
+     * @param thread_name name of the thread
+     * @param properties additional properties for this event
+     * @param exception_message text of an exception to log
+     * @param marker event marker
+     */
+    public HttpEventCollectorEventInfo(
+            final long timeMillis,
+            final String severity,
+            final String message,
+            final String logger_name,
+            final String thread_name,
+            final Map<String, String> properties,
+            final String exception_message,
+            final Serializable marker
+    ) {
+        this(timeMillis, severity, message, logger_name, thread_name, properties, exception_message, null, marker);
+    }
+
+    /**
+     * Create a new HttpEventCollectorEventInfo container
+     * @param timeMillis event timestamp in milliseconds since the epoch, as reported by the logging framework
+     * @param severity of event
+     * @param message is an event content
+     * @param logger_name name of the logger
+     * @param thread_name name of the thread
+     * @param properties additional properties for this event
+     * @param exception_message text of an exception to log
+     * @param exception exception to log with its stack frames and causes, sent instead of exception_message
+     * @param marker event marker
+     */
+    public HttpEventCollectorEventInfo(
+            final long timeMillis,
+            final String severity,
+            final String message,
+            final String logger_name,
+            final String thread_name,
+            final Map<String, String> properties,
+            final String exception_message,
+            final HttpEventCollectorExceptionInfo exception,
+            final Serializable marker
+    ) {
+        this.timeMillis = timeMillis;
         this.severity = severity;
         this.message = message;
         this.logger_name = logger_name;
         this.thread_name = thread_name;
         this.properties = properties;
         this.exception_message = exception_message;
+        this.exception = exception;
         this.marker = marker;
     }
 
@@ -67,7 +119,14 @@ public class HttpEventCollectorEventInfo {
      * @return event timestamp in epoch format
      */
     public double getTime() {
-        return time;
+        return timeMillis / 1000.0;
+    }
+
+    /**
+     * @return event timestamp in milliseconds since the epoch
+     */
+    public long getTimeMillis() {
+        return timeMillis;
     }
 
     /**
@@ -104,6 +163,11 @@ public class HttpEventCollectorEventInfo {
      */
     public final String getExceptionMessage() { return exception_message; }
 
+    /**
+     * @return event's exception with its stack frames and causes, may be null
+     */
+    public final HttpEventCollectorExceptionInfo getException() { return exception; }
+
     /**
      * @return event marker
      */
@@ -0,0 +1,71 @@
+package com.splunk.logging;
+
+/**
+ * @copyright
+ *
+ * Copyright 2013-2015 Splunk, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"): you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Splunk http event collector event stage.
+ *
+ * Event stages process logging events before they are batched, they can pass events on, drop them,
+ * hold them back or replace them by other events. A user application plugs event stages to the
+ * HttpEventCollectorSender by calling addEventStage method, events go through the stages in the
+ * order they were added.
+ *
+ * The sender calls the stages without holding its lock: they are called concurrently by the logging
+ * threads, and by the timer of the sender which calls tick periodically so stages holding events back
+ * can release them without waiting for the next event. Stages have to be thread safe, and should not
+ * hold a lock of their own while calling callNext when they can avoid it.
+ *
+ * HttpEventCollectorAggregationStage.java is an example of how event stages can be used.
+ */
+public abstract class HttpEventCollectorEventStage {
+    // appended by the sender while events go through the chain
+    volatile HttpEventCollectorEventStage next;
+    HttpEventCollectorSender sender;
+
+    /**
+     * Process a logging event.
+     * @param event event to process, pass it on with {@link #callNext}
+     */
+    public abstract void process(final HttpEventCollectorEventInfo event);
+
+    /**
+     * Called periodically by the sender, about once per second.
+     * @param currentTimeMillis current time
+     */
+    public void tick(long currentTimeMillis) {
+    }
+
+    /**
+     * Pass on all the events held back, the sender is being closed.
+     */
+    public void drain() {
+    }
+
+    /**
+     * Pass an event to the next stage, or to the batch if this is the last stage.
+     * @param event event to pass on
+     */
+    protected void callNext(final HttpEventCollectorEventInfo event) {
+        if (next != null) {
+            next.process(event);
+        } else if (sender != null) {
+            sender.enqueue(event);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.splunk.logging;
+
+/**
+ * @copyright
+ *
+ * Copyright 2013-2015 Splunk, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"): you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+
+/**
+ * Container for the exception of an event: class, message, stack frames and cause, sent as the
+ * structured "exception" field of the event.
+ *
+ * At most a given number of frames are kept for each exception of the chain, and frames in common
+ * with the enclosing exception are left out, as in printed stack traces. Frames are rendered as text
+ * when the exception is captured, so the event doesn't hold the exception. Rendered frames are cached
+ * in a table of FrameCacheSize slots, recurring exceptions don't render them again.
+ */
+public final class HttpEventCollectorExceptionInfo {
+    public static final int DefaultDepth = 100;
+    public static final int FrameCacheSize = 4096;
+    // causes captured at most, guards against cause cycles
+    static final int MaxCauses = 16;
+
+    private static final Frame[] frameCache = new Frame[FrameCacheSize];
+
+    private final String className;
+    private final String message;
+    private final String[] frames;
+    private final int omittedFrames;
+    private final HttpEventCollectorExceptionInfo cause;
+    private int hash; // computed on first use, 0 until then
+
+    private static final class Frame {
+        private final StackTraceElement element;
+        private final String rendered;
+
+        Frame(StackTraceElement element, String rendered) {
+            this.element = element;
+            this.rendered = rendered;
+        }
+    }
+
+    /**
+     * Create a new HttpEventCollectorExceptionInfo container
+     * @param className class name of the exception
+     * @param message message of the exception, may be null
+     * @param elements stack frames of the exception
+     * @param commonFrames number of frames at the end of elements in common with the enclosing exception
+     * @param depth maximum number of frames kept
+     * @param cause cause of the exception, may be null
+     */
+    public HttpEventCollectorExceptionInfo(
+            final String className,
+            final String message,
+            final StackTraceElement[] elements,
+            final int commonFrames,
+            final int depth,
+            final HttpEventCollectorExceptionInfo cause
+    ) {
+        int length = Math.max(0, Math.min(elements.length - commonFrames, depth));
+        this.className = className;
+        this.message = message;
+        this.frames = new String[length];
+        for (int i = 0; i < length; i++) {
+            frames[i] = render(elements[i]);
+        }
+        this.omittedFrames = elements.length - length;
+        this.cause = cause;
+    }
+
+    /**
+     * @param throwable exception to capture, may be null
+     * @param depth maximum number of frames kept for the exception and for each of its causes
+     * @return the exception and its causes, null if throwable is null
+     */
+    public static HttpEventCollectorExceptionInfo of(Throwable throwable, int depth) {
+        return of(throwable, null, depth, 0);
+    }
+
+    private static HttpEventCollectorExceptionInfo of(
+            Throwable throwable, StackTraceElement[] enclosing, int depth, int causes) {
+        if (throwable == null) {
+            return null;
+        }
+        StackTraceElement[] elements = throwable.getStackTrace();
+        int common = 0;
+        if (enclosing != null) {
+            for (int i = elements.length - 1, e = enclosing.length - 1;
+                 i >= 0 && e >= 0 && elements[i].equals(enclosing[e]); i--, e--) {
+                common++;
+            }
+        }
+        HttpEventCollectorExceptionInfo cause = causes < MaxCauses && throwable.getCause() != throwable
+                ? of(throwable.getCause(), elements, depth, causes + 1) : null;
+        return new HttpEventCollectorExceptionInfo(
+                throwable.getClass().getName(), throwable.getMessage(), elements, common, depth, cause);
+    }
+
+    private static String render(StackTraceElement element) {
+        int index = element.hashCode() & (FrameCacheSize - 1);
+        Frame frame = frameCache[index];
+        if (frame != null && frame.element.equals(element)) {
+            return frame.rendered;
+        }
+        String rendered = element.toString();
+        frameCache[index] = new Frame(element, rendered);
+        return rendered;
+    }
+
+    /**
+     * @return class name of the exception
+     */
+    public String getClassName() { return className; }
+
+    /**
+     * @return message of the exception, may be null
+     */
+    public String getMessage() { return message; }
+
+    /**
+     * @return rendered stack frames kept, innermost first
+     */
+    public String[] getFrames() { return frames; }
+
+    /**
+     * @return number of stack frames left out, beyond the depth or in common with the enclosing exception
+     */
+    public int getOmittedFrames() { return omittedFrames; }
+
+    /**
+     * @return cause of the exception, may be null
+     */
+    public HttpEventCollectorExceptionInfo getCause() { return cause; }
+
+    /**
+     * Exceptions are equal when their classes, messages, frames and causes are equal, frames rendered
+     * through the cache are mostly compared by reference.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof HttpEventCollectorExceptionInfo)) {
+            return false;
+        }
+        HttpEventCollectorExceptionInfo that = (HttpEventCollectorExceptionInfo) other;
+        return hashCode() == that.hashCode()
+                && omittedFrames == that.omittedFrames
+                && className.equals(that.className)
+                && (message == null ? that.message == null : message.equals(that.message))
+                && Arrays.equals(frames, that.frames)
+                && (cause == null ? that.cause == null : cause.equals(that.cause));
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = className.hashCode();
+            h = 31 * h + (message != null ? message.hashCode() : 0);
+            h = 31 * h + Arrays.hashCode(frames);
+            h = 31 * h + omittedFrames;
+            h = 31 * h + (cause != null ? cause.hashCode() : 0);
+            hash = h;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,210 @@
+package com.splunk.logging;
+
+/**
+ * @copyright
+ *
+ * Copyright 2013-2015 Splunk, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"): you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Splunk http event collector flight recorder stage.
+ *
+ * Event stage holding back low severity events, e.g. DEBUG, instead of sending them. The last events
+ * of each context are kept in a ring buffer, and sent only when an error occurs in the same context,
+ * just before the error itself. A context is a thread, or the value of a property such as a trace id.
+ * Events older than the maximum age are discarded, and so are the events still held when the sender
+ * is closed.
+ *
+ * Memory is bounded: contexts are recorded in a table of MaxContexts slots, in sets of Ways slots
+ * indexed by their hash. A new context takes a free slot of its set, or else the slot of the context
+ * of the set recorded least recently. Live contexts evicted this way are counted, see
+ * getEvictedCount. Recordings are put in and taken out of the table with compare-and-set, and events
+ * are added to their ring buffer without locking.
+ */
+public class HttpEventCollectorFlightRecorderStage extends HttpEventCollectorEventStage {
+    public static final int DefaultSize = 100;
+    public static final long DefaultMaxAge = 60 * 1000; // 1 minute
+    public static final String DefaultTriggerLevels = "ERROR,FATAL,SEVERE";
+    public static final int MaxContexts = 1024;
+    public static final int Ways = 4;
+
+    private final Set<String> levels;
+    private final Set<String> triggerLevels;
+    private final String contextKey;
+    private final int size;
+    private final long maxAge;
+    private final AtomicReferenceArray<Recording> recordings = new AtomicReferenceArray<>(MaxContexts);
+    // read by monitoring threads
+    private final AtomicLong evictedCount = new AtomicLong();
+
+    /**
+     * Create a flight recorder stage.
+     * @param levels comma separated severities of the events to hold back, e.g. "DEBUG,TRACE"
+     * @param triggerLevels comma separated severities sending the events held back, DefaultTriggerLevels if null
+     * @param contextKey property holding the context of the events, the thread name if null
+     * @param size number of events held back per context, DefaultSize if not positive
+     * @param maxAge maximum age of the events held back in milliseconds, DefaultMaxAge if not positive
+     */
+    public HttpEventCollectorFlightRecorderStage(
+            String levels, String triggerLevels, String contextKey, int size, long maxAge) {
+        this.levels = parseLevels(levels);
+        this.triggerLevels = parseLevels(triggerLevels != null ? triggerLevels : DefaultTriggerLevels);
+        this.contextKey = contextKey;
+        this.size = size > 0 ? size : DefaultSize;
+        this.maxAge = maxAge > 0 ? maxAge : DefaultMaxAge;
+    }
+
+    private static Set<String> parseLevels(String levels) {
+        Set<String> set = new HashSet<>();
+        for (String level : HttpEventCollectorSender.parseList(levels)) {
+            set.add(level.toUpperCase(Locale.ROOT));
+        }
+        return set;
+    }
+
+    @Override
+    public void process(HttpEventCollectorEventInfo event) {
+        String severity = event.getSeverity() != null ? event.getSeverity().toUpperCase(Locale.ROOT) : "";
+        if (levels.contains(severity)) {
+            record(context(event), event);
+            return;
+        }
+        if (triggerLevels.contains(severity)) {
+            String context = context(event);
+            int set = set(context);
+            for (int slot = set; slot < set + Ways; slot++) {
+                Recording recording = recordings.get(slot);
+                if (recording != null && recording.context.equals(context)) {
+                    // only the thread taking the recording out replays it
+                    if (recordings.compareAndSet(slot, recording, null)) {
+                        recording.replay(event.getTimeMillis() - maxAge);
+                    }
+                    break;
+                }
+            }
+        }
+        callNext(event);
+    }
+
+    private void record(String context, HttpEventCollectorEventInfo event) {
+        int set = set(context);
+        Recording created = null;
+        while (true) {
+            // the first free slot of the set, or else the least recently recorded one
+            int victim = -1;
+            Recording replaced = null;
+            for (int slot = set; slot < set + Ways; slot++) {
+                Recording recording = recordings.get(slot);
+                if (recording != null && recording.context.equals(context)) {
+                    recording.add(event);
+                    return;
+                }
+                if (victim < 0 || replaced != null
+                        && (recording == null || recording.lastTimeMillis < replaced.lastTimeMillis)) {
+                    victim = slot;
+                    replaced = recording;
+                }
+            }
+            if (created == null) {
+                created = new Recording(context, size);
+                created.add(event);
+            }
+            if (recordings.compareAndSet(victim, replaced, created)) {
+                if (replaced != null && event.getTimeMillis() - replaced.lastTimeMillis <= maxAge) {
+                    evictedCount.incrementAndGet();
+                }
+                return;
+            }
+        }
+    }
+
+    // first slot of the set of the context
+    private static int set(String context) {
+        int hash = context.hashCode();
+        return ((hash ^ (hash >>> 16)) & (MaxContexts / Ways - 1)) * Ways;
+    }
+
+    private String context(HttpEventCollectorEventInfo event) {
+        String context = null;
+        if (contextKey != null && event.getProperties() != null) {
+            context = event.getProperties().get(contextKey);
+        }
+        if (context == null) {
+            context = event.getThreadName();
+        }
+        return context != null ? context : "";
+    }
+
+    @Override
+    public void tick(long currentTimeMillis) {
+        for (int slot = 0; slot < MaxContexts; slot++) {
+            Recording recording = recordings.get(slot);
+            if (recording != null && currentTimeMillis - recording.lastTimeMillis > maxAge) {
+                recordings.compareAndSet(slot, recording, null);
+            }
+        }
+    }
+
+    @Override
+    public void drain() {
+        // the events held back are sent only on errors
+        for (int slot = 0; slot < MaxContexts; slot++) {
+            recordings.set(slot, null);
+        }
+    }
+
+    /**
+     * @return number of contexts dropped with events younger than the maximum age, to make room for
+     * other contexts
+     */
+    public long getEvictedCount() {
+        return evictedCount.get();
+    }
+
+    private final class Recording {
+        private final String context;
+        private final AtomicReferenceArray<HttpEventCollectorEventInfo> events;
+        // number of events added so far, the last ones are in the ring buffer
+        private final AtomicLong added = new AtomicLong();
+        private volatile long lastTimeMillis;
+
+        Recording(String context, int size) {
+            this.context = context;
+            this.events = new AtomicReferenceArray<>(size);
+        }
+
+        void add(HttpEventCollectorEventInfo event) {
+            events.set((int) (added.getAndIncrement() % events.length()), event);
+            lastTimeMillis = event.getTimeMillis();
+        }
+
+        void replay(long minTimeMillis) {
+            long end = added.get();
+            for (long i = Math.max(0, end - events.length()); i < end; i++) {
+                HttpEventCollectorEventInfo event = events.get((int) (i % events.length()));
+                // null, or the event it replaces, while another thread is still adding it
+                if (event != null && event.getTimeMillis() >= minTimeMillis) {
+                    callNext(event);
+                }
+            }
+        }
+    }
+}
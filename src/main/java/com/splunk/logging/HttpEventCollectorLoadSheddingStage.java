@@ -0,0 +1,95 @@
+package com.splunk.logging;
+
+/**
+ * @copyright
+ *
+ * Copyright 2013-2015 Splunk, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"): you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Splunk http event collector load shedding stage.
+ *
+ * Event stage dropping low severity events first when the events queue of the sender fills up, e.g.
+ * while the server is slow. The pressure is the number of queued events, batched or posted and not
+ * yet acknowledged, relative to the capacity. Each severity is shed progressively over its own band
+ * of pressure: DEBUG events from 25% to 50% of the capacity, INFO events from 50% to 75%, WARN
+ * events from 75% to 100%, ERROR events are never shed. Within its band, the rate of events sent
+ * falls linearly from 1 to 0, and rises again as the queue drains.
+ *
+ * Every decision is counted per severity, see getShedCount and getSentCount.
+ */
+public class HttpEventCollectorLoadSheddingStage extends HttpEventCollectorEventStage {
+    private static final int Error = 3; // rank of the error severities
+    private static final double Band = 0.25;
+
+    private final long capacity;
+    // read by monitoring threads
+    private final AtomicLongArray shedCounts = new AtomicLongArray(Error + 1);
+    private final AtomicLongArray sentCounts = new AtomicLongArray(Error + 1);
+
+    /**
+     * Create a load shedding stage.
+     * @param capacity number of queued events at which all but the errors are shed
+     */
+    public HttpEventCollectorLoadSheddingStage(long capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Load shedding capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void process(HttpEventCollectorEventInfo event) {
+        if (event instanceof HttpEventCollectorMetricInfo) {
+            callNext(event);
+            return;
+        }
+        int rank = HttpEventCollectorSender.severityRank(event.getSeverity());
+        double rate = rate(rank, (double) sender.getQueuedEventsEstimate() / capacity);
+        if (rate < 1 && (rate <= 0 || ThreadLocalRandom.current().nextDouble() >= rate)) {
+            shedCounts.incrementAndGet(rank);
+            return;
+        }
+        sentCounts.incrementAndGet(rank);
+        callNext(event);
+    }
+
+    private static double rate(int rank, double pressure) {
+        if (rank == Error) {
+            return 1;
+        }
+        double start = Band * (rank + 1);
+        return Math.min(1, Math.max(0, 1 - (pressure - start) / Band));
+    }
+
+    /**
+     * @param severity event severity
+     * @return number of events of the same rank of severity dropped so far
+     */
+    public long getShedCount(String severity) {
+        return shedCounts.get(HttpEventCollectorSender.severityRank(severity));
+    }
+
+    /**
+     * @param severity event severity
+     * @return number of events of the same rank of severity passed on so far
+     */
+    public long getSentCount(String severity) {
+        return sentCounts.get(HttpEventCollectorSender.severityRank(severity));
+    }
+}
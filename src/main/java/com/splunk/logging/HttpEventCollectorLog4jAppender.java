@@ -17,8 +17,13 @@ package com.splunk.logging;
 
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import com.splunk.logging.hec.MetadataTags;
@@ -32,6 +37,7 @@ import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
 
 /**
  * Splunk Http Appender.
@@ -44,7 +50,11 @@ public final class HttpEventCollectorLog4jAppender extends AbstractAppender
     private final boolean includeLoggerName;
     private final boolean includeThreadName;
     private final boolean includeMDC;
+    private final String[] includeMDCKeys;
+    private final Set<String> excludeMDCKeys;
     private final boolean includeException;
+    private final StackTraceFingerprints stackTraces;
+    private final int exceptionDepth;
     private final boolean includeMarker;
 
     private HttpEventCollectorLog4jAppender(final String name,
@@ -62,7 +72,11 @@ public final class HttpEventCollectorLog4jAppender extends AbstractAppender
                                             final boolean includeLoggerName,
                                             final boolean includeThreadName,
                                             final boolean includeMDC,
+                                            final String includeMDCKeys,
+                                            final String excludeMDCKeys,
                                             final boolean includeException,
+                                            final StackTraceFingerprints stackTraces,
+                                            final int exceptionDepth,
                                             final boolean includeMarker,
                                             final boolean ignoreExceptions,
                                             long batchInterval,
@@ -74,6 +88,16 @@ public final class HttpEventCollectorLog4jAppender extends AbstractAppender
                                             final String disableCertificateValidation,
                                             final String eventBodySerializer,
                                             final String eventHeaderSerializer,
+                                            final String rawEventDelimiter,
+                                            final String metricsIndex,
+                                            final String metricLoggers,
+                                            final String priorityLevel,
+                                            final long priorityLinger,
+                                            final String routes,
+                                            final String metadataFromMdc,
+                                            final int maxEventBytes,
+                                            final int maxFieldBytes,
+                                            final List<HttpEventCollectorEventStage> eventStages,
                                             HttpEventCollectorSender.TimeoutSettings timeoutSettings)
     {
         super(name, filter, layout, ignoreExceptions, Property.EMPTY_ARRAY);
@@ -83,8 +107,21 @@ public final class HttpEventCollectorLog4jAppender extends AbstractAppender
         metadata.put(MetadataTags.SOURCE, source != null ? source : "");
         metadata.put(MetadataTags.SOURCETYPE, sourcetype != null ? sourcetype : "");
         metadata.put(MetadataTags.MESSAGEFORMAT, messageFormat != null ? messageFormat : "");
+        if (metricsIndex != null) {
+            metadata.put(MetadataTags.METRICS_INDEX, metricsIndex);
+        }
 
         this.sender = new HttpEventCollectorSender(url, token, channel, type, batchInterval, batchCount, batchSize, sendMode, metadata, timeoutSettings);
+        this.sender.setRawEventDelimiter(rawEventDelimiter);
+        this.sender.setMetricLoggers(metricLoggers);
+        this.sender.setPriorityLevel(priorityLevel);
+        this.sender.setPriorityLinger(priorityLinger);
+        this.sender.setRoutes(routes);
+        this.sender.setMetadataProperties(metadataFromMdc);
+        this.sender.setSizeLimits(maxEventBytes, maxFieldBytes);
+        for (HttpEventCollectorEventStage eventStage : eventStages) {
+            this.sender.addEventStage(eventStage);
+        }
 
         // plug a user middleware
         if (middleware != null && !middleware.isEmpty()) {
@@ -117,7 +154,11 @@ public final class HttpEventCollectorLog4jAppender extends AbstractAppender
         this.includeLoggerName = includeLoggerName;
         this.includeThreadName = includeThreadName;
         this.includeMDC = includeMDC;
+        this.includeMDCKeys = HttpEventCollectorSender.parseList(includeMDCKeys);
+        this.excludeMDCKeys = new HashSet<>(Arrays.asList(HttpEventCollectorSender.parseList(excludeMDCKeys)));
         this.includeException = includeException;
+        this.stackTraces = stackTraces;
+        this.exceptionDepth = exceptionDepth;
         this.includeMarker = includeMarker;
     }
 
@@ -148,10 +189,35 @@ public final class HttpEventCollectorLog4jAppender extends AbstractAppender
             @PluginAttribute("disableCertificateValidation") final String disableCertificateValidation,
             @PluginAttribute("eventBodySerializer") final String eventBodySerializer,
             @PluginAttribute("eventHeaderSerializer") final String eventHeaderSerializer,
+            @PluginAttribute("raw_event_delimiter") final String rawEventDelimiter,
+            @PluginAttribute("metrics_index") final String metricsIndex,
+            @PluginAttribute("metric_loggers") final String metricLoggers,
+            @PluginAttribute("priority_level") final String priorityLevel,
+            @PluginAttribute("priority_linger") final String priorityLinger,
+            @PluginAttribute("routes") final String routes,
+            @PluginAttribute("metadata_from_mdc") final String metadataFromMdc,
+            @PluginAttribute("max_event_bytes") final String maxEventBytes,
+            @PluginAttribute("max_field_bytes") final String maxFieldBytes,
+            @PluginAttribute("flight_recorder_levels") final String flightRecorderLevels,
+            @PluginAttribute("flight_recorder_key") final String flightRecorderKey,
+            @PluginAttribute("flight_recorder_size") final String flightRecorderSize,
+            @PluginAttribute("flight_recorder_max_age") final String flightRecorderMaxAge,
+            @PluginAttribute("sample_rules") final String sampleRules,
+            @PluginAttribute("sample_key") final String sampleKey,
+            @PluginAttribute("dedup_window") final String dedupWindow,
+            @PluginAttribute("aggregate_loggers") final String aggregateLoggers,
+            @PluginAttribute("aggregate_levels") final String aggregateLevels,
+            @PluginAttribute("aggregate_interval") final String aggregateInterval,
+            @PluginAttribute("aggregate_as") final String aggregateAs,
+            @PluginAttribute("load_shedding_capacity") final String loadSheddingCapacity,
             @PluginAttribute(value = "includeLoggerName", defaultBoolean = true) final boolean includeLoggerName,
             @PluginAttribute(value = "includeThreadName", defaultBoolean = true) final boolean includeThreadName,
             @PluginAttribute(value = "includeMDC", defaultBoolean = true) final boolean includeMDC,
+            @PluginAttribute("includeMDCKeys") final String includeMDCKeys,
+            @PluginAttribute("excludeMDCKeys") final String excludeMDCKeys,
             @PluginAttribute(value = "includeException", defaultBoolean = true) final boolean includeException,
+            @PluginAttribute("stacktrace_window") final String stacktraceWindow,
+            @PluginAttribute("exception_depth") final String exceptionDepth,
             @PluginAttribute(value = "includeMarker", defaultBoolean = true) final boolean includeMarker,
             @PluginAttribute(value = "connect_timeout", defaultLong = HttpEventCollectorSender.TimeoutSettings.DEFAULT_CONNECT_TIMEOUT) final long connectTimeout,
             @PluginAttribute(value = "call_timeout", defaultLong = HttpEventCollectorSender.TimeoutSettings.DEFAULT_CALL_TIMEOUT) final long callTimeout,
@@ -161,19 +227,6 @@ public final class HttpEventCollectorLog4jAppender extends AbstractAppender
             @PluginElement("Filter") final Filter filter
     )
     {
-        // The raw endpoint presumes that a single post is a single event.
-        // The batch size should be 1 if "type" is raw, and we should error if batch
-        // configuration is specified.
-        int clampedBatchCountDefault = HttpEventCollectorSender.DefaultBatchCount;
-
-        if ("raw".equalsIgnoreCase(type)) {
-            if (batchSize != null || batchCount != null || batchInterval != null) {
-                LOGGER.error("batch configuration is not compatible with the raw endpoint");
-                return null;
-            }
-            clampedBatchCountDefault = 1;
-        }
-
         if (name == null)
         {
             LOGGER.error("No name provided for HttpEventCollectorLog4jAppender");
@@ -192,6 +245,13 @@ public final class HttpEventCollectorLog4jAppender extends AbstractAppender
             return null;
         }
 
+        // exceptions sent as a structured field are not rendered as text, nor fingerprinted
+        final int depth = exceptionDepth != null ? parseInt(exceptionDepth, HttpEventCollectorExceptionInfo.DefaultDepth) : -1;
+        if (stacktraceWindow != null && depth >= 0)
+        {
+            LOGGER.error("stacktrace_window is ignored when exception_depth is set for HttpEventCollectorLog4jAppender");
+        }
+
         if (layout == null)
         {
             layout = PatternLayout.newBuilder()
@@ -204,14 +264,44 @@ public final class HttpEventCollectorLog4jAppender extends AbstractAppender
 
         final boolean ignoreExceptionsBool = Boolean.getBoolean(ignoreExceptions);
 
+        // event stages, in the order events go through them
+        List<HttpEventCollectorEventStage> eventStages = new ArrayList<>();
+        if (flightRecorderLevels != null) {
+            eventStages.add(new HttpEventCollectorFlightRecorderStage(
+                    flightRecorderLevels, null, flightRecorderKey,
+                    parseInt(flightRecorderSize, HttpEventCollectorFlightRecorderStage.DefaultSize),
+                    parseInt(flightRecorderMaxAge, (int) HttpEventCollectorFlightRecorderStage.DefaultMaxAge)));
+        }
+        if (sampleRules != null) {
+            eventStages.add(new HttpEventCollectorSamplingStage(sampleRules, sampleKey));
+        }
+        if (dedupWindow != null) {
+            eventStages.add(new HttpEventCollectorDedupStage(
+                    parseInt(dedupWindow, (int) HttpEventCollectorDedupStage.DefaultWindow)));
+        }
+        if (aggregateLoggers != null || aggregateLevels != null) {
+            eventStages.add(new HttpEventCollectorAggregationStage(
+                    aggregateLoggers, aggregateLevels,
+                    parseInt(aggregateInterval, (int) HttpEventCollectorAggregationStage.DefaultInterval),
+                    "metric".equalsIgnoreCase(aggregateAs)));
+        }
+        if (parseInt(loadSheddingCapacity, 0) > 0) {
+            eventStages.add(new HttpEventCollectorLoadSheddingStage(parseInt(loadSheddingCapacity, 0)));
+        }
+
         return new HttpEventCollectorLog4jAppender(
                 name, url, token,  channel, type,
                 source, sourcetype, messageFormat, host, index,
                 filter, layout,
-                includeLoggerName, includeThreadName, includeMDC, includeException, includeMarker,
+                includeLoggerName, includeThreadName, includeMDC, includeMDCKeys, excludeMDCKeys,
+                includeException,
+                stacktraceWindow != null && depth < 0 ? new StackTraceFingerprints(
+                        parseInt(stacktraceWindow, (int) StackTraceFingerprints.DefaultWindow)) : null,
+                depth,
+                includeMarker,
                 ignoreExceptionsBool,
                 parseInt(batchInterval, HttpEventCollectorSender.DefaultBatchInterval),
-                parseInt(batchCount, clampedBatchCountDefault),
+                parseInt(batchCount, HttpEventCollectorSender.DefaultBatchCount),
                 parseInt(batchSize, HttpEventCollectorSender.DefaultBatchSize),
                 parseInt(retriesOnError, 0),
                 sendMode,
@@ -219,6 +309,16 @@ public final class HttpEventCollectorLog4jAppender extends AbstractAppender
                 disableCertificateValidation,
                 eventBodySerializer,
                 eventHeaderSerializer,
+                rawEventDelimiter,
+                metricsIndex,
+                metricLoggers,
+                priorityLevel,
+                parseInt(priorityLinger, 0),
+                routes,
+                metadataFromMdc,
+                parseInt(maxEventBytes, 0),
+                parseInt(maxFieldBytes, 0),
+                eventStages,
                 new HttpEventCollectorSender.TimeoutSettings(connectTimeout, callTimeout, readTimeout, writeTimeout)
         );
     }
@@ -231,18 +331,62 @@ public final class HttpEventCollectorLog4jAppender extends AbstractAppender
     @Override
     public void append(final LogEvent event)
     {
+        // events of metric loggers holding measurements are sent as metrics, with the selected MDC entries as dimensions
+        if (this.sender.isMetricLogger(event.getLoggerName())
+                && this.sender.sendMetric(event.getTimeMillis(), event.getMessage().getFormattedMessage(), contextData(event))) {
+            return;
+        }
+
         // if an exception was thrown
         this.sender.send(
+                event.getTimeMillis(),
                 event.getLevel().toString(),
                 getLayout().toSerializable(event).toString(),
                 includeLoggerName ? event.getLoggerName() : null,
                 includeThreadName ? event.getThreadName() : null,
-                includeMDC ? event.getContextData().toMap() : null,
-                (!includeException || event.getThrown() == null) ? null : event.getThrown().getMessage(),
+                includeMDC ? contextData(event) : null,
+                exception(event.getThrown()),
+                includeException && exceptionDepth >= 0
+                        ? HttpEventCollectorExceptionInfo.of(event.getThrown(), exceptionDepth) : null,
                 includeMarker ? event.getMarker() : null
         );
     }
 
+    private String exception(final Throwable thrown) {
+        if (!includeException || thrown == null || exceptionDepth >= 0) {
+            return null;
+        }
+        return stackTraces != null ? stackTraces.render(thrown) : thrown.getMessage();
+    }
+
+    // copy only the selected entries, straight from the context data of the event
+    private Map<String, String> contextData(final LogEvent event) {
+        final ReadOnlyStringMap contextData = event.getContextData();
+        if (includeMDCKeys.length > 0) {
+            Map<String, String> properties = null;
+            for (String key : includeMDCKeys) {
+                Object value = contextData.getValue(key);
+                if (value != null) {
+                    if (properties == null) {
+                        properties = new HashMap<>();
+                    }
+                    properties.put(key, value.toString());
+                }
+            }
+            return properties;
+        }
+        if (!excludeMDCKeys.isEmpty()) {
+            final Map<String, String> properties = new HashMap<>();
+            contextData.forEach((String key, Object value) -> {
+                if (value != null && !excludeMDCKeys.contains(key)) {
+                    properties.put(key, value.toString());
+                }
+            });
+            return properties;
+        }
+        return contextData.toMap();
+    }
+
     @Override
     public boolean stop(long timeout, TimeUnit timeUnit) {
         this.sender.close();
@@ -17,6 +17,9 @@ package com.splunk.logging;
 
 import ch.qos.logback.classic.pattern.MarkerConverter;
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
+import ch.qos.logback.classic.spi.ThrowableProxy;
 import ch.qos.logback.core.AppenderBase;
 import ch.qos.logback.core.Layout;
 import com.splunk.logging.hec.MetadataTags;
@@ -32,6 +35,8 @@ public class HttpEventCollectorLogbackAppender<E> extends AppenderBase<E> {
     private boolean _includeLoggerName = true;
     private boolean _includeThreadName = true;
     private boolean _includeMDC = true;
+    private String[] _includeMDCKeys = new String[0];
+    private Set<String> _excludeMDCKeys = new HashSet<>();
     private boolean _includeException = true;
 
     private String _source;
@@ -51,9 +56,32 @@ public class HttpEventCollectorLogbackAppender<E> extends AppenderBase<E> {
     private long _batchCount = 0;
     private long _batchSize = 0;
     private String _sendMode;
+    private String _rawEventDelimiter;
+    private String _metricsIndex;
+    private String _metricLoggers;
+    private String _priorityLevel;
+    private long _priorityLinger = 0;
+    private String _routes;
+    private String _metadataFromMdc;
+    private int _maxEventBytes = 0;
+    private int _maxFieldBytes = 0;
+    private String _flightRecorderLevels;
+    private String _flightRecorderKey;
+    private long _flightRecorderSize = HttpEventCollectorFlightRecorderStage.DefaultSize;
+    private long _flightRecorderMaxAge = HttpEventCollectorFlightRecorderStage.DefaultMaxAge;
+    private String _sampleRules;
+    private String _sampleKey;
+    private long _dedupWindow = 0;
+    private long _stacktraceWindow = -1;
+    private StackTraceFingerprints _stackTraces;
+    private long _exceptionDepth = -1;
+    private String _aggregateLoggers;
+    private String _aggregateLevels;
+    private long _aggregateInterval = HttpEventCollectorAggregationStage.DefaultInterval;
+    private String _aggregateAs;
+    private long _loadSheddingCapacity = 0;
     private long _retriesOnError = 0;
     private Map<String, String> _metadata = new HashMap<>();
-    private boolean _batchingConfigured = false;
 
 
     private HttpEventCollectorSender.TimeoutSettings timeoutSettings = new HttpEventCollectorSender.TimeoutSettings();
@@ -80,13 +108,41 @@ public class HttpEventCollectorLogbackAppender<E> extends AppenderBase<E> {
         if (_messageFormat != null)
             metadata.put(MetadataTags.MESSAGEFORMAT, _messageFormat);
 
-        // This should have been caught at configuration time, but double-check at start
-        if ("raw".equalsIgnoreCase(_type) && _batchingConfigured) {
-            throw new IllegalArgumentException("Batching configuration and sending type of raw are incompatible.");
-        }
+        if (_metricsIndex != null)
+            metadata.put(MetadataTags.METRICS_INDEX, _metricsIndex);
 
         this.sender = new HttpEventCollectorSender(
                 _url, _token, _channel, _type, _batchInterval, _batchCount, _batchSize, _sendMode, metadata, timeoutSettings);
+        this.sender.setRawEventDelimiter(_rawEventDelimiter);
+        this.sender.setMetricLoggers(_metricLoggers);
+        this.sender.setPriorityLevel(_priorityLevel);
+        this.sender.setPriorityLinger(_priorityLinger);
+        this.sender.setRoutes(_routes);
+        this.sender.setMetadataProperties(_metadataFromMdc);
+        this.sender.setSizeLimits(_maxEventBytes, _maxFieldBytes);
+        if (_stacktraceWindow >= 0 && _exceptionDepth >= 0) {
+            addError("stacktrace_window is ignored when exception_depth is set, exceptions are sent as a structured field");
+        }
+        _stackTraces = _stacktraceWindow >= 0 && _exceptionDepth < 0 ? new StackTraceFingerprints(_stacktraceWindow) : null;
+
+        // plug event stages, in the order events go through them
+        if (_flightRecorderLevels != null) {
+            this.sender.addEventStage(new HttpEventCollectorFlightRecorderStage(
+                    _flightRecorderLevels, null, _flightRecorderKey, (int) _flightRecorderSize, _flightRecorderMaxAge));
+        }
+        if (_sampleRules != null) {
+            this.sender.addEventStage(new HttpEventCollectorSamplingStage(_sampleRules, _sampleKey));
+        }
+        if (_dedupWindow > 0) {
+            this.sender.addEventStage(new HttpEventCollectorDedupStage(_dedupWindow));
+        }
+        if (_aggregateLoggers != null || _aggregateLevels != null) {
+            this.sender.addEventStage(new HttpEventCollectorAggregationStage(
+                    _aggregateLoggers, _aggregateLevels, _aggregateInterval, "metric".equalsIgnoreCase(_aggregateAs)));
+        }
+        if (_loadSheddingCapacity > 0) {
+            this.sender.addEventStage(new HttpEventCollectorLoadSheddingStage(_loadSheddingCapacity));
+        }
 
         // plug a user middleware
         if (_middleware != null && !_middleware.isEmpty()) {
@@ -142,20 +198,86 @@ public class HttpEventCollectorLogbackAppender<E> extends AppenderBase<E> {
             event.getCallerData();
         }
 
+        // events of metric loggers holding measurements are sent as metrics, with the selected MDC entries as dimensions
+        if (this.started && this.sender.isMetricLogger(event.getLoggerName())
+                && this.sender.sendMetric(event.getTimeStamp(), event.getFormattedMessage(), mdcProperties(event))) {
+            return;
+        }
+
         MarkerConverter c = new MarkerConverter();
         if (this.started) {
             this.sender.send(
+                    event.getTimeStamp(),
                     event.getLevel().toString(),
                     _layout.doLayout((E) event),
                     _includeLoggerName ? event.getLoggerName() : null,
                     _includeThreadName ? event.getThreadName() : null,
-                    _includeMDC ? event.getMDCPropertyMap() : null,
-                    (!_includeException || event.getThrowableProxy() == null) ? null : event.getThrowableProxy().getMessage(),
+                    _includeMDC ? mdcProperties(event) : null,
+                    exception(event.getThrowableProxy()),
+                    _includeException && _exceptionDepth >= 0
+                            ? exceptionInfo(event.getThrowableProxy(), 0) : null,
                     c.convert(event)
             );
         }
     }
 
+    private String exception(IThrowableProxy proxy) {
+        if (!_includeException || proxy == null || _exceptionDepth >= 0) {
+            return null;
+        }
+        // the throwable itself isn't available in events coming from other processes
+        if (_stackTraces != null && proxy instanceof ThrowableProxy) {
+            return _stackTraces.render(((ThrowableProxy) proxy).getThrowable());
+        }
+        return proxy.getMessage();
+    }
+
+    // from the proxy rather than the throwable, which isn't available in events coming from other processes
+    private HttpEventCollectorExceptionInfo exceptionInfo(IThrowableProxy proxy, int causes) {
+        if (proxy == null) {
+            return null;
+        }
+        StackTraceElementProxy[] proxies = proxy.getStackTraceElementProxyArray();
+        StackTraceElement[] elements = new StackTraceElement[proxies.length];
+        for (int i = 0; i < proxies.length; i++) {
+            elements[i] = proxies[i].getStackTraceElement();
+        }
+        return new HttpEventCollectorExceptionInfo(
+                proxy.getClassName(), proxy.getMessage(), elements, proxy.getCommonFrames(), (int) _exceptionDepth,
+                causes < HttpEventCollectorExceptionInfo.MaxCauses ? exceptionInfo(proxy.getCause(), causes + 1) : null);
+    }
+
+    // copy only the selected entries of the MDC of the event
+    private Map<String, String> mdcProperties(ILoggingEvent event) {
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc == null) {
+            return null;
+        }
+        if (_includeMDCKeys.length > 0) {
+            Map<String, String> properties = null;
+            for (String key : _includeMDCKeys) {
+                String value = mdc.get(key);
+                if (value != null) {
+                    if (properties == null) {
+                        properties = new HashMap<>();
+                    }
+                    properties.put(key, value);
+                }
+            }
+            return properties;
+        }
+        if (!_excludeMDCKeys.isEmpty()) {
+            Map<String, String> properties = new HashMap<>();
+            for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                if (!_excludeMDCKeys.contains(entry.getKey())) {
+                    properties.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return properties;
+        }
+        return mdc;
+    }
+
     // send non ILoggingEvent such as ch.qos.logback.access.spi.IAccessEvent
     private void sendEvent(E e) {
         String message = _layout.doLayout(e);
@@ -194,18 +316,6 @@ public class HttpEventCollectorLogbackAppender<E> extends AppenderBase<E> {
 
     public void setType(String type) {
         this._type = type;
-        if ("raw".equalsIgnoreCase(type)) {
-            validateNotBatchedAndRaw();
-            this._batchCount = 1; // Enforce sending on every event
-        }
-    }
-
-    private void validateNotBatchedAndRaw() {
-        if ("raw".equalsIgnoreCase(_type)) {
-            if (_batchingConfigured) {
-                throw new IllegalArgumentException("Batching configuration and sending type of raw are incompatible.");
-            }
-        }
     }
 
     public String getType() {
@@ -244,6 +354,14 @@ public class HttpEventCollectorLogbackAppender<E> extends AppenderBase<E> {
         this._includeMDC = includeMDC;
     }
 
+    public void setIncludeMDCKeys(String includeMDCKeys) {
+        this._includeMDCKeys = HttpEventCollectorSender.parseList(includeMDCKeys);
+    }
+
+    public void setExcludeMDCKeys(String excludeMDCKeys) {
+        this._excludeMDCKeys = new HashSet<>(Arrays.asList(HttpEventCollectorSender.parseList(excludeMDCKeys)));
+    }
+
     public boolean getIncludeException() {
         return _includeException;
     }
@@ -310,26 +428,119 @@ public class HttpEventCollectorLogbackAppender<E> extends AppenderBase<E> {
 
     public void setbatch_size_count(String value) {
         _batchCount = parseLong(value, HttpEventCollectorSender.DefaultBatchCount);
-        _batchingConfigured = true;
-        validateNotBatchedAndRaw();
     }
 
     public void setbatch_size_bytes(String value) {
         _batchSize = parseLong(value, HttpEventCollectorSender.DefaultBatchSize);
-        _batchingConfigured = true;
-        validateNotBatchedAndRaw();
     }
 
     public void setbatch_interval(String value) {
         _batchInterval = parseLong(value, HttpEventCollectorSender.DefaultBatchInterval);
-        _batchingConfigured = true;
-        validateNotBatchedAndRaw();
     }
 
     public void setretries_on_error(String value) {
         _retriesOnError = parseLong(value, 0);
     }
 
+    public void setraw_event_delimiter(String value) {
+        _rawEventDelimiter = value;
+    }
+
+    public void setmetrics_index(String value) {
+        _metricsIndex = value;
+    }
+
+    public void setmetric_loggers(String value) {
+        _metricLoggers = value;
+    }
+
+    public void setflight_recorder_levels(String value) {
+        _flightRecorderLevels = value;
+    }
+
+    public void setflight_recorder_key(String value) {
+        _flightRecorderKey = value;
+    }
+
+    public void setflight_recorder_size(String value) {
+        _flightRecorderSize = parseLong(value, HttpEventCollectorFlightRecorderStage.DefaultSize);
+    }
+
+    public void setflight_recorder_max_age(String value) {
+        _flightRecorderMaxAge = parseLong(value, (int) HttpEventCollectorFlightRecorderStage.DefaultMaxAge);
+    }
+
+    public void setsample_rules(String value) {
+        _sampleRules = value;
+    }
+
+    public void setsample_key(String value) {
+        _sampleKey = value;
+    }
+
+    public void setpriority_level(String value) {
+        _priorityLevel = value;
+    }
+
+    public void setpriority_linger(String value) {
+        _priorityLinger = parseLong(value, 0);
+    }
+
+    public void setroutes(String value) {
+        _routes = value;
+    }
+
+    public void setmetadata_from_mdc(String value) {
+        _metadataFromMdc = value;
+    }
+
+    public void setmax_event_bytes(String value) {
+        _maxEventBytes = (int) parseLong(value, 0);
+    }
+
+    public void setmax_field_bytes(String value) {
+        _maxFieldBytes = (int) parseLong(value, 0);
+    }
+
+    /**
+     * Render a recurring stack trace in full once per window, ignored if exception_depth is set.
+     */
+    public void setstacktrace_window(String value) {
+        _stacktraceWindow = parseLong(value, (int) StackTraceFingerprints.DefaultWindow);
+    }
+
+    /**
+     * Send exceptions as a structured field, with at most the given number of frames per exception.
+     * Takes precedence over stacktrace_window.
+     */
+    public void setexception_depth(String value) {
+        _exceptionDepth = parseLong(value, HttpEventCollectorExceptionInfo.DefaultDepth);
+    }
+
+    public void setdedup_window(String value) {
+        _dedupWindow = parseLong(value, (int) HttpEventCollectorDedupStage.DefaultWindow);
+    }
+
+    public void setaggregate_loggers(String value) {
+        _aggregateLoggers = value;
+    }
+
+    public void setaggregate_levels(String value) {
+        _aggregateLevels = value;
+    }
+
+    public void setaggregate_interval(String value) {
+        _aggregateInterval = parseLong(value, (int) HttpEventCollectorAggregationStage.DefaultInterval);
+    }
+
+    public void setaggregate_as(String value) {
+        _aggregateAs = value;
+    }
+
+    public void setload_shedding_capacity(String value) {
+        _loadSheddingCapacity = parseLong(value, 0);
+    }
+
     public void setsend_mode(String value) {
         _sendMode = value;
     }
@@ -83,6 +83,7 @@ package com.splunk.logging;
 import com.splunk.logging.hec.MetadataTags;
 
 import java.util.*;
+import java.util.logging.ErrorManager;
 import java.util.logging.Handler;
 import java.util.logging.LogManager;
 import java.util.logging.LogRecord;
@@ -100,6 +101,8 @@ public final class HttpEventCollectorLoggingHandler extends Handler {
     private final boolean includeThreadName;
     private final String IncludeExceptionConfTag = "include_exception";
     private final boolean includeException;
+    private final StackTraceFingerprints stackTraces;
+    private final int exceptionDepth;
 
 
     private final String BatchDelayConfTag = "batch_interval";
@@ -109,6 +112,28 @@ public final class HttpEventCollectorLoggingHandler extends Handler {
     private final String UrlConfTag = "url";
     private final String SendModeTag = "send_mode";
     private final String MiddlewareTag = "middleware";
+    private final String RawEventDelimiterTag = "raw_event_delimiter";
+    private final String MetricLoggersTag = "metric_loggers";
+    private final String PriorityLevelTag = "priority_level";
+    private final String PriorityLingerTag = "priority_linger";
+    private final String RoutesTag = "routes";
+    private final String MetadataFromMdcTag = "metadata_from_mdc";
+    private final String MaxEventBytesTag = "max_event_bytes";
+    private final String MaxFieldBytesTag = "max_field_bytes";
+    private final String FlightRecorderLevelsTag = "flight_recorder_levels";
+    private final String FlightRecorderKeyTag = "flight_recorder_key";
+    private final String FlightRecorderSizeTag = "flight_recorder_size";
+    private final String FlightRecorderMaxAgeTag = "flight_recorder_max_age";
+    private final String SampleRulesTag = "sample_rules";
+    private final String SampleKeyTag = "sample_key";
+    private final String DedupWindowTag = "dedup_window";
+    private final String StacktraceWindowTag = "stacktrace_window";
+    private final String ExceptionDepthTag = "exception_depth";
+    private final String AggregateLoggersTag = "aggregate_loggers";
+    private final String AggregateLevelsTag = "aggregate_levels";
+    private final String AggregateIntervalTag = "aggregate_interval";
+    private final String AggregateAsTag = "aggregate_as";
+    private final String LoadSheddingCapacityTag = "load_shedding_capacity";
 
     private final String ConnectTimeoutConfTag = "connect_timeout";
     private final String CallTimeoutConfTag = "call_timeout";
@@ -135,6 +160,9 @@ public final class HttpEventCollectorLoggingHandler extends Handler {
         metadata.put(MetadataTags.MESSAGEFORMAT,
             getConfigurationProperty(MetadataTags.MESSAGEFORMAT, null));
 
+        metadata.put(MetadataTags.METRICS_INDEX,
+                getConfigurationProperty(MetadataTags.METRICS_INDEX, null));
+
         // http event collector endpoint properties
         String url = getConfigurationProperty(UrlConfTag, null);
 
@@ -160,6 +188,17 @@ public final class HttpEventCollectorLoggingHandler extends Handler {
         includeLoggerName = getConfigurationBooleanProperty(IncludeLoggerNameConfTag, true);
         includeThreadName = getConfigurationBooleanProperty(IncludeThreadNameConfTag, true);
         includeException = getConfigurationBooleanProperty(IncludeExceptionConfTag, true);
+        exceptionDepth = getConfigurationProperty(ExceptionDepthTag, null) != null
+                ? (int) getConfigurationNumericProperty(ExceptionDepthTag, HttpEventCollectorExceptionInfo.DefaultDepth)
+                : -1;
+        // exceptions sent as a structured field are not rendered as text, nor fingerprinted
+        if (getConfigurationProperty(StacktraceWindowTag, null) != null && exceptionDepth >= 0) {
+            reportError(StacktraceWindowTag + " is ignored when " + ExceptionDepthTag + " is set", null,
+                    ErrorManager.GENERIC_FAILURE);
+        }
+        stackTraces = getConfigurationProperty(StacktraceWindowTag, null) != null && exceptionDepth < 0
+                ? new StackTraceFingerprints(getConfigurationNumericProperty(StacktraceWindowTag, StackTraceFingerprints.DefaultWindow))
+                : null;
 
         HttpEventCollectorSender.TimeoutSettings timeoutSettings = new HttpEventCollectorSender.TimeoutSettings(
             getConfigurationNumericProperty(ConnectTimeoutConfTag, HttpEventCollectorSender.TimeoutSettings.DEFAULT_CONNECT_TIMEOUT),
@@ -168,18 +207,48 @@ public final class HttpEventCollectorLoggingHandler extends Handler {
             getConfigurationNumericProperty(WriteTimeoutConfTag, HttpEventCollectorSender.TimeoutSettings.DEFAULT_WRITE_TIMEOUT)
         );
 
-        if ("raw".equalsIgnoreCase(type)) {
-            if (batchCount != HttpEventCollectorSender.DefaultBatchCount
-                        || batchSize != HttpEventCollectorSender.DefaultBatchSize
-                        || delay != HttpEventCollectorSender.DefaultBatchInterval) {
-                throw new IllegalArgumentException("Batching configuration and sending type of raw are incompatible.");
-            }
-            batchCount = 1;
-        }
-
         // delegate all configuration params to event sender
         this.sender = new HttpEventCollectorSender(
                 url, token, channel, type, delay, batchCount, batchSize, sendMode, metadata, timeoutSettings);
+        this.sender.setRawEventDelimiter(getConfigurationProperty(RawEventDelimiterTag, null));
+        this.sender.setMetricLoggers(getConfigurationProperty(MetricLoggersTag, null));
+        this.sender.setPriorityLevel(getConfigurationProperty(PriorityLevelTag, null));
+        this.sender.setPriorityLinger(getConfigurationNumericProperty(PriorityLingerTag, 0));
+        this.sender.setRoutes(getConfigurationProperty(RoutesTag, null));
+        this.sender.setMetadataProperties(getConfigurationProperty(MetadataFromMdcTag, null));
+        this.sender.setSizeLimits(
+                (int) getConfigurationNumericProperty(MaxEventBytesTag, 0),
+                (int) getConfigurationNumericProperty(MaxFieldBytesTag, 0));
+
+        // plug event stages, in the order events go through them
+        String flightRecorderLevels = getConfigurationProperty(FlightRecorderLevelsTag, null);
+        if (flightRecorderLevels != null) {
+            this.sender.addEventStage(new HttpEventCollectorFlightRecorderStage(
+                    flightRecorderLevels, null, getConfigurationProperty(FlightRecorderKeyTag, null),
+                    (int) getConfigurationNumericProperty(FlightRecorderSizeTag, HttpEventCollectorFlightRecorderStage.DefaultSize),
+                    getConfigurationNumericProperty(FlightRecorderMaxAgeTag, HttpEventCollectorFlightRecorderStage.DefaultMaxAge)));
+        }
+        String sampleRules = getConfigurationProperty(SampleRulesTag, null);
+        if (sampleRules != null) {
+            this.sender.addEventStage(new HttpEventCollectorSamplingStage(
+                    sampleRules, getConfigurationProperty(SampleKeyTag, null)));
+        }
+        if (getConfigurationProperty(DedupWindowTag, null) != null) {
+            this.sender.addEventStage(new HttpEventCollectorDedupStage(
+                    getConfigurationNumericProperty(DedupWindowTag, HttpEventCollectorDedupStage.DefaultWindow)));
+        }
+        String aggregateLoggers = getConfigurationProperty(AggregateLoggersTag, null);
+        String aggregateLevels = getConfigurationProperty(AggregateLevelsTag, null);
+        if (aggregateLoggers != null || aggregateLevels != null) {
+            this.sender.addEventStage(new HttpEventCollectorAggregationStage(
+                    aggregateLoggers, aggregateLevels,
+                    getConfigurationNumericProperty(AggregateIntervalTag, HttpEventCollectorAggregationStage.DefaultInterval),
+                    "metric".equalsIgnoreCase(getConfigurationProperty(AggregateAsTag, null))));
+        }
+        long loadSheddingCapacity = getConfigurationNumericProperty(LoadSheddingCapacityTag, 0);
+        if (loadSheddingCapacity > 0) {
+            this.sender.addEventStage(new HttpEventCollectorLoadSheddingStage(loadSheddingCapacity));
+        }
 
         // plug a user middleware
         if (middleware != null && !middleware.isEmpty()) {
@@ -222,17 +291,33 @@ public final class HttpEventCollectorLoggingHandler extends Handler {
      */
     @Override
     public void publish(LogRecord record) {
+        // records of metric loggers holding measurements are sent as metrics
+        if (this.sender.isMetricLogger(record.getLoggerName())
+                && this.sender.sendMetric(record.getMillis(), record.getMessage(), null)) {
+            return;
+        }
+
         this.sender.send(
+                record.getMillis(),
                 record.getLevel().toString(),
                 record.getMessage(),
                 includeLoggerName ? record.getLoggerName() : null,
                 includeThreadName ? String.format(Locale.US, "%d", record.getThreadID()) : null,
                 null, // no property map available
-                (!includeException || record.getThrown() == null) ? null : record.getThrown().getMessage(),
+                exception(record.getThrown()),
+                includeException && exceptionDepth >= 0
+                        ? HttpEventCollectorExceptionInfo.of(record.getThrown(), exceptionDepth) : null,
                 null // no marker available
         );
     }
 
+    private String exception(Throwable thrown) {
+        if (!includeException || thrown == null || exceptionDepth >= 0) {
+            return null;
+        }
+        return stackTraces != null ? stackTraces.render(thrown) : thrown.getMessage();
+    }
+
     /**
      * java.util.logging data handler callback
      */
@@ -0,0 +1,119 @@
+package com.splunk.logging;
+
+/**
+ * @copyright
+ *
+ * Copyright 2013-2015 Splunk, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"): you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Container for a HEC metric event: one or more measurements sharing the same timestamp and
+ * dimensions, sent as a single multi-metric event to the metrics index.
+ */
+public class HttpEventCollectorMetricInfo extends HttpEventCollectorEventInfo {
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s,]+");
+
+    private final Map<String, Number> measurements;
+
+    /**
+     * Create a new HttpEventCollectorMetricInfo container
+     * @param timeMillis metric timestamp in milliseconds since the epoch
+     * @param measurements values by metric name, e.g. "cpu.idle" to 95.5
+     * @param dimensions dimensions of the measurements
+     */
+    public HttpEventCollectorMetricInfo(
+            final long timeMillis,
+            final Map<String, ? extends Number> measurements,
+            final Map<String, String> dimensions
+    ) {
+        super(timeMillis, "", "", null, null, dimensions, null, null);
+        this.measurements = Collections.unmodifiableMap(new LinkedHashMap<>(measurements));
+    }
+
+    /**
+     * Parse measurements from a text such as {@code "cpu.idle=95.5 mem.free=1024 region=us-west-1"}.
+     * Pairs with a finite numeric value are measurements, the other pairs are added to the dimensions.
+     * @param timeMillis metric timestamp in milliseconds since the epoch
+     * @param text name=value pairs separated by whitespace or commas
+     * @param dimensions dimensions of the measurements, e.g. the MDC of the logging event
+     * @return the metric, null if the text holds no measurement
+     */
+    public static HttpEventCollectorMetricInfo parse(
+            final long timeMillis,
+            final String text,
+            final Map<String, String> dimensions
+    ) {
+        if (text == null) {
+            return null;
+        }
+        Map<String, Number> measurements = new LinkedHashMap<>();
+        Map<String, String> allDimensions = dimensions;
+        for (String pair : SEPARATORS.split(text.trim())) {
+            int equals = pair.indexOf('=');
+            if (equals <= 0 || equals == pair.length() - 1) {
+                continue;
+            }
+            String name = pair.substring(0, equals);
+            String value = pair.substring(equals + 1);
+            Number number = parseNumber(value);
+            if (number != null) {
+                measurements.put(name, number);
+            } else {
+                if (allDimensions == dimensions) {
+                    allDimensions = dimensions != null ? new HashMap<>(dimensions) : new HashMap<>();
+                }
+                allDimensions.put(name, value);
+            }
+        }
+        return measurements.isEmpty() ? null : new HttpEventCollectorMetricInfo(timeMillis, measurements, allDimensions);
+    }
+
+    private static Number parseNumber(String value) {
+        char first = value.charAt(0);
+        if (first != '-' && first != '+' && first != '.' && (first < '0' || first > '9')) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException notLong) {
+            try {
+                double number = Double.parseDouble(value);
+                return Double.isInfinite(number) || Double.isNaN(number) ? null : number;
+            } catch (NumberFormatException notNumber) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * @return metric values by metric name
+     */
+    public Map<String, Number> getMeasurements() {
+        return measurements;
+    }
+
+    /**
+     * @return metric dimensions
+     */
+    public Map<String, String> getDimensions() {
+        return getProperties();
+    }
+}
@@ -0,0 +1,188 @@
+package com.splunk.logging;
+
+/**
+ * @copyright
+ *
+ * Copyright 2013-2015 Splunk, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"): you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+import com.splunk.logging.hec.MetadataTags;
+import com.splunk.logging.serialization.HecJsonSerializer;
+import okhttp3.HttpUrl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splunk http event collector route.
+ *
+ * A route sends the events matching its conditions to another destination than the one of the
+ * sender: another token, index, sourcetype, source or host. Each route has its own batch and its own
+ * precompiled metadata, while all the routes of a sender share its timer and http client.
+ *
+ * A route is written "conditions -> destination", both comma separated lists of name=value pairs,
+ * e.g. "logger=com.example.audit, level=WARN|ERROR -> index=audit, sourcetype=example:audit".
+ * Conditions are
+ *   logger=name[|name...]   the logger, or one of its descendants
+ *   level=severity[|severity...]
+ *   marker=name
+ *   mdc.key=value           a property of the event, e.g. an MDC value
+ * an event matching all of them takes the route. The destination sets any of token, index,
+ * sourcetype, source and host, the others are the ones of the sender.
+ */
+public class HttpEventCollectorRoute {
+    private static final Set<String> DESTINATION_TAGS = new HashSet<>(
+            Arrays.asList("token", MetadataTags.INDEX, MetadataTags.SOURCETYPE, MetadataTags.SOURCE, MetadataTags.HOST));
+    private static final String PropertyPrefix = "mdc.";
+
+    private final String[] loggers;
+    private final Set<String> levels = new HashSet<>();
+    private final String marker;
+    private final Map<String, String> properties = new HashMap<>();
+    private final String token;
+    private final Map<String, String> metadata = new HashMap<>();
+
+    // destination and batches, set and used by the sender under its lock
+    HecJsonSerializer.CompiledTemplate template;
+    HttpUrl url;
+    List<HttpEventCollectorEventInfo> eventsBatch = new HttpEventCollectorSender.Batch(this, false);
+    long eventsBatchSize = 0;
+    List<HttpEventCollectorEventInfo> priorityBatch = new HttpEventCollectorSender.Batch(this, true);
+
+    /**
+     * Create a route.
+     * @param route conditions and destination, see the class description
+     * @throws IllegalArgumentException if the route isn't valid
+     */
+    public HttpEventCollectorRoute(String route) {
+        int arrow = route.indexOf("->");
+        if (arrow < 0) {
+            throw new IllegalArgumentException("Route " + route + " has no destination");
+        }
+        String[] loggerNames = new String[0];
+        String markerName = null;
+        for (String condition : HttpEventCollectorSender.parseList(route.substring(0, arrow))) {
+            String name = name(route, condition);
+            String value = value(condition);
+            if (name.equals("logger")) {
+                loggerNames = value.split("\\s*\\|\\s*");
+            } else if (name.equals("level")) {
+                for (String level : value.split("\\s*\\|\\s*")) {
+                    levels.add(level.toUpperCase(Locale.ROOT));
+                }
+            } else if (name.equals("marker")) {
+                markerName = value;
+            } else if (name.startsWith(PropertyPrefix)) {
+                properties.put(name.substring(PropertyPrefix.length()), value);
+            } else {
+                throw new IllegalArgumentException("Route " + route + " has an unknown condition " + name);
+            }
+        }
+        this.loggers = loggerNames;
+        this.marker = markerName;
+
+        String tokenValue = null;
+        for (String destination : HttpEventCollectorSender.parseList(route.substring(arrow + 2))) {
+            String name = name(route, destination);
+            if (!DESTINATION_TAGS.contains(name)) {
+                throw new IllegalArgumentException("Route " + route + " has an unknown destination " + name);
+            }
+            if (name.equals("token")) {
+                tokenValue = value(destination);
+            } else {
+                metadata.put(name, value(destination));
+            }
+        }
+        this.token = tokenValue;
+    }
+
+    private static String name(String route, String pair) {
+        int equals = pair.indexOf('=');
+        if (equals <= 0) {
+            throw new IllegalArgumentException("Route " + route + " has an invalid entry " + pair);
+        }
+        return pair.substring(0, equals).trim();
+    }
+
+    private static String value(String pair) {
+        return pair.substring(pair.indexOf('=') + 1).trim();
+    }
+
+    /**
+     * @param routes routes separated by semicolons, may be null
+     * @return the routes, in the same order
+     */
+    public static List<HttpEventCollectorRoute> parse(String routes) {
+        if (routes == null || routes.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<HttpEventCollectorRoute> list = new ArrayList<>();
+        for (String route : routes.split(";")) {
+            if (!route.trim().isEmpty()) {
+                list.add(new HttpEventCollectorRoute(route.trim()));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * @param event logging event
+     * @return true if the event takes this route
+     */
+    public boolean matches(HttpEventCollectorEventInfo event) {
+        if (loggers.length > 0 && !HttpEventCollectorSender.matchesLogger(loggers, event.getLoggerName())) {
+            return false;
+        }
+        if (!levels.isEmpty()
+                && (event.getSeverity() == null || !levels.contains(event.getSeverity().toUpperCase(Locale.ROOT)))) {
+            return false;
+        }
+        if (marker != null) {
+            String eventMarker = event.getMarker() != null ? event.getMarker().toString() : null;
+            // log4j markers print their parents after their name
+            if (eventMarker == null || !(eventMarker.equals(marker) || eventMarker.startsWith(marker + "["))) {
+                return false;
+            }
+        }
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            if (event.getProperties() == null
+                    || !property.getValue().equals(event.getProperties().get(property.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the token of the route, null to use the one of the sender
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * @return the metadata replaced by the route
+     */
+    public Map<String, String> getMetadata() {
+        return Collections.unmodifiableMap(metadata);
+    }
+}
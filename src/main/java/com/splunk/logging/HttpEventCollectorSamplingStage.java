@@ -0,0 +1,152 @@
+package com.splunk.logging;
+
+/**
+ * @copyright
+ *
+ * Copyright 2013-2015 Splunk, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"): you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Splunk http event collector sampling stage.
+ *
+ * Event stage sending only a fraction of the events of high volume loggers. Sampling rules are
+ * comma separated "logger[:level]=rate" entries, e.g. "com.example.access:INFO=0.01,com.example=0.5",
+ * where the logger includes its descendant loggers, "*" matches every logger including events
+ * without one, such as the access events of logback, and the rate is between 0 and 1. The rule with
+ * the longest matching logger applies, a rule with a level is preferred to one without.
+ *
+ * The events kept carry a "sample_rate" property so searches can weight them. The decision is random,
+ * or when a sampling key is set, derived from the hash of the key property, so all the events of a
+ * request holding the same e.g. trace id are kept or dropped together.
+ *
+ * The rules are immutable and the random numbers are drawn per thread, the stage holds no mutable
+ * state and is called by the logging threads concurrently, without locking.
+ */
+public class HttpEventCollectorSamplingStage extends HttpEventCollectorEventStage {
+    public static final String SampleRateProperty = "sample_rate";
+
+    private final Rule[] rules;
+    private final String key;
+
+    /**
+     * Create a sampling stage.
+     * @param rules comma separated sampling rules
+     * @param key property keeping or dropping events together, random sampling if null
+     * @throws IllegalArgumentException if a rule isn't valid
+     */
+    public HttpEventCollectorSamplingStage(String rules, String key) {
+        String[] entries = HttpEventCollectorSender.parseList(rules);
+        this.rules = new Rule[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            this.rules[i] = new Rule(entries[i]);
+        }
+        this.key = key;
+    }
+
+    @Override
+    public void process(HttpEventCollectorEventInfo event) {
+        Rule rule = rule(event);
+        if (rule == null || rule.rate >= 1) {
+            callNext(event);
+            return;
+        }
+        if (sample(event) >= rule.rate) {
+            return;
+        }
+        Map<String, String> properties = event.getProperties() != null
+                ? new HashMap<>(event.getProperties()) : new HashMap<String, String>();
+        properties.put(SampleRateProperty, rule.rateText);
+        callNext(new HttpEventCollectorEventInfo(event.getTimeMillis(), event.getSeverity(), event.getMessage(),
+                event.getLoggerName(), event.getThreadName(), properties, event.getExceptionMessage(),
+                event.getException(), event.getMarker()));
+    }
+
+    private Rule rule(HttpEventCollectorEventInfo event) {
+        if (event instanceof HttpEventCollectorMetricInfo) {
+            return null;
+        }
+        Rule best = null;
+        for (Rule rule : rules) {
+            if (rule.matches(event) && (best == null || rule.moreSpecificThan(best))) {
+                best = rule;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return a number in [0, 1), uniformly distributed
+     */
+    private double sample(HttpEventCollectorEventInfo event) {
+        String value = key != null && event.getProperties() != null ? event.getProperties().get(key) : null;
+        if (value == null) {
+            return ThreadLocalRandom.current().nextDouble();
+        }
+        // spread the bits of the string hash, then keep 53 of them
+        long hash = value.hashCode() * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+        hash *= 0x9E3779B97F4A7C15L;
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+
+    private static final class Rule {
+        private final String logger; // null for any logger
+        private final String[] loggers;
+        private final String level; // null for any level
+        private final double rate;
+        private final String rateText;
+
+        Rule(String rule) {
+            int equals = rule.lastIndexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Sampling rule " + rule + " has no rate");
+            }
+            String selector = rule.substring(0, equals).trim();
+            int colon = selector.indexOf(':');
+            String loggerName = colon < 0 ? selector : selector.substring(0, colon).trim();
+            this.logger = loggerName.equals("*") ? null : loggerName;
+            this.loggers = new String[] {loggerName};
+            this.level = colon < 0 ? null : selector.substring(colon + 1).trim().toUpperCase(Locale.ROOT);
+            this.rateText = rule.substring(equals + 1).trim();
+            try {
+                this.rate = Double.parseDouble(rateText);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Sampling rule " + rule + " has an invalid rate", e);
+            }
+            if (!(rate >= 0 && rate <= 1)) {
+                throw new IllegalArgumentException("Sampling rule " + rule + " has a rate out of [0, 1]");
+            }
+        }
+
+        boolean matches(HttpEventCollectorEventInfo event) {
+            return (logger == null || HttpEventCollectorSender.matchesLogger(loggers, event.getLoggerName()))
+                    && (level == null || level.equalsIgnoreCase(event.getSeverity()));
+        }
+
+        boolean moreSpecificThan(Rule other) {
+            int length = logger != null ? logger.length() : -1;
+            int otherLength = other.logger != null ? other.logger.length() : -1;
+            if (length != otherLength) {
+                return length > otherLength;
+            }
+            return level != null && other.level == null;
+        }
+    }
+}
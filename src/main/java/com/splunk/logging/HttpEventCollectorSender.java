@@ -22,14 +22,17 @@ import com.google.gson.*;
 import com.splunk.logging.hec.MetadataTags;
 import com.splunk.logging.serialization.EventInfoTypeAdapter;
 import com.splunk.logging.serialization.HecJsonSerializer;
+import com.splunk.logging.serialization.HecJsonWriter;
+import com.splunk.logging.serialization.HecJsonWriterPool;
 import okhttp3.*;
+import okio.BufferedSink;
 
 import javax.net.ssl.*;
 import java.io.IOException;
 import java.io.Serializable;
 import java.security.cert.CertificateException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -50,7 +53,11 @@ public class HttpEventCollectorSender extends TimerTask implements HttpEventColl
             .registerTypeAdapter(HttpEventCollectorEventInfo.class, new EventInfoTypeAdapter())
             .create();
 
+    private static final MediaType JsonMediaType = MediaType.parse(JsonHttpContentType);
+    private static final MediaType PlainTextMediaType = MediaType.parse(PlainTextHttpContentType);
+
     private final HecJsonSerializer serializer;
+    private final HecJsonWriterPool writerPool = new HecJsonWriterPool();
 
 
     /**
@@ -70,21 +77,49 @@ public class HttpEventCollectorSender extends TimerTask implements HttpEventColl
     public static final int DefaultBatchInterval = 10 * 1000; // 10 seconds
     public static final int DefaultBatchSize = 10 * 1024; // 10KB
     public static final int DefaultBatchCount = 10; // 10 events
+    public static final String DefaultRawEventDelimiter = System.lineSeparator();
+    private static final long EventStageTickInterval = 1000; // 1 second
 
     private HttpUrl url;
+    private HttpUrl metricsUrl; // metrics always go to the event endpoint
+    private final String baseUrl;
+    private final Map<String, String> metadata;
     private String token;
     private String channel;
     private String type;
     private long maxEventsBatchCount;
     private long maxEventsBatchSize;
     private Timer timer;
-    private List<HttpEventCollectorEventInfo> eventsBatch = new LinkedList<HttpEventCollectorEventInfo>();
+    private List<HttpEventCollectorEventInfo> eventsBatch = new Batch(null, false);
     private long eventsBatchSize = 0; // estimated total size of events batch
+    private volatile int maxEventBytes = 0;
+    private volatile int maxFieldBytes = 0;
+    private final AtomicLong truncatedRawEvents = new AtomicLong();
+    // metric events of a raw sender, which have to be posted apart from the raw events
+    private List<HttpEventCollectorEventInfo> metricsBatch = new Batch(null, false);
+    private String[] metricLoggers = new String[0];
+    // events at or above the priority severity skip the batching delay
+    private List<HttpEventCollectorEventInfo> priorityBatch = new Batch(null, true);
+    private int priorityRank = Integer.MAX_VALUE;
+    private long priorityLinger = 0;
+    private Timer priorityTimer;
+    private TimerTask priorityFlushTask;
+    // copied on write, read by the http threads posting the batches of the routes
+    private volatile HttpEventCollectorRoute[] routes = new HttpEventCollectorRoute[0];
+    // read without the lock, the event stages are called outside of it
+    private volatile HttpEventCollectorEventStage eventStages = null;
+    // events posted and not yet acknowledged, including the resends of the middleware
+    private final AtomicLong pendingEventsCount = new AtomicLong();
+    // events batched, or posted and not yet acknowledged, read without the lock by the load shedding stage
+    private final AtomicLong queuedEventsCount = new AtomicLong();
+    private Timer eventStageTimer;
     private static final OkHttpClient httpSharedClient = new OkHttpClient(); // shared instance with the default settings
     private OkHttpClient httpClient = null; // shares the same connection pool and thread pools with the shared instance
+    private OkHttpClient priorityHttpClient = null; // same as httpClient, with its own requests queue
     private boolean disableCertificateValidation = false;
     private SendMode sendMode = SendMode.Sequential;
     private HttpEventCollectorMiddleware middleware = new HttpEventCollectorMiddleware();
+    private String rawEventDelimiter = DefaultRawEventDelimiter;
 
     /**
      * Initialize HttpEventCollectorSender
@@ -105,6 +140,8 @@ public class HttpEventCollectorSender extends TimerTask implements HttpEventColl
         this.token = token;
         this.channel = channel;
         this.type = type;
+        this.baseUrl = Url;
+        this.metadata = new HashMap<>(metadata);
         if (timeoutSettings != null) {
             this.timeoutSettings = timeoutSettings;
         }
@@ -113,17 +150,11 @@ public class HttpEventCollectorSender extends TimerTask implements HttpEventColl
             if (channel == null || channel.trim().equals("")) {
                 this.channel = UUID.randomUUID().toString();
             }
-            HttpUrl fullUrl = HttpUrl.parse(Url + HttpRawCollectorUriPath);
-            if (fullUrl == null) {
-                throw new IllegalArgumentException(String.format("Unparseable URL argument: %s",  Url + HttpEventCollectorUriPath));
-            }
-            HttpUrl.Builder urlBuilder = fullUrl
-                    .newBuilder()
-                    .addQueryParameter(ChannelQueryParam, channel);
-            metadata.forEach(urlBuilder::addQueryParameter);
-            this.url = urlBuilder.build();
+            this.url = rawUrl(metadata);
+            this.metricsUrl = HttpUrl.parse(Url + HttpEventCollectorUriPath);
         } else {
             this.url = HttpUrl.parse(Url + HttpEventCollectorUriPath);
+            this.metricsUrl = this.url;
         }
 
         // when size configuration setting is missing it's treated as "infinity",
@@ -157,16 +188,143 @@ public class HttpEventCollectorSender extends TimerTask implements HttpEventColl
         }
     }
 
+    // raw events metadata is passed as query parameters
+    private HttpUrl rawUrl(Map<String, String> metadata) {
+        HttpUrl fullUrl = HttpUrl.parse(baseUrl + HttpRawCollectorUriPath);
+        if (fullUrl == null) {
+            throw new IllegalArgumentException(String.format("Unparseable URL argument: %s",  baseUrl + HttpEventCollectorUriPath));
+        }
+        HttpUrl.Builder urlBuilder = fullUrl
+                .newBuilder()
+                .addQueryParameter(ChannelQueryParam, this.channel);
+        metadata.forEach((key, value) -> {
+            if (!MetadataTags.INTERNAL_TAGS.contains(key)) {
+                urlBuilder.addQueryParameter(key, value);
+            }
+        });
+        return urlBuilder.build();
+    }
+
+    /**
+     * Add a route at the end of the routes, events take the first route they match, or go to the
+     * destination of the sender if they match none.
+     * @param route is a new route
+     */
+    public synchronized void addRoute(HttpEventCollectorRoute route) {
+        route.template = serializer.compileTemplate(route.getMetadata());
+        if ("Raw".equalsIgnoreCase(type)) {
+            Map<String, String> routeMetadata = new HashMap<>(metadata);
+            routeMetadata.putAll(route.getMetadata());
+            route.url = rawUrl(routeMetadata);
+        } else {
+            route.url = url;
+        }
+        HttpEventCollectorRoute[] updated = Arrays.copyOf(routes, routes.length + 1);
+        updated[routes.length] = route;
+        routes = updated;
+    }
+
+    /**
+     * Take metadata values from event properties, e.g. "index=tenant_index" sends each event to the
+     * index named by its "tenant_index" MDC value, when it has one. Raw events aren't affected.
+     * @param metadataProperties comma separated metadata=property pairs, may be null
+     */
+    public void setMetadataProperties(String metadataProperties) {
+        Map<String, String> mapping = new LinkedHashMap<>();
+        for (String pair : parseList(metadataProperties)) {
+            int equals = pair.indexOf('=');
+            if (equals <= 0 || equals == pair.length() - 1) {
+                throw new IllegalArgumentException("Invalid metadata property: " + pair);
+            }
+            mapping.put(pair.substring(0, equals).trim(), pair.substring(equals + 1).trim());
+        }
+        serializer.setMetadataProperties(mapping);
+    }
+
+    /**
+     * Limit the size of the events, longer messages and property values are truncated with a marker
+     * while the events are serialized.
+     * @param maxEventBytes approximate limit of a serialized event, 0 for no limit
+     * @param maxFieldBytes limit of each message and property value, 0 for no limit
+     */
+    public void setSizeLimits(int maxEventBytes, int maxFieldBytes) {
+        this.maxEventBytes = maxEventBytes;
+        this.maxFieldBytes = maxFieldBytes;
+        serializer.setSizeLimits(maxEventBytes, maxFieldBytes);
+    }
+
+    /**
+     * @return number of events sent with truncated values so far
+     */
+    public long getTruncatedEventsCount() {
+        return serializer.getTruncatedEventsCount() + truncatedRawEvents.get();
+    }
+
+    /**
+     * Add routes, see {@link HttpEventCollectorRoute}
+     * @param routes routes separated by semicolons, may be null
+     */
+    public void setRoutes(String routes) {
+        for (HttpEventCollectorRoute route : HttpEventCollectorRoute.parse(routes)) {
+            addRoute(route);
+        }
+    }
+
+    private HttpEventCollectorRoute route(HttpEventCollectorEventInfo eventInfo) {
+        if (eventInfo instanceof HttpEventCollectorMetricInfo) {
+            return null;
+        }
+        for (HttpEventCollectorRoute route : routes) {
+            if (route.matches(eventInfo)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
     public void addMiddleware(HttpEventCollectorMiddleware.HttpSenderMiddleware middleware) {
         this.middleware.add(middleware);
     }
 
+    /**
+     * Plug an event stage at the end of the event stages chain.
+     * @param stage is a new event stage
+     */
+    public synchronized void addEventStage(HttpEventCollectorEventStage stage) {
+        stage.sender = this;
+        if (eventStages == null) {
+            eventStages = stage;
+        } else {
+            HttpEventCollectorEventStage last = eventStages;
+            while (last.next != null) {
+                last = last.next;
+            }
+            last.next = stage;
+        }
+        if (eventStageTimer == null) {
+            eventStageTimer = new Timer(true);
+            eventStageTimer.scheduleAtFixedRate(new TimerTask() {
+                @Override
+                public void run() {
+                    tickEventStages();
+                }
+            }, EventStageTickInterval, EventStageTickInterval);
+        }
+    }
+
+    private void tickEventStages() {
+        long now = System.currentTimeMillis();
+        for (HttpEventCollectorEventStage stage = eventStages; stage != null; stage = stage.next) {
+            stage.tick(now);
+        }
+    }
+
     /**
      * Send a single logging event in case of batching the event isn't sent immediately
      * @param severity event severity level (info, warning, etc.)
      * @param message event text
      */
-    public synchronized void send(
+    public void send(
             final String severity,
             final String message,
             final String logger_name,
@@ -174,14 +332,174 @@ public class HttpEventCollectorSender extends TimerTask implements HttpEventColl
             Map<String, String> properties,
             final String exception_message,
             Serializable marker
+    ) {
+        send(System.currentTimeMillis(), severity, message, logger_name, thread_name, properties, exception_message, marker);
+    }
+
+    /**
+     * Send a single logging event with the timestamp assigned by the logging framework,
+     * in case of batching the event isn't sent immediately
+     * @param timeMillis event timestamp in milliseconds since the epoch
+     * @param severity event severity level (info, warning, etc.)
+     * @param message event text
+     */
+    public void send(
+            final long timeMillis,
+            final String severity,
+            final String message,
+            final String logger_name,
+            final String thread_name,
+            Map<String, String> properties,
+            final String exception_message,
+            Serializable marker
+    ) {
+        send(timeMillis, severity, message, logger_name, thread_name, properties, exception_message, null, marker);
+    }
+
+    /**
+     * Send a single logging event with the timestamp assigned by the logging framework and the
+     * structured exception, in case of batching the event isn't sent immediately
+     * @param timeMillis event timestamp in milliseconds since the epoch
+     * @param severity event severity level (info, warning, etc.)
+     * @param message event text
+     * @param exception exception with its stack frames, sent instead of exception_message, may be null
+     */
+    public void send(
+            final long timeMillis,
+            final String severity,
+            final String message,
+            final String logger_name,
+            final String thread_name,
+            Map<String, String> properties,
+            final String exception_message,
+            final HttpEventCollectorExceptionInfo exception,
+            Serializable marker
     ) {
         // create event info container and add it to the batch
-        HttpEventCollectorEventInfo eventInfo =
-                new HttpEventCollectorEventInfo(severity, message, logger_name, thread_name, properties, exception_message, marker);
-        eventsBatch.add(eventInfo);
-        eventsBatchSize += severity.length() + message.length();
-        if (eventsBatch.size() >= maxEventsBatchCount || eventsBatchSize > maxEventsBatchSize) {
-            flush();
+        dispatch(new HttpEventCollectorEventInfo(
+                timeMillis, severity, message, logger_name, thread_name, properties, exception_message, exception, marker));
+    }
+
+    /**
+     * Pass an event to the event stages, or straight to the batch. The stages are called without
+     * holding the lock of the sender, only the batching takes it.
+     */
+    private void dispatch(HttpEventCollectorEventInfo eventInfo) {
+        HttpEventCollectorEventStage stages = eventStages;
+        if (stages == null) {
+            enqueue(eventInfo);
+        } else {
+            stages.process(eventInfo);
+        }
+    }
+
+    /**
+     * Add an event to the batch, and send the batch once it is full
+     * @param eventInfo event, or metric, to send
+     */
+    synchronized void enqueue(HttpEventCollectorEventInfo eventInfo) {
+        queuedEventsCount.incrementAndGet();
+        HttpEventCollectorRoute route = route(eventInfo);
+        if (isPriority(eventInfo)) {
+            (route != null ? route.priorityBatch : priorityBatch).add(eventInfo);
+            if (priorityLinger <= 0) {
+                flushPriority();
+            } else if (priorityFlushTask == null) {
+                if (priorityTimer == null) {
+                    priorityTimer = new Timer(true);
+                }
+                priorityFlushTask = new TimerTask() {
+                    @Override
+                    public void run() {
+                        flushPriority();
+                    }
+                };
+                priorityTimer.schedule(priorityFlushTask, priorityLinger);
+            }
+            return;
+        }
+        if (eventInfo instanceof HttpEventCollectorMetricInfo) {
+            if ("Raw".equalsIgnoreCase(type)) {
+                metricsBatch.add(eventInfo);
+            } else {
+                eventsBatch.add(eventInfo);
+            }
+            for (String name : ((HttpEventCollectorMetricInfo) eventInfo).getMeasurements().keySet()) {
+                eventsBatchSize += name.length() + 8;
+            }
+        } else if (route != null) {
+            route.eventsBatch.add(eventInfo);
+            route.eventsBatchSize += estimatedSize(eventInfo);
+            if (route.eventsBatch.size() >= maxEventsBatchCount || route.eventsBatchSize > maxEventsBatchSize) {
+                flush(route);
+            }
+            return;
+        } else {
+            eventsBatch.add(eventInfo);
+            eventsBatchSize += estimatedSize(eventInfo);
+        }
+        if (eventsBatch.size() + metricsBatch.size() >= maxEventsBatchCount || eventsBatchSize > maxEventsBatchSize) {
+            flushBatch();
+        }
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    // oversized messages are truncated when they are serialized, they don't count in full
+    private long estimatedSize(HttpEventCollectorEventInfo eventInfo) {
+        long size = length(eventInfo.getSeverity()) + length(eventInfo.getMessage());
+        return maxEventBytes > 0 ? Math.min(size, maxEventBytes) : size;
+    }
+
+    private boolean isPriority(HttpEventCollectorEventInfo eventInfo) {
+        return !(eventInfo instanceof HttpEventCollectorMetricInfo)
+                && severityRank(eventInfo.getSeverity()) >= priorityRank;
+    }
+
+    /**
+     * Set the severity from which events are sent without waiting for the batch, ahead of it
+     * @param priorityLevel severity, e.g. "ERROR", or null to batch all the events
+     */
+    public synchronized void setPriorityLevel(String priorityLevel) {
+        this.priorityRank = priorityLevel != null && !priorityLevel.trim().isEmpty()
+                ? severityRank(priorityLevel.trim()) : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Set how long priority events wait for other priority events to be sent along with them
+     * @param priorityLinger delay in milliseconds, 0 to send each priority event at once
+     */
+    public synchronized void setPriorityLinger(long priorityLinger) {
+        this.priorityLinger = priorityLinger;
+    }
+
+    /**
+     * @param severity event severity of any of the supported logging frameworks
+     * @return 0 for debug, 1 for info, 2 for warning and 3 for error severities, 1 if unknown
+     */
+    static int severityRank(String severity) {
+        if (severity == null) {
+            return 1;
+        }
+        switch (severity.toUpperCase(Locale.ROOT)) {
+            case "TRACE":
+            case "DEBUG":
+            case "FINE":
+            case "FINER":
+            case "FINEST":
+            case "ALL":
+                return 0;
+            case "WARN":
+            case "WARNING":
+                return 2;
+            case "ERROR":
+            case "SEVERE":
+            case "FATAL":
+                return 3;
+            default:
+                return 1;
         }
     }
 
@@ -189,24 +507,162 @@ public class HttpEventCollectorSender extends TimerTask implements HttpEventColl
      * Send a single logging event with message only in case of batching the event isn't sent immediately
      * @param message event text
      */
-    public synchronized void send(final String message) {
+    public void send(final String message) {
         send("", message, "", "", null, null, "");
     }
 
+    /**
+     * Send measurements as a single HEC multi-metric event, batched with the logging events
+     * @param timeMillis metric timestamp in milliseconds since the epoch
+     * @param measurements values by metric name
+     * @param dimensions dimensions of the measurements, may be null
+     */
+    public void sendMetric(
+            final long timeMillis,
+            final Map<String, ? extends Number> measurements,
+            final Map<String, String> dimensions
+    ) {
+        dispatch(new HttpEventCollectorMetricInfo(timeMillis, measurements, dimensions));
+    }
+
+    /**
+     * Send the measurements found in a text such as {@code "cpu.idle=95.5 mem.free=1024"} as a single
+     * HEC multi-metric event, see {@link HttpEventCollectorMetricInfo#parse}
+     * @param timeMillis metric timestamp in milliseconds since the epoch
+     * @param text name=value pairs
+     * @param dimensions dimensions of the measurements, may be null
+     * @return false if the text holds no measurement, nothing is sent then
+     */
+    public boolean sendMetric(
+            final long timeMillis,
+            final String text,
+            final Map<String, String> dimensions
+    ) {
+        HttpEventCollectorMetricInfo metricInfo = HttpEventCollectorMetricInfo.parse(timeMillis, text, dimensions);
+        if (metricInfo == null) {
+            return false;
+        }
+        dispatch(metricInfo);
+        return true;
+    }
+
+    /**
+     * Set the loggers whose events are sent as metrics, see {@link #isMetricLogger(String)}
+     * @param metricLoggers comma separated logger names
+     */
+    public void setMetricLoggers(String metricLoggers) {
+        this.metricLoggers = parseList(metricLoggers);
+    }
+
+    /**
+     * @param loggerName name of the logger of an event
+     * @return true if the logger, or one of its ancestors, is configured to send metrics
+     */
+    public boolean isMetricLogger(String loggerName) {
+        return matchesLogger(metricLoggers, loggerName);
+    }
+
+    /**
+     * @param list comma separated values, may be null
+     * @return the values, trimmed
+     */
+    static String[] parseList(String list) {
+        if (list == null || list.trim().isEmpty()) {
+            return new String[0];
+        }
+        return list.trim().split("\\s*,\\s*");
+    }
+
+    /**
+     * @param loggers logger names
+     * @param loggerName name of the logger of an event
+     * @return true if the logger is one of the loggers, or a descendant of one of them
+     */
+    static boolean matchesLogger(String[] loggers, String loggerName) {
+        if (loggerName == null) {
+            return false;
+        }
+        for (String logger : loggers) {
+            if (loggerName.startsWith(logger)
+                    && (loggerName.length() == logger.length() || loggerName.charAt(logger.length()) == '.')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return number of events waiting in the batch, or posted and not yet acknowledged by the server
+     */
+    public synchronized long getQueuedEventsCount() {
+        long count = pendingEventsCount.get() + priorityBatch.size() + eventsBatch.size() + metricsBatch.size();
+        for (HttpEventCollectorRoute route : routes) {
+            count += route.priorityBatch.size() + route.eventsBatch.size();
+        }
+        return count;
+    }
+
+    /**
+     * Same count as getQueuedEventsCount, kept up to date as the events are batched and
+     * acknowledged so it can be read for each event without taking the lock of the sender.
+     * @return number of events waiting in the batch, or posted and not yet acknowledged by the server
+     */
+    long getQueuedEventsEstimate() {
+        return queuedEventsCount.get();
+    }
+
     /**
      * Flush all pending events
      */
     public synchronized void flush() {
+        flushPriority();
+        flushBatch();
+        for (HttpEventCollectorRoute route : routes) {
+            flush(route);
+        }
+    }
+
+    // send the batch of the events taking no route
+    private synchronized void flushBatch() {
         if (eventsBatch.size() > 0) {
             postEventsAsync(eventsBatch);
         }
+        if (metricsBatch.size() > 0) {
+            postEventsAsync(metricsBatch);
+        }
         // Clear the batch. A new list should be created because events are
         // sending asynchronously and "previous" instance of eventsBatch object
         // is still in use.
-        eventsBatch = new LinkedList<>();
+        eventsBatch = new Batch(null, false);
+        metricsBatch = new Batch(null, false);
         eventsBatchSize = 0;
     }
 
+    private synchronized void flush(HttpEventCollectorRoute route) {
+        if (route.eventsBatch.size() > 0) {
+            postEventsAsync(route.eventsBatch);
+            route.eventsBatch = new Batch(route, false);
+            route.eventsBatchSize = 0;
+        }
+    }
+
+    private synchronized void flushPriority() {
+        if (priorityFlushTask != null) {
+            priorityFlushTask.cancel();
+            priorityFlushTask = null;
+        }
+        if (priorityBatch.size() > 0) {
+            postEventsAsync(priorityBatch);
+            priorityBatch = new Batch(null, true);
+        }
+        for (HttpEventCollectorRoute route : routes) {
+            if (route.priorityBatch.size() > 0) {
+                postEventsAsync(route.priorityBatch);
+                route.priorityBatch = new Batch(route, true);
+            }
+        }
+    }
+
     public synchronized void flush(boolean close) {
         flush();
         if (close) {
@@ -220,7 +676,10 @@ public class HttpEventCollectorSender extends TimerTask implements HttpEventColl
     void close() {
         if (timer != null)
             timer.cancel();
+        drainEventStages();
         flush();
+        if (priorityTimer != null)
+            priorityTimer.cancel();
         stopHttpClient();
         super.cancel();
     }
@@ -233,6 +692,17 @@ public class HttpEventCollectorSender extends TimerTask implements HttpEventColl
         flush();
     }
 
+    private void drainEventStages() {
+        synchronized (this) {
+            if (eventStageTimer != null) {
+                eventStageTimer.cancel();
+            }
+        }
+        for (HttpEventCollectorEventStage stage = eventStages; stage != null; stage = stage.next) {
+            stage.drain();
+        }
+    }
+
     /**
      * Disable https certificate validation of the splunk server.
      * This functionality is for development purpose only.
@@ -249,6 +719,39 @@ public class HttpEventCollectorSender extends TimerTask implements HttpEventColl
         serializer.setEventHeaderSerializer(eventHeaderSerializer);
     }
 
+    /**
+     * Set the text put between events batched for the raw endpoint, the line breaking of the
+     * source type must split on it. Multi-line events need a delimiter which does not occur in
+     * the events themselves. The escape sequences \n, \r, \t and \\ are recognized, so the
+     * delimiter can be given in configuration files.
+     * @param rawEventDelimiter delimiter, the line separator of the platform if null or empty
+     */
+    public void setRawEventDelimiter(String rawEventDelimiter) {
+        if (rawEventDelimiter == null || rawEventDelimiter.isEmpty()) {
+            this.rawEventDelimiter = DefaultRawEventDelimiter;
+            return;
+        }
+        StringBuilder delimiter = new StringBuilder(rawEventDelimiter.length());
+        for (int i = 0; i < rawEventDelimiter.length(); i++) {
+            char c = rawEventDelimiter.charAt(i);
+            if (c == '\\' && i + 1 < rawEventDelimiter.length()) {
+                char escaped = rawEventDelimiter.charAt(++i);
+                switch (escaped) {
+                    case 'n': c = '\n'; break;
+                    case 'r': c = '\r'; break;
+                    case 't': c = '\t'; break;
+                    case '\\': c = '\\'; break;
+                    default:
+                        // not an escape sequence, keep it as is
+                        delimiter.append(c);
+                        c = escaped;
+                }
+            }
+            delimiter.append(c);
+        }
+        this.rawEventDelimiter = delimiter.toString();
+    }
+
     public static void putIfPresent(JsonObject collection, String tag, Object value) {
         if (value != null) {
             if (value instanceof String && ((String) value).length() == 0) {
@@ -265,6 +768,10 @@ public class HttpEventCollectorSender extends TimerTask implements HttpEventColl
             httpClient.dispatcher().executorService().shutdown();
             httpClient = null;
         }
+        if (priorityHttpClient != null) {
+            priorityHttpClient.dispatcher().executorService().shutdown();
+            priorityHttpClient = null;
+        }
     }
 
     private void startHttpClient() {
@@ -318,13 +825,23 @@ public class HttpEventCollectorSender extends TimerTask implements HttpEventColl
         }
 
         httpClient = builder.build();
+
+        // priority events don't queue behind the batches
+        Dispatcher priorityDispatcher = new Dispatcher();
+        if (sendMode == SendMode.Sequential) {
+            priorityDispatcher.setMaxRequests(1);
+        }
+        priorityHttpClient = httpClient.newBuilder().dispatcher(priorityDispatcher).build();
     }
 
     private void postEventsAsync(final List<HttpEventCollectorEventInfo> events) {
+        pendingEventsCount.addAndGet(events.size());
         this.middleware.postEvents(events,  this, new HttpEventCollectorMiddleware.IHttpSenderCallback() {
 
             @Override
             public void completed(int statusCode, String reply) {
+                pendingEventsCount.addAndGet(-events.size());
+                queuedEventsCount.addAndGet(-events.size());
                 if (statusCode != 200) {
                     HttpEventCollectorErrorHandler.error(
                             events,
@@ -334,6 +851,8 @@ public class HttpEventCollectorSender extends TimerTask implements HttpEventColl
 
             @Override
             public void failed(Exception ex) {
+                pendingEventsCount.addAndGet(-events.size());
+                queuedEventsCount.addAndGet(-events.size());
                 HttpEventCollectorErrorHandler.error(
                         events,
                         new HttpEventCollectorErrorHandler.ServerErrorException(ex.getMessage()));
@@ -345,46 +864,127 @@ public class HttpEventCollectorSender extends TimerTask implements HttpEventColl
                            final HttpEventCollectorMiddleware.IHttpSenderCallback callback) {
         startHttpClient(); // make sure http client is started
         // create http request
-        Request.Builder requestBldr = new Request.Builder()
-                .url(url)
-                .addHeader(AuthorizationHeaderTag, String.format(AuthorizationHeaderScheme, token));
-        if ("Raw".equalsIgnoreCase(type)) {
-            String lineSeparatedEvents = events.stream()
-                    .map(HttpEventCollectorEventInfo::getMessage)
-                    .collect(Collectors.joining(System.lineSeparator()));
-            requestBldr.post(RequestBody.create(MediaType.parse(PlainTextHttpContentType), lineSeparatedEvents));
+        // batches of a raw sender hold either raw events or metrics, which are sent to the event endpoint
+        boolean metrics = !events.isEmpty() && events.get(0) instanceof HttpEventCollectorMetricInfo;
+        // priority events, and the events of each route, are batched apart from the others
+        boolean priority;
+        HttpEventCollectorRoute route;
+        if (events instanceof Batch) {
+            priority = ((Batch) events).priority;
+            route = ((Batch) events).route;
         } else {
-            // convert events list into a string
-            StringBuilder eventsBatchString = new StringBuilder();
-            for (HttpEventCollectorEventInfo eventInfo : events) {
-                eventsBatchString.append(serializer.serialize(eventInfo));
-            }
-            requestBldr.post(RequestBody.create(MediaType.parse(JsonHttpContentType), eventsBatchString.toString()));
+            // events passed on by a middleware in a list of its own
+            priority = !events.isEmpty() && isPriority(events.get(0));
+            route = events.isEmpty() ? null : route(events.get(0));
         }
-
-        httpClient.newCall(requestBldr.build()).enqueue(new Callback() {
-            @Override
-            public void onResponse(Call call, final Response response) {
-                String reply = "";
-                int httpStatusCode = response.code();
-                // read reply only in case of a server error
-                try (ResponseBody body = response.body()) {
-                    if (httpStatusCode != 200 && body != null) {
-                        try {
-                            reply = body.string();
-                        } catch (IOException e) {
-                            reply = e.getMessage();
+        String requestToken = route != null && route.getToken() != null ? route.getToken() : token;
+        Request.Builder requestBldr = new Request.Builder()
+                .url(metrics ? metricsUrl : route != null ? route.url : url)
+                .addHeader(AuthorizationHeaderTag, String.format(AuthorizationHeaderScheme, requestToken));
+        HecJsonWriter writer = writerPool.acquire();
+        try {
+            if ("Raw".equalsIgnoreCase(type) && !metrics) {
+                // raw events are delimited so Splunk can break the body back into events
+                boolean first = true;
+                for (HttpEventCollectorEventInfo eventInfo : events) {
+                    if (!first) {
+                        writer.text(rawEventDelimiter);
+                    }
+                    // a missing message is written as "null", as joining the messages did
+                    String message = String.valueOf(eventInfo.getMessage());
+                    if (maxEventBytes > 0 || maxFieldBytes > 0) {
+                        writer.limitValues(maxEventBytes, maxFieldBytes);
+                        writer.text(message);
+                        if (writer.endLimits() > 0) {
+                            truncatedRawEvents.incrementAndGet();
                         }
+                    } else {
+                        writer.text(message);
                     }
+                    first = false;
                 }
-                callback.completed(httpStatusCode, reply);
+                requestBldr.post(new SerializedEventsBody(PlainTextMediaType, writer));
+            } else {
+                // stream events list into a single pooled UTF-8 buffer, handed to OkHttp without copying
+                for (HttpEventCollectorEventInfo eventInfo : events) {
+                    serializer.serialize(eventInfo, writer, route != null ? route.template : null);
+                }
+                requestBldr.post(new SerializedEventsBody(JsonMediaType, writer));
             }
 
-            @Override
-            public void onFailure(Call call, IOException ex) {
-                callback.failed(ex);
-            }
-        });
+            // the buffer may be read again when OkHttp retries, release it only once the call is over
+            final HecJsonWriter requestWriter = writer;
+            (priority ? priorityHttpClient : httpClient).newCall(requestBldr.build()).enqueue(new Callback() {
+                @Override
+                public void onResponse(Call call, final Response response) {
+                    writerPool.release(requestWriter);
+                    String reply = "";
+                    int httpStatusCode = response.code();
+                    // read reply only in case of a server error
+                    try (ResponseBody body = response.body()) {
+                        if (httpStatusCode != 200 && body != null) {
+                            try {
+                                reply = body.string();
+                            } catch (IOException e) {
+                                reply = e.getMessage();
+                            }
+                        }
+                    }
+                    callback.completed(httpStatusCode, reply);
+                }
+
+                @Override
+                public void onFailure(Call call, IOException ex) {
+                    writerPool.release(requestWriter);
+                    callback.failed(ex);
+                }
+            });
+        } catch (RuntimeException ex) {
+            // the call was never enqueued, neither OkHttp callback will release the buffer
+            writerPool.release(writer);
+            callback.failed(ex);
+        }
+    }
+
+    /**
+     * Batch of events, with the route and the lane chosen when its events were batched.
+     */
+    static final class Batch extends LinkedList<HttpEventCollectorEventInfo> {
+        private final HttpEventCollectorRoute route; // null for the destination of the sender
+        private final boolean priority;
+
+        Batch(HttpEventCollectorRoute route, boolean priority) {
+            this.route = route;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * Request body streaming the serialized events straight from the writer buffer.
+     */
+    private static final class SerializedEventsBody extends RequestBody {
+        private final MediaType contentType;
+        private final HecJsonWriter writer;
+
+        SerializedEventsBody(MediaType contentType, HecJsonWriter writer) {
+            this.contentType = contentType;
+            this.writer = writer;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return contentType;
+        }
+
+        @Override
+        public long contentLength() {
+            return writer.size();
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            writer.writeTo(sink.outputStream());
+        }
     }
 
     public static class TimeoutSettings {
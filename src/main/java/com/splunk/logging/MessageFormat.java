@@ -22,6 +22,9 @@ enum MessageFormat {
     TEXT("text"),
     JSON("json");
 
+    // Gson instances are thread safe and expensive to build, share a single one
+    private static final Gson gson = new GsonBuilder().create();
+
     private final String format;
 
     MessageFormat(final String format) {
@@ -60,7 +63,6 @@ enum MessageFormat {
      * @return the parsed message JSON object or input message if parsing fails
      */
     private Object parseJsonEventMessage(final String message) {
-        Gson gson = new GsonBuilder().create();
         try {
             return gson.fromJson(message, JsonObject.class);
         } catch (JsonSyntaxException e) {
@@ -17,8 +17,10 @@ package com.splunk.logging;
  */
 
 
-import java.util.LinkedHashMap;
-import java.util.regex.Pattern;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <code>SplunkCimLogEvent</code> encapsulates the best practice logging semantics recommended by Splunk.
@@ -54,19 +56,95 @@ public class SplunkCimLogEvent {
     private static final String PAIRDELIM = " ";
     private static final char QUOTE = '"';
 
-    private LinkedHashMap<String, Object> entries;
+    /**
+     * Kinds of the field values: primitive values are stored unboxed, in numbers.
+     */
+    private static final byte OBJECT = 0;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte FLOAT = 3;
+    private static final byte CHAR = 4;
+
+    /**
+     * Fields in insertion order, a field added again keeps its place.
+     */
+    private String[] keys = new String[16];
+    private Object[] values = new Object[16];
+    private long[] numbers = new long[16];
+    private byte[] kinds = new byte[16];
+    private int size;
+    // set while the event is in the pool
+    private boolean released;
+
+    private static final ThreadLocal<SplunkCimLogEvent> POOL = new ThreadLocal<SplunkCimLogEvent>();
 
     /**
      * @param eventName event name
      * @param eventID event ID
      */
     public SplunkCimLogEvent(String eventName, String eventID) {
-        entries = new LinkedHashMap<String, Object>();
+        addField(PREFIX_NAME, eventName);
+        addField(PREFIX_EVENT_ID, eventID);
+    }
+
+    /**
+     * Take an event from the pool of the current thread, or create one if it is empty.
+     * Give it back with {@link #release(SplunkCimLogEvent)} once it is logged.
+     *
+     * @param eventName event name
+     * @param eventID event ID
+     * @return an event holding only the name and event ID fields
+     */
+    public static SplunkCimLogEvent acquire(String eventName, String eventID) {
+        SplunkCimLogEvent event = POOL.get();
+        if (event == null) {
+            return new SplunkCimLogEvent(eventName, eventID);
+        }
+        POOL.set(null);
+        event.released = false;
+        event.reset(eventName, eventID);
+        return event;
+    }
+
+    /**
+     * Give an event back to the pool of the current thread. The event must not be used afterwards.
+     *
+     * @param event event taken with {@link #acquire(String, String)}
+     * @throws IllegalStateException if the event was already released
+     */
+    public static void release(SplunkCimLogEvent event) {
+        if (event.released) {
+            throw new IllegalStateException("SplunkCimLogEvent released twice");
+        }
+        event.clear();
+        event.released = true;
+        POOL.set(event);
+    }
 
+    /**
+     * Remove all the fields, keeping the storage for reuse, and set the name and event ID fields again.
+     *
+     * @param eventName event name
+     * @param eventID event ID
+     */
+    public void reset(String eventName, String eventID) {
+        checkNotReleased();
+        clear();
         addField(PREFIX_NAME, eventName);
         addField(PREFIX_EVENT_ID, eventID);
     }
 
+    private void clear() {
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+
+    private void checkNotReleased() {
+        if (released) {
+            throw new IllegalStateException("SplunkCimLogEvent used after it was released");
+        }
+    }
+
     /**
      * Add a key value pair. The value may be any Java object which returns a sensible
      * result from its <code>toString</code> method.
@@ -77,7 +155,76 @@ public class SplunkCimLogEvent {
      * @param value value
      */
     public void addField(String key, Object value) {
-        entries.put(key, value);
+        int index = slot(key);
+        values[index] = value;
+        kinds[index] = OBJECT;
+    }
+
+    /**
+     * Add a key value pair, without boxing the value.
+     *
+     * @param key key
+     * @param value value
+     */
+    public void addField(String key, long value) {
+        addNumber(key, value, LONG);
+    }
+
+    /**
+     * Add a key value pair, without boxing the value.
+     *
+     * @param key key
+     * @param value value
+     */
+    public void addField(String key, double value) {
+        addNumber(key, Double.doubleToRawLongBits(value), DOUBLE);
+    }
+
+    /**
+     * Add a key value pair, without boxing the value.
+     *
+     * @param key key
+     * @param value value
+     */
+    public void addField(String key, float value) {
+        addNumber(key, Float.floatToRawIntBits(value), FLOAT);
+    }
+
+    /**
+     * Add a key value pair, without boxing the value.
+     *
+     * @param key key
+     * @param value value
+     */
+    public void addField(String key, char value) {
+        addNumber(key, value, CHAR);
+    }
+
+    private void addNumber(String key, long number, byte kind) {
+        int index = slot(key);
+        values[index] = null;
+        numbers[index] = number;
+        kinds[index] = kind;
+    }
+
+    // index of the field, added at the end if the key is new
+    private int slot(String key) {
+        checkNotReleased();
+        for (int i = 0; i < size; i++) {
+            // keys are nearly always the same constants
+            if (keys[i] == key || keys[i].equals(key)) {
+                return i;
+            }
+        }
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            numbers = Arrays.copyOf(numbers, capacity);
+            kinds = Arrays.copyOf(kinds, capacity);
+        }
+        keys[size] = key;
+        return size++;
     }
 
     /**
@@ -106,41 +253,121 @@ public class SplunkCimLogEvent {
         addField(THROWABLE_CLASS, throwable.getClass().getCanonicalName());
         addField(THROWABLE_MESSAGE, throwable.getMessage());
 
-        StackTraceElement[] elements = throwable.getStackTrace();
-        StringBuilder sb = new StringBuilder();
-        for (int depth = 0; depth < elements.length && depth < stacktraceDepth; depth++) {
-            if (depth > 0)
-                sb.append(",");
-            sb.append(elements[depth].toString());
-        }
-
+        // the frames of a recurring exception are rendered once
         if (stacktraceDepth > 0) {
-            addField(THROWABLE_STACKTRACE_ELEMENTS, sb.toString());
+            addField(THROWABLE_STACKTRACE_ELEMENTS, StackTraceFingerprints.joinedFrames(throwable, stacktraceDepth));
         }
     }
 
-    private static final Pattern DOUBLE_QUOTE = Pattern.compile("\"");
+    // escaped keys followed by the delimiter, keys are mostly the constants below
+    private static final int MAX_CACHED_KEYS = 1024;
+    private static final Map<String, String> KEY_PREFIXES = new ConcurrentHashMap<String, String>();
+
     @Override
     public String toString() {
-        StringBuilder output = new StringBuilder();
+        return appendTo(new StringBuilder(32 * size)).toString();
+    }
+
+    /**
+     * Append the event, formatted as {@link #toString()} does, without building intermediate strings.
+     *
+     * @param output destination
+     * @return output
+     */
+    public StringBuilder appendTo(StringBuilder output) {
+        try {
+            appendTo((Appendable) output);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // never thrown by a StringBuilder
+        }
+        return output;
+    }
 
-        boolean first = true;
-        for (String key : entries.keySet()) {
-            if (!first) {
+    /**
+     * Append the event, formatted as {@link #toString()} does, without building intermediate strings.
+     *
+     * @param output destination, e.g. a Writer
+     * @return output
+     * @throws IOException if output fails
+     */
+    public <A extends Appendable> A appendTo(A output) throws IOException {
+        checkNotReleased();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
                 output.append(PAIRDELIM);
-            } else {
-                first = false;
             }
-            String value = String.valueOf(entries.get(key));
-
-            // Escape any " that appear in the key or value.
-            key = DOUBLE_QUOTE.matcher(key).replaceAll("\\\\\"");
-            value = DOUBLE_QUOTE.matcher(value).replaceAll("\\\\\"");
+            output.append(QUOTE).append(keyPrefix(keys[i]));
+            appendValue(output, i);
+            output.append(QUOTE);
+        }
+        return output;
+    }
+
+    private void appendValue(Appendable output, int index) throws IOException {
+        long number = numbers[index];
+        StringBuilder sb = output instanceof StringBuilder ? (StringBuilder) output : null;
+        switch (kinds[index]) {
+            case LONG:
+                if (sb != null) {
+                    sb.append(number);
+                } else {
+                    output.append(Long.toString(number));
+                }
+                break;
+            case DOUBLE:
+                if (sb != null) {
+                    sb.append(Double.longBitsToDouble(number));
+                } else {
+                    output.append(Double.toString(Double.longBitsToDouble(number)));
+                }
+                break;
+            case FLOAT:
+                if (sb != null) {
+                    sb.append(Float.intBitsToFloat((int) number));
+                } else {
+                    output.append(Float.toString(Float.intBitsToFloat((int) number)));
+                }
+                break;
+            case CHAR:
+                if (number == QUOTE) {
+                    output.append('\\');
+                }
+                output.append((char) number);
+                break;
+            default:
+                Object value = values[index];
+                appendEscaped(output, value instanceof CharSequence ? (CharSequence) value : String.valueOf(value));
+        }
+    }
 
-            output.append(QUOTE).append(key).append(KVDELIM).append(value).append(QUOTE);
+    private static String keyPrefix(String key) {
+        String prefix = KEY_PREFIXES.get(key);
+        if (prefix == null) {
+            StringBuilder sb = new StringBuilder(key.length() + 2);
+            try {
+                appendEscaped(sb, key);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            prefix = sb.append(KVDELIM).toString();
+            if (KEY_PREFIXES.size() < MAX_CACHED_KEYS) {
+                KEY_PREFIXES.put(key, prefix);
+            }
         }
+        return prefix;
+    }
 
-        return output.toString();
+    // escape any " that appear in the text, copying the runs between them at once
+    private static void appendEscaped(Appendable output, CharSequence text) throws IOException {
+        int start = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) == QUOTE) {
+                output.append(text, start, i).append('\\');
+                start = i;
+            }
+        }
+        output.append(text, start, length);
     }
 
 
@@ -171,7 +398,7 @@ public class SplunkCimLogEvent {
     public void setAcManagementDestNtDomain(String acManagementDestNtDomain) {
         addField(AC_MANAGEMENT_DEST_NT_DOMAIN, acManagementDestNtDomain);
     }
-    public static String AC_MANAGEMENT_DEST_NT_DOMAIN = "dest_nt_domain";
+    public static final String AC_MANAGEMENT_DEST_NT_DOMAIN = "dest_nt_domain";
 
     /**
      * Description of the account management change performed.
@@ -179,7 +406,7 @@ public class SplunkCimLogEvent {
     public void setAcManagementSignature(String acManagementSignature) {
         addField(AC_MANAGEMENT_SIGNATURE, acManagementSignature);
     }
-    public static String AC_MANAGEMENT_SIGNATURE = "signature";
+    public static final String AC_MANAGEMENT_SIGNATURE = "signature";
 
     /**
      * The NT source of the destination. In the case of an account management
@@ -189,7 +416,7 @@ public class SplunkCimLogEvent {
     public void setAcManagementSrcNtDomain(String acManagementSrcNtDomain) {
         addField(AC_MANAGEMENT_SRC_NT_DOMAIN, acManagementSrcNtDomain);
     }
-    public static String AC_MANAGEMENT_SRC_NT_DOMAIN = "src_nt_domain";
+    public static final String AC_MANAGEMENT_SRC_NT_DOMAIN = "src_nt_domain";
 
     // ----------------------------------
     // Authentication - Access protection
@@ -201,14 +428,14 @@ public class SplunkCimLogEvent {
     public void setAuthAction(String authAction) {
         addField(AUTH_ACTION, authAction);
     }
-    public static String AUTH_ACTION = "action";
+    public static final String AUTH_ACTION = "action";
     /**
      * The application involved in the event (such as ssh, spunk, win:local).
      */
     public void setAuthApp(String authApp) {
         addField(AUTH_APP, authApp);
     }
-    public static String AUTH_APP = "app";
+    public static final String AUTH_APP = "app";
 
     /**
      * The target involved in the authentication. If your field is named
@@ -218,7 +445,7 @@ public class SplunkCimLogEvent {
     public void setAuthDest(String authDest) {
         addField(AUTH_DEST, authDest);
     }
-    public static String AUTH_DEST = "dest";
+    public static final String AUTH_DEST = "dest";
 
     /**
      * The source involved in the authentication. In the case of endpoint
@@ -232,7 +459,7 @@ public class SplunkCimLogEvent {
     public void setAuthSrc(String authSrc) {
         addField(AUTH_SRC, authSrc);
     }
-    public static String AUTH_SRC = "src";
+    public static final String AUTH_SRC = "src";
 
     /**
      * In privilege escalation events, src_user represents the user who
@@ -241,7 +468,7 @@ public class SplunkCimLogEvent {
     public void setAuthSrcUser(String authSrcUser) {
         addField(AUTH_SRC_USER, authSrcUser);
     }
-    public static String AUTH_SRC_USER = "src_user";
+    public static final String AUTH_SRC_USER = "src_user";
 
     /**
      * The name of the user involved in the event, or who initiated the event.
@@ -251,7 +478,7 @@ public class SplunkCimLogEvent {
     public void setAuthUser(String authUser) {
         addField(AUTH_USER, authUser);
     }
-    public static String AUTH_USER = "user";
+    public static final String AUTH_USER = "user";
 
     // ----------------------------------
     // Change analysis - Endpoint protection
@@ -265,7 +492,7 @@ public class SplunkCimLogEvent {
         addField(CHANGE_ENDPOINT_PROTECTION_ACTION,
                 changeEndpointProtectionAction);
     }
-    public static String CHANGE_ENDPOINT_PROTECTION_ACTION = "action";
+    public static final String CHANGE_ENDPOINT_PROTECTION_ACTION = "action";
 
     /**
      * The type of change discovered in the change analysis event.
@@ -275,7 +502,7 @@ public class SplunkCimLogEvent {
         addField(CHANGE_ENDPOINT_PROTECTION_CHANGE_TYPE,
                 changeEndpointProtectionChangeType);
     }
-    public static String CHANGE_ENDPOINT_PROTECTION_CHANGE_TYPE = "change_type";
+    public static final String CHANGE_ENDPOINT_PROTECTION_CHANGE_TYPE = "change_type";
 
     /**
      * The host that was affected by the change. If your field is named
@@ -286,7 +513,7 @@ public class SplunkCimLogEvent {
             String changeEndpointProtectionDest) {
         addField(CHANGE_ENDPOINT_PROTECTION_DEST, changeEndpointProtectionDest);
     }
-    public static String CHANGE_ENDPOINT_PROTECTION_DEST = "dest";
+    public static final String CHANGE_ENDPOINT_PROTECTION_DEST = "dest";
 
     /**
      * The hash signature of the modified resource.
@@ -295,7 +522,7 @@ public class SplunkCimLogEvent {
             String changeEndpointProtectionHash) {
         addField(CHANGE_ENDPOINT_PROTECTION_HASH, changeEndpointProtectionHash);
     }
-    public static String CHANGE_ENDPOINT_PROTECTION_HASH = "hash";
+    public static final String CHANGE_ENDPOINT_PROTECTION_HASH = "hash";
 
     /**
      * The group ID of the modified resource.
@@ -303,7 +530,7 @@ public class SplunkCimLogEvent {
     public void setChangeEndpointProtectionGid(long changeEndpointProtectionGid) {
         addField(CHANGE_ENDPOINT_PROTECTION_GID, changeEndpointProtectionGid);
     }
-    public static String CHANGE_ENDPOINT_PROTECTION_GID = "gid";
+    public static final String CHANGE_ENDPOINT_PROTECTION_GID = "gid";
 
     /**
      * Indicates whether or not the modified resource is a directory.
@@ -312,7 +539,7 @@ public class SplunkCimLogEvent {
             boolean changeEndpointProtectionIsdr) {
         addField(CHANGE_ENDPOINT_PROTECTION_ISDR, changeEndpointProtectionIsdr);
     }
-    public static String CHANGE_ENDPOINT_PROTECTION_ISDR = "isdr";
+    public static final String CHANGE_ENDPOINT_PROTECTION_ISDR = "isdr";
 
     /**
      * The permissions mode of the modified resource.
@@ -321,7 +548,7 @@ public class SplunkCimLogEvent {
             long changeEndpointProtectionMode) {
         addField(CHANGE_ENDPOINT_PROTECTION_MODE, changeEndpointProtectionMode);
     }
-    public static String CHANGE_ENDPOINT_PROTECTION_MODE = "mode";
+    public static final String CHANGE_ENDPOINT_PROTECTION_MODE = "mode";
 
     /**
      * The modification time of the modified resource.
@@ -331,7 +558,7 @@ public class SplunkCimLogEvent {
         addField(CHANGE_ENDPOINT_PROTECTION_MODTIME,
                 changeEndpointProtectionModtime);
     }
-    public static String CHANGE_ENDPOINT_PROTECTION_MODTIME = "modtime";
+    public static final String CHANGE_ENDPOINT_PROTECTION_MODTIME = "modtime";
 
     /**
      * The file path of the modified resource.
@@ -340,7 +567,7 @@ public class SplunkCimLogEvent {
             String changeEndpointProtectionPath) {
         addField(CHANGE_ENDPOINT_PROTECTION_PATH, changeEndpointProtectionPath);
     }
-    public static String CHANGE_ENDPOINT_PROTECTION_PATH = "path";
+    public static final String CHANGE_ENDPOINT_PROTECTION_PATH = "path";
 
     /**
      * The size of the modified resource.
@@ -349,7 +576,7 @@ public class SplunkCimLogEvent {
             long changeEndpointProtectionSize) {
         addField(CHANGE_ENDPOINT_PROTECTION_SIZE, changeEndpointProtectionSize);
     }
-    public static String CHANGE_ENDPOINT_PROTECTION_SIZE = "size";
+    public static final String CHANGE_ENDPOINT_PROTECTION_SIZE = "size";
 
     /**
      * The user ID of the modified resource.
@@ -357,7 +584,7 @@ public class SplunkCimLogEvent {
     public void setChangeEndpointProtectionUid(long changeEndpointProtectionUid) {
         addField(CHANGE_ENDPOINT_PROTECTION_UID, changeEndpointProtectionUid);
     }
-    public static String CHANGE_ENDPOINT_PROTECTION_UID = "uid";
+    public static final String CHANGE_ENDPOINT_PROTECTION_UID = "uid";
 
     // ----------------------------------
     // Change analysis - Network protection
@@ -370,7 +597,7 @@ public class SplunkCimLogEvent {
             String changeNetworkProtectionAction) {
         addField(CHANGE_NETWORK_PROTECTION_ACTION, changeNetworkProtectionAction);
     }
-    public static String CHANGE_NETWORK_PROTECTION_ACTION = "action";
+    public static final String CHANGE_NETWORK_PROTECTION_ACTION = "action";
 
     /**
      * The command that initiated the change.
@@ -380,7 +607,7 @@ public class SplunkCimLogEvent {
         addField(CHANGE_NETWORK_PROTECTION_COMMAND,
                 changeNetworkProtectionCommand);
     }
-    public static String CHANGE_NETWORK_PROTECTION_COMMAND = "command";
+    public static final String CHANGE_NETWORK_PROTECTION_COMMAND = "command";
 
     /**
      * The device that is directly affected by the change.
@@ -388,7 +615,7 @@ public class SplunkCimLogEvent {
     public void setChangeNetworkProtectionDvc(String changeNetworkProtectionDvc) {
         addField(CHANGE_NETWORK_PROTECTION_DVC, changeNetworkProtectionDvc);
     }
-    public static String CHANGE_NETWORK_PROTECTION_DVC = "dvc";
+    public static final String CHANGE_NETWORK_PROTECTION_DVC = "dvc";
 
     /**
      * The user that initiated the change.
@@ -397,7 +624,7 @@ public class SplunkCimLogEvent {
             String changeNetworkProtectionUser) {
         addField(CHANGE_NETWORK_PROTECTION_USER, changeNetworkProtectionUser);
     }
-    public static String CHANGE_NETWORK_PROTECTION_USER = "user";
+    public static final String CHANGE_NETWORK_PROTECTION_USER = "user";
 
     // ----------------------------------
     // Common event fields
@@ -409,7 +636,7 @@ public class SplunkCimLogEvent {
     public void setCommonCategory(String commonCategory) {
         addField(COMMON_CATEGORY, commonCategory);
     }
-    public static String COMMON_CATEGORY = "category";
+    public static final String COMMON_CATEGORY = "category";
 
     /**
      * A device-specific classification provided as part of the event.
@@ -417,7 +644,7 @@ public class SplunkCimLogEvent {
     public void setCommonCount(String commonCount) {
         addField(COMMON_COUNT, commonCount);
     }
-    public static String COMMON_COUNT = "count";
+    public static final String COMMON_COUNT = "count";
 
     /**
      * The free-form description of a particular event.
@@ -425,7 +652,7 @@ public class SplunkCimLogEvent {
     public void setCommonDesc(String commonDesc) {
         addField(COMMON_DESC, commonDesc);
     }
-    public static String COMMON_DESC = "desc";
+    public static final String COMMON_DESC = "desc";
 
     /**
      * The name of a given DHCP pool on a DHCP server.
@@ -433,7 +660,7 @@ public class SplunkCimLogEvent {
     public void setCommonDhcpPool(String commonDhcpPool) {
         addField(COMMON_DHCP_POOL, commonDhcpPool);
     }
-    public static String COMMON_DHCP_POOL = "dhcp_pool";
+    public static final String COMMON_DHCP_POOL = "dhcp_pool";
 
     /**
      * The amount of time the event lasted.
@@ -441,7 +668,7 @@ public class SplunkCimLogEvent {
     public void setCommonDuration(long commonDuration) {
         addField(COMMON_DURATION, commonDuration);
     }
-    public static String COMMON_DURATION = "duration";
+    public static final String COMMON_DURATION = "duration";
 
     /**
      * The fully qualified domain name of the device transmitting or recording
@@ -450,7 +677,7 @@ public class SplunkCimLogEvent {
     public void setCommonDvcHost(String commonDvcHost) {
         addField(COMMON_DVC_HOST, commonDvcHost);
     }
-    public static String COMMON_DVC_HOST = "dvc_host";
+    public static final String COMMON_DVC_HOST = "dvc_host";
 
     /**
      * The IPv4 address of the device reporting the event.
@@ -458,7 +685,7 @@ public class SplunkCimLogEvent {
     public void setCommonDvcIp(String commonDvcIp) {
         addField(COMMON_DVC_IP, commonDvcIp);
     }
-    public static String COMMON_DVC_IP = "dvc_ip";
+    public static final String COMMON_DVC_IP = "dvc_ip";
 
     /**
      * The IPv6 address of the device reporting the event.
@@ -466,7 +693,7 @@ public class SplunkCimLogEvent {
     public void setCommonDvcIp6(String commonDvcIp6) {
         addField(COMMON_DVC_IP6, commonDvcIp6);
     }
-    public static String COMMON_DVC_IP6 = "dvc_ip6";
+    public static final String COMMON_DVC_IP6 = "dvc_ip6";
 
     /**
      * The free-form description of the device's physical location.
@@ -474,7 +701,7 @@ public class SplunkCimLogEvent {
     public void setCommonDvcLocation(String commonDvcLocation) {
         addField(COMMON_DVC_LOCATION, commonDvcLocation);
     }
-    public static String COMMON_DVC_LOCATION = "dvc_location";
+    public static final String COMMON_DVC_LOCATION = "dvc_location";
 
     /**
      * The MAC (layer 2) address of the device reporting the event.
@@ -482,7 +709,7 @@ public class SplunkCimLogEvent {
     public void setCommonDvcMac(String commonDvcMac) {
         addField(COMMON_DVC_MAC, commonDvcMac);
     }
-    public static String COMMON_DVC_MAC = "dvc_mac";
+    public static final String COMMON_DVC_MAC = "dvc_mac";
 
     /**
      * The Windows NT domain of the device recording or transmitting the event.
@@ -490,7 +717,7 @@ public class SplunkCimLogEvent {
     public void setCommonDvcNtDomain(String commonDvcNtDomain) {
         addField(COMMON_DVC_NT_DOMAIN, commonDvcNtDomain);
     }
-    public static String COMMON_DVC_NT_DOMAIN = "dvc_nt_domain";
+    public static final String COMMON_DVC_NT_DOMAIN = "dvc_nt_domain";
 
     /**
      * The Windows NT host name of the device recording or transmitting the
@@ -499,7 +726,7 @@ public class SplunkCimLogEvent {
     public void setCommonDvcNtHost(String commonDvcNtHost) {
         addField(COMMON_DVC_NT_HOST, commonDvcNtHost);
     }
-    public static String COMMON_DVC_NT_HOST = "dvc_nt_host";
+    public static final String COMMON_DVC_NT_HOST = "dvc_nt_host";
 
     /**
      * Time at which the device recorded the event.
@@ -507,7 +734,7 @@ public class SplunkCimLogEvent {
     public void setCommonDvcTime(long commonDvcTime) {
         addField(COMMON_DVC_TIME, commonDvcTime);
     }
-    public static String COMMON_DVC_TIME = "dvc_time";
+    public static final String COMMON_DVC_TIME = "dvc_time";
 
     /**
      * The event's specified end time.
@@ -515,7 +742,7 @@ public class SplunkCimLogEvent {
     public void setCommonEndTime(long commonEndTime) {
         addField(COMMON_END_TIME, commonEndTime);
     }
-    public static String COMMON_END_TIME = "end_time";
+    public static final String COMMON_END_TIME = "end_time";
 
     /**
      * A unique identifier that identifies the event. This is unique to the
@@ -524,7 +751,7 @@ public class SplunkCimLogEvent {
     public void setCommonEventId(long commonEventId) {
         addField(COMMON_EVENT_ID, commonEventId);
     }
-    public static String COMMON_EVENT_ID = "event_id";
+    public static final String COMMON_EVENT_ID = "event_id";
 
     /**
      * The length of the datagram, event, message, or packet.
@@ -532,7 +759,7 @@ public class SplunkCimLogEvent {
     public void setCommonLength(long commonLength) {
         addField(COMMON_LENGTH, commonLength);
     }
-    public static String COMMON_LENGTH = "length";
+    public static final String COMMON_LENGTH = "length";
 
     /**
      * The log-level that was set on the device and recorded in the event.
@@ -540,7 +767,7 @@ public class SplunkCimLogEvent {
     public void setCommonLogLevel(String commonLogLevel) {
         addField(COMMON_LOG_LEVEL, commonLogLevel);
     }
-    public static String COMMON_LOG_LEVEL = "log_level";
+    public static final String COMMON_LOG_LEVEL = "log_level";
 
     /**
      * The name of the event as reported by the device. The name should not
@@ -550,7 +777,7 @@ public class SplunkCimLogEvent {
     public void setCommonName(String commonName) {
         addField(COMMON_NAME, commonName);
     }
-    public static String COMMON_NAME = "name";
+    public static final String COMMON_NAME = "name";
 
     /**
      * An integer assigned by the device operating system to the process
@@ -559,7 +786,7 @@ public class SplunkCimLogEvent {
     public void setCommonPid(long commonPid) {
         addField(COMMON_PID, commonPid);
     }
-    public static String COMMON_PID = "pid";
+    public static final String COMMON_PID = "pid";
 
     /**
      * An environment-specific assessment of the event's importance, based on
@@ -569,7 +796,7 @@ public class SplunkCimLogEvent {
     public void setCommonPriority(long commonPriority) {
         addField(COMMON_PRIORITY, commonPriority);
     }
-    public static String COMMON_PRIORITY = "priority";
+    public static final String COMMON_PRIORITY = "priority";
 
     /**
      * The product that generated the event.
@@ -577,7 +804,7 @@ public class SplunkCimLogEvent {
     public void setCommonProduct(String commonProduct) {
         addField(COMMON_PRODUCT, commonProduct);
     }
-    public static String COMMON_PRODUCT = "product";
+    public static final String COMMON_PRODUCT = "product";
 
     /**
      * The version of the product that generated the event.
@@ -585,7 +812,7 @@ public class SplunkCimLogEvent {
     public void setCommonProductVersion(long commonProductVersion) {
         addField(COMMON_PRODUCT_VERSION, commonProductVersion);
     }
-    public static String COMMON_PRODUCT_VERSION = "product_version";
+    public static final String COMMON_PRODUCT_VERSION = "product_version";
 
     /**
      * The result root cause, such as connection refused, timeout, crash, and so
@@ -594,7 +821,7 @@ public class SplunkCimLogEvent {
     public void setCommonReason(String commonReason) {
         addField(COMMON_REASON, commonReason);
     }
-    public static String COMMON_REASON = "reason";
+    public static final String COMMON_REASON = "reason";
 
     /**
      * The action result. Often is a binary choice: succeeded and failed,
@@ -603,7 +830,7 @@ public class SplunkCimLogEvent {
     public void setCommonResult(String commonResult) {
         addField(COMMON_RESULT, commonResult);
     }
-    public static String COMMON_RESULT = "result";
+    public static final String COMMON_RESULT = "result";
 
     /**
      * The severity (or priority) of an event as reported by the originating
@@ -612,7 +839,7 @@ public class SplunkCimLogEvent {
     public void setCommonSeverity(String commonSeverity) {
         addField(COMMON_SEVERITY, commonSeverity);
     }
-    public static String COMMON_SEVERITY = "severity";
+    public static final String COMMON_SEVERITY = "severity";
 
     /**
      * The event's specified start time.
@@ -620,7 +847,7 @@ public class SplunkCimLogEvent {
     public void setCommonStartTime(long commonStartTime) {
         addField(COMMON_START_TIME, commonStartTime);
     }
-    public static String COMMON_START_TIME = "start_time";
+    public static final String COMMON_START_TIME = "start_time";
 
     /**
      * The transaction identifier.
@@ -628,7 +855,7 @@ public class SplunkCimLogEvent {
     public void setCommonTransactionId(String commonTransactionId) {
         addField(COMMON_TRANSACTION_ID, commonTransactionId);
     }
-    public static String COMMON_TRANSACTION_ID = "transaction_id";
+    public static final String COMMON_TRANSACTION_ID = "transaction_id";
 
     /**
      * A uniform record locator (a web address, in other words) included in a
@@ -637,7 +864,7 @@ public class SplunkCimLogEvent {
     public void setCommonUrl(String commonUrl) {
         addField(COMMON_URL, commonUrl);
     }
-    public static String COMMON_URL = "url";
+    public static final String COMMON_URL = "url";
 
     /**
      * The vendor who made the product that generated the event.
@@ -645,7 +872,7 @@ public class SplunkCimLogEvent {
     public void setCommonVendor(String commonVendor) {
         addField(COMMON_VENDOR, commonVendor);
     }
-    public static String COMMON_VENDOR = "vendor";
+    public static final String COMMON_VENDOR = "vendor";
 
     // ----------------------------------
     // DNS protocol
@@ -657,7 +884,7 @@ public class SplunkCimLogEvent {
     public void setDnsDestDomain(String dnsDestDomain) {
         addField(DNS_DEST_DOMAIN, dnsDestDomain);
     }
-    public static String DNS_DEST_DOMAIN = "dest_domain";
+    public static final String DNS_DEST_DOMAIN = "dest_domain";
 
     /**
      * The remote DNS resource record being acted upon.
@@ -665,7 +892,7 @@ public class SplunkCimLogEvent {
     public void setDnsDestRecord(String dnsDestRecord) {
         addField(DNS_DEST_RECORD, dnsDestRecord);
     }
-    public static String DNS_DEST_RECORD = "dest_record";
+    public static final String DNS_DEST_RECORD = "dest_record";
 
     /**
      * The DNS zone that is being received by the slave as part of a zone
@@ -674,7 +901,7 @@ public class SplunkCimLogEvent {
     public void setDnsDestZone(String dnsDestZone) {
         addField(DNS_DEST_ZONE, dnsDestZone);
     }
-    public static String DNS_DEST_ZONE = "dest_zone";
+    public static final String DNS_DEST_ZONE = "dest_zone";
 
     /**
      * The DNS resource record class.
@@ -682,7 +909,7 @@ public class SplunkCimLogEvent {
     public void setDnsRecordClass(String dnsRecordClass) {
         addField(DNS_RECORD_CLASS, dnsRecordClass);
     }
-    public static String DNS_RECORD_CLASS = "record_class";
+    public static final String DNS_RECORD_CLASS = "record_class";
 
     /**
      * The DNS resource record type.
@@ -694,7 +921,7 @@ public class SplunkCimLogEvent {
     public void setDnsRecordType(String dnsRecordType) {
         addField(DNS_RECORD_TYPE, dnsRecordType);
     }
-    public static String DNS_RECORD_TYPE = "record_type";
+    public static final String DNS_RECORD_TYPE = "record_type";
 
     /**
      * The local DNS domain that is being queried.
@@ -702,7 +929,7 @@ public class SplunkCimLogEvent {
     public void setDnsSrcDomain(String dnsSrcDomain) {
         addField(DNS_SRC_DOMAIN, dnsSrcDomain);
     }
-    public static String DNS_SRC_DOMAIN = "src_domain";
+    public static final String DNS_SRC_DOMAIN = "src_domain";
 
     /**
      * The local DNS resource record being acted upon.
@@ -710,7 +937,7 @@ public class SplunkCimLogEvent {
     public void setDnsSrcRecord(String dnsSrcRecord) {
         addField(DNS_SRC_RECORD, dnsSrcRecord);
     }
-    public static String DNS_SRC_RECORD = "src_record";
+    public static final String DNS_SRC_RECORD = "src_record";
 
     /**
      * The DNS zone that is being transferred by the master as part of a zone
@@ -719,7 +946,7 @@ public class SplunkCimLogEvent {
     public void setDnsSrcZone(String dnsSrcZone) {
         addField(DNS_SRC_ZONE, dnsSrcZone);
     }
-    public static String DNS_SRC_ZONE = "src_zone";
+    public static final String DNS_SRC_ZONE = "src_zone";
 
     // ----------------------------------
     // Email tracking
@@ -731,7 +958,7 @@ public class SplunkCimLogEvent {
     public void setEmailRecipient(String emailRecipient) {
         addField(EMAIL_RECIPIENT, emailRecipient);
     }
-    public static String EMAIL_RECIPIENT = "recipient";
+    public static final String EMAIL_RECIPIENT = "recipient";
 
     /**
      * The person responsible for sending an email.
@@ -739,7 +966,7 @@ public class SplunkCimLogEvent {
     public void setEmailSender(String emailSender) {
         addField(EMAIL_SENDER, emailSender);
     }
-    public static String EMAIL_SENDER = "sender";
+    public static final String EMAIL_SENDER = "sender";
 
     /**
      * The email subject line.
@@ -747,7 +974,7 @@ public class SplunkCimLogEvent {
     public void setEmailSubject(String emailSubject) {
         addField(EMAIL_SUBJECT, emailSubject);
     }
-    public static String EMAIL_SUBJECT = "subject";
+    public static final String EMAIL_SUBJECT = "subject";
 
     // ----------------------------------
     // File management
@@ -759,7 +986,7 @@ public class SplunkCimLogEvent {
     public void setFileAccessTime(long fileAccessTime) {
         addField(FILE_ACCESS_TIME, fileAccessTime);
     }
-    public static String FILE_ACCESS_TIME = "file_access_time";
+    public static final String FILE_ACCESS_TIME = "file_access_time";
 
     /**
      * The time the file (the object of the event) was created.
@@ -767,7 +994,7 @@ public class SplunkCimLogEvent {
     public void setFileCreateTime(long fileCreateTime) {
         addField(FILE_CREATE_TIME, fileCreateTime);
     }
-    public static String FILE_CREATE_TIME = "file_create_time";
+    public static final String FILE_CREATE_TIME = "file_create_time";
 
     /**
      * A cryptographic identifier assigned to the file object affected by the
@@ -776,7 +1003,7 @@ public class SplunkCimLogEvent {
     public void setFileHash(String fileHash) {
         addField(FILE_HASH, fileHash);
     }
-    public static String FILE_HASH = "file_hash";
+    public static final String FILE_HASH = "file_hash";
 
     /**
      * The time the file (the object of the event) was altered.
@@ -784,7 +1011,7 @@ public class SplunkCimLogEvent {
     public void setFileModifyTime(long fileModifyTime) {
         addField(FILE_MODIFY_TIME, fileModifyTime);
     }
-    public static String FILE_MODIFY_TIME = "file_modify_time";
+    public static final String FILE_MODIFY_TIME = "file_modify_time";
 
     /**
      * The name of the file that is the object of the event (without location
@@ -793,7 +1020,7 @@ public class SplunkCimLogEvent {
     public void setFileName(String fileName) {
         addField(FILE_NAME, fileName);
     }
-    public static String FILE_NAME = "file_name";
+    public static final String FILE_NAME = "file_name";
 
     /**
      * The location of the file that is the object of the event, in terms of
@@ -802,7 +1029,7 @@ public class SplunkCimLogEvent {
     public void setFilePath(String filePath) {
         addField(FILE_PATH, filePath);
     }
-    public static String FILE_PATH = "file_path";
+    public static final String FILE_PATH = "file_path";
 
     /**
      * Access controls associated with the file affected by the event.
@@ -810,7 +1037,7 @@ public class SplunkCimLogEvent {
     public void setFilePermission(String filePermission) {
         addField(FILE_PERMISSION, filePermission);
     }
-    public static String FILE_PERMISSION = "file_permission";
+    public static final String FILE_PERMISSION = "file_permission";
 
     /**
      * The size of the file that is the object of the event. Indicate whether
@@ -819,7 +1046,7 @@ public class SplunkCimLogEvent {
     public void setFileSize(long fileSize) {
         addField(FILE_SIZE, fileSize);
     }
-    public static String FILE_SIZE = "file_size";
+    public static final String FILE_SIZE = "file_size";
 
     // ----------------------------------
     // Intrusion detection
@@ -831,7 +1058,7 @@ public class SplunkCimLogEvent {
     public void setIntrusionDetectionCategory(String intrusionDetectionCategory) {
         addField(INTRUSION_DETECTION_CATEGORY, intrusionDetectionCategory);
     }
-    public static String INTRUSION_DETECTION_CATEGORY = "category";
+    public static final String INTRUSION_DETECTION_CATEGORY = "category";
 
     /**
      * The destination of the attack detected by the intrusion detection system
@@ -841,7 +1068,7 @@ public class SplunkCimLogEvent {
     public void setIntrusionDetectionDest(String intrusionDetectionDest) {
         addField(INTRUSION_DETECTION_DEST, intrusionDetectionDest);
     }
-    public static String INTRUSION_DETECTION_DEST = "dest";
+    public static final String INTRUSION_DETECTION_DEST = "dest";
 
     /**
      * The device that detected the intrusion event.
@@ -849,7 +1076,7 @@ public class SplunkCimLogEvent {
     public void setIntrusionDetectionDvc(String intrusionDetectionDvc) {
         addField(INTRUSION_DETECTION_DVC, intrusionDetectionDvc);
     }
-    public static String INTRUSION_DETECTION_DVC = "dvc";
+    public static final String INTRUSION_DETECTION_DVC = "dvc";
 
     /**
      * The type of IDS that generated the event.
@@ -857,7 +1084,7 @@ public class SplunkCimLogEvent {
     public void setIntrusionDetectionIdsType(String intrusionDetectionIdsType) {
         addField(INTRUSION_DETECTION_IDS_TYPE, intrusionDetectionIdsType);
     }
-    public static String INTRUSION_DETECTION_IDS_TYPE = "ids_type";
+    public static final String INTRUSION_DETECTION_IDS_TYPE = "ids_type";
 
     /**
      * The product name of the vendor technology generating network protection
@@ -870,7 +1097,7 @@ public class SplunkCimLogEvent {
     public void setIntrusionDetectionProduct(String intrusionDetectionProduct) {
         addField(INTRUSION_DETECTION_PRODUCT, intrusionDetectionProduct);
     }
-    public static String INTRUSION_DETECTION_PRODUCT = "product";
+    public static final String INTRUSION_DETECTION_PRODUCT = "product";
 
     /**
      * The severity of the network protection event (such as critical, high,
@@ -882,7 +1109,7 @@ public class SplunkCimLogEvent {
     public void setIntrusionDetectionSeverity(String intrusionDetectionSeverity) {
         addField(INTRUSION_DETECTION_SEVERITY, intrusionDetectionSeverity);
     }
-    public static String INTRUSION_DETECTION_SEVERITY = "severity";
+    public static final String INTRUSION_DETECTION_SEVERITY = "severity";
 
     /**
      * The name of the intrusion detected on the client (the src), such as
@@ -892,7 +1119,7 @@ public class SplunkCimLogEvent {
             String intrusionDetectionSignature) {
         addField(INTRUSION_DETECTION_SIGNATURE, intrusionDetectionSignature);
     }
-    public static String INTRUSION_DETECTION_SIGNATURE = "signature";
+    public static final String INTRUSION_DETECTION_SIGNATURE = "signature";
 
     /**
      * The source involved in the attack detected by the IDS. If your field is
@@ -902,7 +1129,7 @@ public class SplunkCimLogEvent {
     public void setIntrusionDetectionSrc(String intrusionDetectionSrc) {
         addField(INTRUSION_DETECTION_SRC, intrusionDetectionSrc);
     }
-    public static String INTRUSION_DETECTION_SRC = "src";
+    public static final String INTRUSION_DETECTION_SRC = "src";
 
     /**
      * The user involved with the intrusion detection event.
@@ -910,7 +1137,7 @@ public class SplunkCimLogEvent {
     public void setIntrusionDetectionUser(String intrusionDetectionUser) {
         addField(INTRUSION_DETECTION_USER, intrusionDetectionUser);
     }
-    public static String INTRUSION_DETECTION_USER = "user";
+    public static final String INTRUSION_DETECTION_USER = "user";
 
     /**
      * The vendor technology used to generate network protection data, such as
@@ -923,7 +1150,7 @@ public class SplunkCimLogEvent {
     public void setIntrusionDetectionVendor(String intrusionDetectionVendor) {
         addField(INTRUSION_DETECTION_VENDOR, intrusionDetectionVendor);
     }
-    public static String INTRUSION_DETECTION_VENDOR = "vendor";
+    public static final String INTRUSION_DETECTION_VENDOR = "vendor";
 
 
     // ----------------------------------
@@ -938,7 +1165,7 @@ public class SplunkCimLogEvent {
         addField(MALWARE_ENDPOINT_PROTECTION_ACTION,
                 malwareEndpointProtectionAction);
     }
-    public static String MALWARE_ENDPOINT_PROTECTION_ACTION = "action";
+    public static final String MALWARE_ENDPOINT_PROTECTION_ACTION = "action";
 
     /**
      * The NT domain of the destination (the dest_bestmatch).
@@ -948,7 +1175,7 @@ public class SplunkCimLogEvent {
         addField(MALWARE_ENDPOINT_PROTECTION_DEST_NT_DOMAIN,
                 malwareEndpointProtectionDestNtDomain);
     }
-    public static String MALWARE_ENDPOINT_PROTECTION_DEST_NT_DOMAIN = "dest_nt_domain";
+    public static final String MALWARE_ENDPOINT_PROTECTION_DEST_NT_DOMAIN = "dest_nt_domain";
 
     /**
      * The cryptographic hash of the file associated with the malware event
@@ -959,7 +1186,7 @@ public class SplunkCimLogEvent {
         addField(MALWARE_ENDPOINT_PROTECTION_FILE_HASH,
                 malwareEndpointProtectionFileHash);
     }
-    public static String MALWARE_ENDPOINT_PROTECTION_FILE_HASH = "file_hash";
+    public static final String MALWARE_ENDPOINT_PROTECTION_FILE_HASH = "file_hash";
 
     /**
      * The name of the file involved in the malware event (such as the infected
@@ -970,7 +1197,7 @@ public class SplunkCimLogEvent {
         addField(MALWARE_ENDPOINT_PROTECTION_FILE_NAME,
                 malwareEndpointProtectionFileName);
     }
-    public static String MALWARE_ENDPOINT_PROTECTION_FILE_NAME = "file_name";
+    public static final String MALWARE_ENDPOINT_PROTECTION_FILE_NAME = "file_name";
 
     /**
      * The path of the file involved in the malware event (such as the infected
@@ -981,7 +1208,7 @@ public class SplunkCimLogEvent {
         addField(MALWARE_ENDPOINT_PROTECTION_FILE_PATH,
                 malwareEndpointProtectionFilePath);
     }
-    public static String MALWARE_ENDPOINT_PROTECTION_FILE_PATH = "file_path";
+    public static final String MALWARE_ENDPOINT_PROTECTION_FILE_PATH = "file_path";
 
     /**
      * The product name of the vendor technology (the vendor field) that is
@@ -992,7 +1219,7 @@ public class SplunkCimLogEvent {
         addField(MALWARE_ENDPOINT_PROTECTION_PRODUCT,
                 malwareEndpointProtectionProduct);
     }
-    public static String MALWARE_ENDPOINT_PROTECTION_PRODUCT = "product";
+    public static final String MALWARE_ENDPOINT_PROTECTION_PRODUCT = "product";
 
     /**
      * The product version number of the vendor technology installed on the
@@ -1003,7 +1230,7 @@ public class SplunkCimLogEvent {
         addField(MALWARE_ENDPOINT_PROTECTION_PRODUCT_VERSION,
                 malwareEndpointProtectionProductVersion);
     }
-    public static String MALWARE_ENDPOINT_PROTECTION_PRODUCT_VERSION = "product_version";
+    public static final String MALWARE_ENDPOINT_PROTECTION_PRODUCT_VERSION = "product_version";
 
     /**
      * The name of the malware infection detected on the client (the src), such
@@ -1017,7 +1244,7 @@ public class SplunkCimLogEvent {
         addField(MALWARE_ENDPOINT_PROTECTION_SIGNATURE,
                 malwareEndpointProtectionSignature);
     }
-    public static String MALWARE_ENDPOINT_PROTECTION_SIGNATURE = "signature";
+    public static final String MALWARE_ENDPOINT_PROTECTION_SIGNATURE = "signature";
 
     /**
      * The current signature definition set running on the client, such as
@@ -1028,7 +1255,7 @@ public class SplunkCimLogEvent {
         addField(MALWARE_ENDPOINT_PROTECTION_SIGNATURE_VERSION,
                 malwareEndpointProtectionSignatureVersion);
     }
-    public static String MALWARE_ENDPOINT_PROTECTION_SIGNATURE_VERSION = "signature_version";
+    public static final String MALWARE_ENDPOINT_PROTECTION_SIGNATURE_VERSION = "signature_version";
 
     /**
      * The target affected or infected by the malware. If your field is named
@@ -1039,7 +1266,7 @@ public class SplunkCimLogEvent {
             String malwareEndpointProtectionDest) {
         addField(MALWARE_ENDPOINT_PROTECTION_DEST, malwareEndpointProtectionDest);
     }
-    public static String MALWARE_ENDPOINT_PROTECTION_DEST = "dest";
+    public static final String MALWARE_ENDPOINT_PROTECTION_DEST = "dest";
 
     /**
      * The NT domain of the source (the src).
@@ -1049,7 +1276,7 @@ public class SplunkCimLogEvent {
         addField(MALWARE_ENDPOINT_PROTECTION_SRC_NT_DOMAIN,
                 malwareEndpointProtectionSrcNtDomain);
     }
-    public static String MALWARE_ENDPOINT_PROTECTION_SRC_NT_DOMAIN = "src_nt_domain";
+    public static final String MALWARE_ENDPOINT_PROTECTION_SRC_NT_DOMAIN = "src_nt_domain";
 
     /**
      * The name of the user involved in the malware event.
@@ -1058,7 +1285,7 @@ public class SplunkCimLogEvent {
             String malwareEndpointProtectionUser) {
         addField(MALWARE_ENDPOINT_PROTECTION_USER, malwareEndpointProtectionUser);
     }
-    public static String MALWARE_ENDPOINT_PROTECTION_USER = "user";
+    public static final String MALWARE_ENDPOINT_PROTECTION_USER = "user";
 
     /**
      * The name of the vendor technology generating malware data, such as
@@ -1069,7 +1296,7 @@ public class SplunkCimLogEvent {
         addField(MALWARE_ENDPOINT_PROTECTION_VENDOR,
                 malwareEndpointProtectionVendor);
     }
-    public static String MALWARE_ENDPOINT_PROTECTION_VENDOR = "vendor";
+    public static final String MALWARE_ENDPOINT_PROTECTION_VENDOR = "vendor";
 
     // ----------------------------------
     // Malware - Network protection
@@ -1088,7 +1315,7 @@ public class SplunkCimLogEvent {
         addField(MALWARE_NETWORK_PROTECTION_PRODUCT,
                 malwareNetworkProtectionProduct);
     }
-    public static String MALWARE_NETWORK_PROTECTION_PRODUCT = "product";
+    public static final String MALWARE_NETWORK_PROTECTION_PRODUCT = "product";
 
     /**
      * The severity of the network protection event (such as critical, high,
@@ -1102,7 +1329,7 @@ public class SplunkCimLogEvent {
         addField(MALWARE_NETWORK_PROTECTION_SEVERITY,
                 malwareNetworkProtectionSeverity);
     }
-    public static String MALWARE_NETWORK_PROTECTION_SEVERITY = "severity";
+    public static final String MALWARE_NETWORK_PROTECTION_SEVERITY = "severity";
 
     /**
      * The vendor technology used to generate network protection data, such as
@@ -1117,7 +1344,7 @@ public class SplunkCimLogEvent {
         addField(MALWARE_NETWORK_PROTECTION_VENDOR,
                 malwareNetworkProtectionVendor);
     }
-    public static String MALWARE_NETWORK_PROTECTION_VENDOR = "vendor";
+    public static final String MALWARE_NETWORK_PROTECTION_VENDOR = "vendor";
 
 
     // ----------------------------------
@@ -1130,7 +1357,7 @@ public class SplunkCimLogEvent {
     public void setNetworkTrafficEssAction(String networkTrafficEssAction) {
         addField(NETWORK_TRAFFIC_ESS_ACTION, networkTrafficEssAction);
     }
-    public static String NETWORK_TRAFFIC_ESS_ACTION = "action";
+    public static final String NETWORK_TRAFFIC_ESS_ACTION = "action";
 
     /**
      * The destination port of the network traffic.
@@ -1138,7 +1365,7 @@ public class SplunkCimLogEvent {
     public void setNetworkTrafficEssDestPort(int networkTrafficEssDestPort) {
         addField(NETWORK_TRAFFIC_ESS_DEST_PORT, networkTrafficEssDestPort);
     }
-    public static String NETWORK_TRAFFIC_ESS_DEST_PORT = "dest_port";
+    public static final String NETWORK_TRAFFIC_ESS_DEST_PORT = "dest_port";
 
     /**
      * The product name of the vendor technology generating NetworkProtection
@@ -1151,7 +1378,7 @@ public class SplunkCimLogEvent {
     public void setNetworkTrafficEssProduct(String networkTrafficEssProduct) {
         addField(NETWORK_TRAFFIC_ESS_PRODUCT, networkTrafficEssProduct);
     }
-    public static String NETWORK_TRAFFIC_ESS_PRODUCT = "product";
+    public static final String NETWORK_TRAFFIC_ESS_PRODUCT = "product";
 
     /**
      * The source port of the network traffic.
@@ -1159,7 +1386,7 @@ public class SplunkCimLogEvent {
     public void setNetworkTrafficEssSrcPort(int networkTrafficEssSrcPort) {
         addField(NETWORK_TRAFFIC_ESS_SRC_PORT, networkTrafficEssSrcPort);
     }
-    public static String NETWORK_TRAFFIC_ESS_SRC_PORT = "src_port";
+    public static final String NETWORK_TRAFFIC_ESS_SRC_PORT = "src_port";
 
     /**
      * The vendor technology used to generate NetworkProtection data, such as
@@ -1172,7 +1399,7 @@ public class SplunkCimLogEvent {
     public void setNetworkTrafficEssVendor(String networkTrafficEssVendor) {
         addField(NETWORK_TRAFFIC_ESS_VENDOR, networkTrafficEssVendor);
     }
-    public static String NETWORK_TRAFFIC_ESS_VENDOR = "vendor";
+    public static final String NETWORK_TRAFFIC_ESS_VENDOR = "vendor";
 
     // ----------------------------------
     // Network traffic - Generic
@@ -1187,7 +1414,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_APP_LAYER,
                 networkTrafficGenericAppLayer);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_APP_LAYER = "app_layer";
+    public static final String NETWORK_TRAFFIC_GENERIC_APP_LAYER = "app_layer";
     /**
      * How many bytes this device/interface received.
      */
@@ -1195,7 +1422,7 @@ public class SplunkCimLogEvent {
             long networkTrafficGenericBytesIn) {
         addField(NETWORK_TRAFFIC_GENERIC_BYTES_IN, networkTrafficGenericBytesIn);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_BYTES_IN = "bytes_in";
+    public static final String NETWORK_TRAFFIC_GENERIC_BYTES_IN = "bytes_in";
 
 
     /**
@@ -1206,7 +1433,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_BYTES_OUT,
                 networkTrafficGenericBytesOut);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_BYTES_OUT = "bytes_out";
+    public static final String NETWORK_TRAFFIC_GENERIC_BYTES_OUT = "bytes_out";
 
     /**
      * 802.11 channel number used by a wireless network.
@@ -1215,7 +1442,7 @@ public class SplunkCimLogEvent {
             String networkTrafficGenericChannel) {
         addField(NETWORK_TRAFFIC_GENERIC_CHANNEL, networkTrafficGenericChannel);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_CHANNEL = "channel";
+    public static final String NETWORK_TRAFFIC_GENERIC_CHANNEL = "channel";
 
     /**
      * The Common Vulnerabilities and Exposures (CVE) reference value.
@@ -1223,7 +1450,7 @@ public class SplunkCimLogEvent {
     public void setNetworkTrafficGenericCve(String networkTrafficGenericCve) {
         addField(NETWORK_TRAFFIC_GENERIC_CVE, networkTrafficGenericCve);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_CVE = "cve";
+    public static final String NETWORK_TRAFFIC_GENERIC_CVE = "cve";
 
     /**
      * The destination application being targeted.
@@ -1232,7 +1459,7 @@ public class SplunkCimLogEvent {
             String networkTrafficGenericDestApp) {
         addField(NETWORK_TRAFFIC_GENERIC_DEST_APP, networkTrafficGenericDestApp);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_DEST_APP = "dest_app";
+    public static final String NETWORK_TRAFFIC_GENERIC_DEST_APP = "dest_app";
 
     /**
      * The destination command and control service channel.
@@ -1242,7 +1469,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_DEST_CNC_CHANNEL,
                 networkTrafficGenericDestCncChannel);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_DEST_CNC_CHANNEL = "dest_cnc_channel";
+    public static final String NETWORK_TRAFFIC_GENERIC_DEST_CNC_CHANNEL = "dest_cnc_channel";
 
     /**
      * The destination command and control service name.
@@ -1252,7 +1479,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_DEST_CNC_NAME,
                 networkTrafficGenericDestCncName);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_DEST_CNC_NAME = "dest_cnc_name";
+    public static final String NETWORK_TRAFFIC_GENERIC_DEST_CNC_NAME = "dest_cnc_name";
 
     /**
      * The destination command and control service port.
@@ -1262,7 +1489,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_DEST_CNC_PORT,
                 networkTrafficGenericDestCncPort);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_DEST_CNC_PORT = "dest_cnc_port";
+    public static final String NETWORK_TRAFFIC_GENERIC_DEST_CNC_PORT = "dest_cnc_port";
 
     /**
      * The country associated with a packet's recipient.
@@ -1272,7 +1499,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_DEST_COUNTRY,
                 networkTrafficGenericDestCountry);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_DEST_COUNTRY = "dest_country";
+    public static final String NETWORK_TRAFFIC_GENERIC_DEST_COUNTRY = "dest_country";
 
     /**
      * The fully qualified host name of a packet's recipient. For HTTP sessions,
@@ -1283,7 +1510,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_DEST_HOST,
                 networkTrafficGenericDestHost);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_DEST_HOST = "dest_host";
+    public static final String NETWORK_TRAFFIC_GENERIC_DEST_HOST = "dest_host";
 
     /**
      * The interface that is listening remotely or receiving packets locally.
@@ -1292,7 +1519,7 @@ public class SplunkCimLogEvent {
             String networkTrafficGenericDestInt) {
         addField(NETWORK_TRAFFIC_GENERIC_DEST_INT, networkTrafficGenericDestInt);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_DEST_INT = "dest_int";
+    public static final String NETWORK_TRAFFIC_GENERIC_DEST_INT = "dest_int";
 
     /**
      * The IPv4 address of a packet's recipient.
@@ -1301,7 +1528,7 @@ public class SplunkCimLogEvent {
             String networkTrafficGenericDestIp) {
         addField(NETWORK_TRAFFIC_GENERIC_DEST_IP, networkTrafficGenericDestIp);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_DEST_IP = "dest_ip";
+    public static final String NETWORK_TRAFFIC_GENERIC_DEST_IP = "dest_ip";
 
     /**
      * The IPv6 address of a packet's recipient.
@@ -1311,7 +1538,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_DEST_IPV6,
                 networkTrafficGenericDestIpv6);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_DEST_IPV6 = "dest_ipv6";
+    public static final String NETWORK_TRAFFIC_GENERIC_DEST_IPV6 = "dest_ipv6";
 
     /**
      * The (physical) latitude of a packet's destination.
@@ -1319,7 +1546,7 @@ public class SplunkCimLogEvent {
     public void setNetworkTrafficGenericDestLat(int networkTrafficGenericDestLat) {
         addField(NETWORK_TRAFFIC_GENERIC_DEST_LAT, networkTrafficGenericDestLat);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_DEST_LAT = "dest_lat";
+    public static final String NETWORK_TRAFFIC_GENERIC_DEST_LAT = "dest_lat";
 
     /**
      * The (physical) longitude of a packet's destination.
@@ -1329,7 +1556,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_DEST_LONG,
                 networkTrafficGenericDestLong);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_DEST_LONG = "dest_long";
+    public static final String NETWORK_TRAFFIC_GENERIC_DEST_LONG = "dest_long";
 
     /**
      * The destination TCP/IP layer 2 Media Access Control (MAC) address of a
@@ -1339,7 +1566,7 @@ public class SplunkCimLogEvent {
             String networkTrafficGenericDestMac) {
         addField(NETWORK_TRAFFIC_GENERIC_DEST_MAC, networkTrafficGenericDestMac);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_DEST_MAC = "dest_mac";
+    public static final String NETWORK_TRAFFIC_GENERIC_DEST_MAC = "dest_mac";
 
     /**
      * The Windows NT domain containing a packet's destination.
@@ -1349,7 +1576,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_DEST_NT_DOMAIN,
                 networkTrafficGenericDestNtDomain);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_DEST_NT_DOMAIN = "dest_nt_domain";
+    public static final String NETWORK_TRAFFIC_GENERIC_DEST_NT_DOMAIN = "dest_nt_domain";
 
     /**
      * The Windows NT host name of a packet's destination.
@@ -1359,7 +1586,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_DEST_NT_HOST,
                 networkTrafficGenericDestNtHost);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_DEST_NT_HOST = "dest_nt_host";
+    public static final String NETWORK_TRAFFIC_GENERIC_DEST_NT_HOST = "dest_nt_host";
 
     /**
      * TCP/IP port to which a packet is being sent.
@@ -1369,7 +1596,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_DEST_PORT,
                 networkTrafficGenericDestPort);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_DEST_PORT = "dest_port";
+    public static final String NETWORK_TRAFFIC_GENERIC_DEST_PORT = "dest_port";
 
     /**
      * The NATed IPv4 address to which a packet has been sent.
@@ -1379,7 +1606,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_DEST_TRANSLATED_IP,
                 networkTrafficGenericDestTranslatedIp);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_DEST_TRANSLATED_IP = "dest_translated_ip";
+    public static final String NETWORK_TRAFFIC_GENERIC_DEST_TRANSLATED_IP = "dest_translated_ip";
 
     /**
      * The NATed port to which a packet has been sent.
@@ -1389,7 +1616,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_DEST_TRANSLATED_PORT,
                 networkTrafficGenericDestTranslatedPort);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_DEST_TRANSLATED_PORT = "dest_translated_port";
+    public static final String NETWORK_TRAFFIC_GENERIC_DEST_TRANSLATED_PORT = "dest_translated_port";
 
     /**
      * The numbered Internet Protocol version.
@@ -1399,7 +1626,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_IP_VERSION,
                 networkTrafficGenericIpVersion);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_IP_VERSION = "ip_version";
+    public static final String NETWORK_TRAFFIC_GENERIC_IP_VERSION = "ip_version";
 
     /**
      * The network interface through which a packet was transmitted.
@@ -1409,7 +1636,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_OUTBOUND_INTERFACE,
                 networkTrafficGenericOutboundInterface);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_OUTBOUND_INTERFACE = "outbound_interface";
+    public static final String NETWORK_TRAFFIC_GENERIC_OUTBOUND_INTERFACE = "outbound_interface";
 
     /**
      * How many packets this device/interface received.
@@ -1419,7 +1646,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_PACKETS_IN,
                 networkTrafficGenericPacketsIn);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_PACKETS_IN = "packets_in";
+    public static final String NETWORK_TRAFFIC_GENERIC_PACKETS_IN = "packets_in";
 
     /**
      * How many packets this device/interface transmitted.
@@ -1429,7 +1656,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_PACKETS_OUT,
                 networkTrafficGenericPacketsOut);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_PACKETS_OUT = "packets_out";
+    public static final String NETWORK_TRAFFIC_GENERIC_PACKETS_OUT = "packets_out";
 
     /**
      * The OSI layer 3 (Network Layer) protocol, such as IPv4/IPv6, ICMP, IPsec,
@@ -1438,7 +1665,7 @@ public class SplunkCimLogEvent {
     public void setNetworkTrafficGenericProto(String networkTrafficGenericProto) {
         addField(NETWORK_TRAFFIC_GENERIC_PROTO, networkTrafficGenericProto);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_PROTO = "proto";
+    public static final String NETWORK_TRAFFIC_GENERIC_PROTO = "proto";
 
     /**
      * The session identifier. Multiple transactions build a session.
@@ -1448,7 +1675,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_SESSION_ID,
                 networkTrafficGenericSessionId);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_SESSION_ID = "session_id";
+    public static final String NETWORK_TRAFFIC_GENERIC_SESSION_ID = "session_id";
 
     /**
      * The 802.11 service set identifier (ssid) assigned to a wireless session.
@@ -1456,7 +1683,7 @@ public class SplunkCimLogEvent {
     public void setNetworkTrafficGenericSsid(String networkTrafficGenericSsid) {
         addField(NETWORK_TRAFFIC_GENERIC_SSID, networkTrafficGenericSsid);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_SSID = "ssid";
+    public static final String NETWORK_TRAFFIC_GENERIC_SSID = "ssid";
 
     /**
      * The country from which the packet was sent.
@@ -1466,7 +1693,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_SRC_COUNTRY,
                 networkTrafficGenericSrcCountry);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_SRC_COUNTRY = "src_country";
+    public static final String NETWORK_TRAFFIC_GENERIC_SRC_COUNTRY = "src_country";
 
     /**
      * The fully qualified host name of the system that transmitted the packet.
@@ -1476,7 +1703,7 @@ public class SplunkCimLogEvent {
             String networkTrafficGenericSrcHost) {
         addField(NETWORK_TRAFFIC_GENERIC_SRC_HOST, networkTrafficGenericSrcHost);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_SRC_HOST = "src_host";
+    public static final String NETWORK_TRAFFIC_GENERIC_SRC_HOST = "src_host";
 
     /**
      * The interface that is listening locally or sending packets remotely.
@@ -1485,7 +1712,7 @@ public class SplunkCimLogEvent {
             String networkTrafficGenericSrcInt) {
         addField(NETWORK_TRAFFIC_GENERIC_SRC_INT, networkTrafficGenericSrcInt);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_SRC_INT = "src_int";
+    public static final String NETWORK_TRAFFIC_GENERIC_SRC_INT = "src_int";
 
     /**
      * The IPv4 address of the packet's source. For Web logs, this is the http
@@ -1494,7 +1721,7 @@ public class SplunkCimLogEvent {
     public void setNetworkTrafficGenericSrcIp(String networkTrafficGenericSrcIp) {
         addField(NETWORK_TRAFFIC_GENERIC_SRC_IP, networkTrafficGenericSrcIp);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_SRC_IP = "src_ip";
+    public static final String NETWORK_TRAFFIC_GENERIC_SRC_IP = "src_ip";
 
     /**
      * The IPv6 address of the packet's source.
@@ -1503,7 +1730,7 @@ public class SplunkCimLogEvent {
             String networkTrafficGenericSrcIpv6) {
         addField(NETWORK_TRAFFIC_GENERIC_SRC_IPV6, networkTrafficGenericSrcIpv6);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_SRC_IPV6 = "src_ipv6";
+    public static final String NETWORK_TRAFFIC_GENERIC_SRC_IPV6 = "src_ipv6";
 
     /**
      * The (physical) latitude of the packet's source.
@@ -1511,7 +1738,7 @@ public class SplunkCimLogEvent {
     public void setNetworkTrafficGenericSrcLat(int networkTrafficGenericSrcLat) {
         addField(NETWORK_TRAFFIC_GENERIC_SRC_LAT, networkTrafficGenericSrcLat);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_SRC_LAT = "src_lat";
+    public static final String NETWORK_TRAFFIC_GENERIC_SRC_LAT = "src_lat";
 
     /**
      * The (physical) longitude of the packet's source.
@@ -1519,7 +1746,7 @@ public class SplunkCimLogEvent {
     public void setNetworkTrafficGenericSrcLong(int networkTrafficGenericSrcLong) {
         addField(NETWORK_TRAFFIC_GENERIC_SRC_LONG, networkTrafficGenericSrcLong);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_SRC_LONG = "src_long";
+    public static final String NETWORK_TRAFFIC_GENERIC_SRC_LONG = "src_long";
 
     /**
      * The Media Access Control (MAC) address from which a packet was
@@ -1529,7 +1756,7 @@ public class SplunkCimLogEvent {
             String networkTrafficGenericSrcMac) {
         addField(NETWORK_TRAFFIC_GENERIC_SRC_MAC, networkTrafficGenericSrcMac);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_SRC_MAC = "src_mac";
+    public static final String NETWORK_TRAFFIC_GENERIC_SRC_MAC = "src_mac";
 
     /**
      * The Windows NT domain containing the machines that generated the event.
@@ -1539,7 +1766,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_SRC_NT_DOMAIN,
                 networkTrafficGenericSrcNtDomain);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_SRC_NT_DOMAIN = "src_nt_domain";
+    public static final String NETWORK_TRAFFIC_GENERIC_SRC_NT_DOMAIN = "src_nt_domain";
 
     /**
      * The Windows NT hostname of the system that generated the event.
@@ -1549,7 +1776,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_SRC_NT_HOST,
                 networkTrafficGenericSrcNtHost);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_SRC_NT_HOST = "src_nt_host";
+    public static final String NETWORK_TRAFFIC_GENERIC_SRC_NT_HOST = "src_nt_host";
 
     /**
      * The network port from which a packet originated.
@@ -1557,7 +1784,7 @@ public class SplunkCimLogEvent {
     public void setNetworkTrafficGenericSrcPort(int networkTrafficGenericSrcPort) {
         addField(NETWORK_TRAFFIC_GENERIC_SRC_PORT, networkTrafficGenericSrcPort);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_SRC_PORT = "src_port";
+    public static final String NETWORK_TRAFFIC_GENERIC_SRC_PORT = "src_port";
 
     /**
      * The NATed IPv4 address from which a packet has been sent.
@@ -1567,7 +1794,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_SRC_TRANSLATED_IP,
                 networkTrafficGenericSrcTranslatedIp);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_SRC_TRANSLATED_IP = "src_translated_ip";
+    public static final String NETWORK_TRAFFIC_GENERIC_SRC_TRANSLATED_IP = "src_translated_ip";
 
     /**
      * The NATed network port from which a packet has been sent.
@@ -1577,7 +1804,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_SRC_TRANSLATED_PORT,
                 networkTrafficGenericSrcTranslatedPort);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_SRC_TRANSLATED_PORT = "src_translated_port";
+    public static final String NETWORK_TRAFFIC_GENERIC_SRC_TRANSLATED_PORT = "src_translated_port";
 
     /**
      * The application, process, or OS subsystem that generated the event.
@@ -1587,7 +1814,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_SYSLOG_ID,
                 networkTrafficGenericSyslogId);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_SYSLOG_ID = "syslog_id";
+    public static final String NETWORK_TRAFFIC_GENERIC_SYSLOG_ID = "syslog_id";
 
     /**
      * The criticality of an event, as recorded by UNIX syslog.
@@ -1597,7 +1824,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_SYSLOG_PRIORITY,
                 networkTrafficGenericSyslogPriority);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_SYSLOG_PRIORITY = "syslog_priority";
+    public static final String NETWORK_TRAFFIC_GENERIC_SYSLOG_PRIORITY = "syslog_priority";
 
     /**
      * The TCP flag(s) specified in the event.
@@ -1606,7 +1833,7 @@ public class SplunkCimLogEvent {
             String networkTrafficGenericTcpFlag) {
         addField(NETWORK_TRAFFIC_GENERIC_TCP_FLAG, networkTrafficGenericTcpFlag);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_TCP_FLAG = "tcp_flag";
+    public static final String NETWORK_TRAFFIC_GENERIC_TCP_FLAG = "tcp_flag";
 
     /**
      * The hex bit that specifies TCP 'type of service'
@@ -1617,7 +1844,7 @@ public class SplunkCimLogEvent {
     public void setNetworkTrafficGenericTos(String networkTrafficGenericTos) {
         addField(NETWORK_TRAFFIC_GENERIC_TOS, networkTrafficGenericTos);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_TOS = "tos";
+    public static final String NETWORK_TRAFFIC_GENERIC_TOS = "tos";
 
     /**
      * The transport protocol.
@@ -1627,7 +1854,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_TRANSPORT,
                 networkTrafficGenericTransport);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_TRANSPORT = "transport";
+    public static final String NETWORK_TRAFFIC_GENERIC_TRANSPORT = "transport";
 
     /**
      * The "time to live" of a packet or datagram.
@@ -1635,7 +1862,7 @@ public class SplunkCimLogEvent {
     public void setNetworkTrafficGenericTtl(int networkTrafficGenericTtl) {
         addField(NETWORK_TRAFFIC_GENERIC_TTL, networkTrafficGenericTtl);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_TTL = "ttl";
+    public static final String NETWORK_TRAFFIC_GENERIC_TTL = "ttl";
 
     /**
      * The numeric identifier assigned to the virtual local area network (VLAN)
@@ -1644,7 +1871,7 @@ public class SplunkCimLogEvent {
     public void setNetworkTrafficGenericVlanId(long networkTrafficGenericVlanId) {
         addField(NETWORK_TRAFFIC_GENERIC_VLAN_ID, networkTrafficGenericVlanId);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_VLAN_ID = "vlan_id";
+    public static final String NETWORK_TRAFFIC_GENERIC_VLAN_ID = "vlan_id";
 
     /**
      * The name assigned to the virtual local area network (VLAN) specified in
@@ -1655,7 +1882,7 @@ public class SplunkCimLogEvent {
         addField(NETWORK_TRAFFIC_GENERIC_VLAN_NAME,
                 networkTrafficGenericVlanName);
     }
-    public static String NETWORK_TRAFFIC_GENERIC_VLAN_NAME = "vlan_name";
+    public static final String NETWORK_TRAFFIC_GENERIC_VLAN_NAME = "vlan_name";
 
 
     // ----------------------------------
@@ -1669,7 +1896,7 @@ public class SplunkCimLogEvent {
     public void setPacketFilteringAction(String packetFilteringAction) {
         addField(PACKET_FILTERING_ACTION, packetFilteringAction);
     }
-    public static String PACKET_FILTERING_ACTION = "action";
+    public static final String PACKET_FILTERING_ACTION = "action";
 
     /**
      * The IP port of the packet's destination, such as 22.
@@ -1677,7 +1904,7 @@ public class SplunkCimLogEvent {
     public void setPacketFilteringDestPort(int packetFilteringDestPort) {
         addField(PACKET_FILTERING_DEST_PORT, packetFilteringDestPort);
     }
-    public static String PACKET_FILTERING_DEST_PORT = "dest_port";
+    public static final String PACKET_FILTERING_DEST_PORT = "dest_port";
 
     /**
      * The direction the packet is traveling.
@@ -1685,7 +1912,7 @@ public class SplunkCimLogEvent {
     public void setPacketFilteringDirection(String packetFilteringDirection) {
         addField(PACKET_FILTERING_DIRECTION, packetFilteringDirection);
     }
-    public static String PACKET_FILTERING_DIRECTION = "direction";
+    public static final String PACKET_FILTERING_DIRECTION = "direction";
 
     /**
      * The name of the packet filtering device. If your field is named dvc_host,
@@ -1694,7 +1921,7 @@ public class SplunkCimLogEvent {
     public void setPacketFilteringDvc(String packetFilteringDvc) {
         addField(PACKET_FILTERING_DVC, packetFilteringDvc);
     }
-    public static String PACKET_FILTERING_DVC = "dvc";
+    public static final String PACKET_FILTERING_DVC = "dvc";
 
     /**
      * The rule which took action on the packet, such as 143.
@@ -1702,7 +1929,7 @@ public class SplunkCimLogEvent {
     public void setPacketFilteringRule(String packetFilteringRule) {
         addField(PACKET_FILTERING_RULE, packetFilteringRule);
     }
-    public static String PACKET_FILTERING_RULE = "rule";
+    public static final String PACKET_FILTERING_RULE = "rule";
 
     /**
      * The IP port of the packet's source, such as 34541.
@@ -1710,7 +1937,7 @@ public class SplunkCimLogEvent {
     public void setPacketFilteringSvcPort(int packetFilteringSvcPort) {
         addField(PACKET_FILTERING_SVC_PORT, packetFilteringSvcPort);
     }
-    public static String PACKET_FILTERING_SVC_PORT = "svc_port";
+    public static final String PACKET_FILTERING_SVC_PORT = "svc_port";
 
 
     // ----------------------------------
@@ -1723,7 +1950,7 @@ public class SplunkCimLogEvent {
     public void setProxyAction(String proxyAction) {
         addField(PROXY_ACTION, proxyAction);
     }
-    public static String PROXY_ACTION = "action";
+    public static final String PROXY_ACTION = "action";
 
     /**
      * The destination of the network traffic (the remote host).
@@ -1731,7 +1958,7 @@ public class SplunkCimLogEvent {
     public void setProxyDest(String proxyDest) {
         addField(PROXY_DEST, proxyDest);
     }
-    public static String PROXY_DEST = "dest";
+    public static final String PROXY_DEST = "dest";
 
     /**
      * The content-type of the requested HTTP resource.
@@ -1739,7 +1966,7 @@ public class SplunkCimLogEvent {
     public void setProxyHttpContentType(String proxyHttpContentType) {
         addField(PROXY_HTTP_CONTENT_TYPE, proxyHttpContentType);
     }
-    public static String PROXY_HTTP_CONTENT_TYPE = "http_content_type";
+    public static final String PROXY_HTTP_CONTENT_TYPE = "http_content_type";
 
     /**
      * The HTTP method used to request the resource.
@@ -1747,7 +1974,7 @@ public class SplunkCimLogEvent {
     public void setProxyHttpMethod(String proxyHttpMethod) {
         addField(PROXY_HTTP_METHOD, proxyHttpMethod);
     }
-    public static String PROXY_HTTP_METHOD = "http_method";
+    public static final String PROXY_HTTP_METHOD = "http_method";
 
     /**
      * The HTTP referrer used to request the HTTP resource.
@@ -1755,7 +1982,7 @@ public class SplunkCimLogEvent {
     public void setProxyHttpRefer(String proxyHttpRefer) {
         addField(PROXY_HTTP_REFER, proxyHttpRefer);
     }
-    public static String PROXY_HTTP_REFER = "http_refer";
+    public static final String PROXY_HTTP_REFER = "http_refer";
 
     /**
      * The HTTP response code.
@@ -1763,7 +1990,7 @@ public class SplunkCimLogEvent {
     public void setProxyHttpResponse(int proxyHttpResponse) {
         addField(PROXY_HTTP_RESPONSE, proxyHttpResponse);
     }
-    public static String PROXY_HTTP_RESPONSE = "http_response";
+    public static final String PROXY_HTTP_RESPONSE = "http_response";
 
     /**
      * The user agent used to request the HTTP resource.
@@ -1771,7 +1998,7 @@ public class SplunkCimLogEvent {
     public void setProxyHttpUserAgent(String proxyHttpUserAgent) {
         addField(PROXY_HTTP_USER_AGENT, proxyHttpUserAgent);
     }
-    public static String PROXY_HTTP_USER_AGENT = "http_user_agent";
+    public static final String PROXY_HTTP_USER_AGENT = "http_user_agent";
 
     /**
      * The product name of the vendor technology generating Network Protection
@@ -1780,7 +2007,7 @@ public class SplunkCimLogEvent {
     public void setProxyProduct(String proxyProduct) {
         addField(PROXY_PRODUCT, proxyProduct);
     }
-    public static String PROXY_PRODUCT = "product";
+    public static final String PROXY_PRODUCT = "product";
 
     /**
      * The source of the network traffic (the client requesting the connection).
@@ -1788,7 +2015,7 @@ public class SplunkCimLogEvent {
     public void setProxySrc(String proxySrc) {
         addField(PROXY_SRC, proxySrc);
     }
-    public static String PROXY_SRC = "src";
+    public static final String PROXY_SRC = "src";
 
     /**
      * The HTTP response code indicating the status of the proxy request.
@@ -1796,7 +2023,7 @@ public class SplunkCimLogEvent {
     public void setProxyStatus(int proxyStatus) {
         addField(PROXY_STATUS, proxyStatus);
     }
-    public static String PROXY_STATUS = "status";
+    public static final String PROXY_STATUS = "status";
 
     /**
      * The user that requested the HTTP resource.
@@ -1804,7 +2031,7 @@ public class SplunkCimLogEvent {
     public void setProxyUser(String proxyUser) {
         addField(PROXY_USER, proxyUser);
     }
-    public static String PROXY_USER = "user";
+    public static final String PROXY_USER = "user";
 
     /**
      * The URL of the requested HTTP resource.
@@ -1812,7 +2039,7 @@ public class SplunkCimLogEvent {
     public void setProxyUrl(String proxyUrl) {
         addField(PROXY_URL, proxyUrl);
     }
-    public static String PROXY_URL = "url";
+    public static final String PROXY_URL = "url";
 
     /**
      * The vendor technology generating Network Protection data, such as IDP,
@@ -1821,7 +2048,7 @@ public class SplunkCimLogEvent {
     public void setProxyVendor(String proxyVendor) {
         addField(PROXY_VENDOR, proxyVendor);
     }
-    public static String PROXY_VENDOR = "vendor";
+    public static final String PROXY_VENDOR = "vendor";
 
 
     // ----------------------------------
@@ -1835,7 +2062,7 @@ public class SplunkCimLogEvent {
     public void setSystemCenterApp(String systemCenterApp) {
         addField(SYSTEM_CENTER_APP, systemCenterApp);
     }
-    public static String SYSTEM_CENTER_APP = "app";
+    public static final String SYSTEM_CENTER_APP = "app";
 
     /**
      * The amount of disk space available per drive or mount (the mount field)
@@ -1844,7 +2071,7 @@ public class SplunkCimLogEvent {
     public void setSystemCenterFreembytes(long systemCenterFreembytes) {
         addField(SYSTEM_CENTER_FREEMBYTES, systemCenterFreembytes);
     }
-    public static String SYSTEM_CENTER_FREEMBYTES = "FreeMBytes";
+    public static final String SYSTEM_CENTER_FREEMBYTES = "FreeMBytes";
 
     /**
      * The version of operating system installed on the host (the src field),
@@ -1853,7 +2080,7 @@ public class SplunkCimLogEvent {
     public void setSystemCenterKernelRelease(String systemCenterKernelRelease) {
         addField(SYSTEM_CENTER_KERNEL_RELEASE, systemCenterKernelRelease);
     }
-    public static String SYSTEM_CENTER_KERNEL_RELEASE = "kernel_release";
+    public static final String SYSTEM_CENTER_KERNEL_RELEASE = "kernel_release";
 
     /**
      * Human-readable version of the SystemUptime value.
@@ -1861,7 +2088,7 @@ public class SplunkCimLogEvent {
     public void setSystemCenterLabel(String systemCenterLabel) {
         addField(SYSTEM_CENTER_LABEL, systemCenterLabel);
     }
-    public static String SYSTEM_CENTER_LABEL = "label";
+    public static final String SYSTEM_CENTER_LABEL = "label";
 
     /**
      * The drive or mount reporting available disk space (the FreeMBytes field)
@@ -1870,7 +2097,7 @@ public class SplunkCimLogEvent {
     public void setSystemCenterMount(String systemCenterMount) {
         addField(SYSTEM_CENTER_MOUNT, systemCenterMount);
     }
-    public static String SYSTEM_CENTER_MOUNT = "mount";
+    public static final String SYSTEM_CENTER_MOUNT = "mount";
 
     /**
      * The name of the operating system installed on the host (the src), such as
@@ -1879,7 +2106,7 @@ public class SplunkCimLogEvent {
     public void setSystemCenterOs(String systemCenterOs) {
         addField(SYSTEM_CENTER_OS, systemCenterOs);
     }
-    public static String SYSTEM_CENTER_OS = "os";
+    public static final String SYSTEM_CENTER_OS = "os";
 
     /**
      * The percentage of processor utilization.
@@ -1889,7 +2116,7 @@ public class SplunkCimLogEvent {
         addField(SYSTEM_CENTER_PERCENTPROCESSORTIME,
                 systemCenterPercentprocessortime);
     }
-    public static String SYSTEM_CENTER_PERCENTPROCESSORTIME = "PercentProcessorTime";
+    public static final String SYSTEM_CENTER_PERCENTPROCESSORTIME = "PercentProcessorTime";
 
     /**
      * The setlocaldefs setting from the SE Linux configuration.
@@ -1897,7 +2124,7 @@ public class SplunkCimLogEvent {
     public void setSystemCenterSetlocaldefs(int systemCenterSetlocaldefs) {
         addField(SYSTEM_CENTER_SETLOCALDEFS, systemCenterSetlocaldefs);
     }
-    public static String SYSTEM_CENTER_SETLOCALDEFS = "setlocaldefs";
+    public static final String SYSTEM_CENTER_SETLOCALDEFS = "setlocaldefs";
 
     /**
      * Values from the SE Linux configuration file.
@@ -1905,7 +2132,7 @@ public class SplunkCimLogEvent {
     public void setSystemCenterSelinux(String systemCenterSelinux) {
         addField(SYSTEM_CENTER_SELINUX, systemCenterSelinux);
     }
-    public static String SYSTEM_CENTER_SELINUX = "selinux";
+    public static final String SYSTEM_CENTER_SELINUX = "selinux";
 
     /**
      * The SE Linux type (such as targeted).
@@ -1913,7 +2140,7 @@ public class SplunkCimLogEvent {
     public void setSystemCenterSelinuxtype(String systemCenterSelinuxtype) {
         addField(SYSTEM_CENTER_SELINUXTYPE, systemCenterSelinuxtype);
     }
-    public static String SYSTEM_CENTER_SELINUXTYPE = "selinuxtype";
+    public static final String SYSTEM_CENTER_SELINUXTYPE = "selinuxtype";
 
     /**
      * The shell provided to the User Account (the user field) upon logging into
@@ -1922,7 +2149,7 @@ public class SplunkCimLogEvent {
     public void setSystemCenterShell(String systemCenterShell) {
         addField(SYSTEM_CENTER_SHELL, systemCenterShell);
     }
-    public static String SYSTEM_CENTER_SHELL = "shell";
+    public static final String SYSTEM_CENTER_SHELL = "shell";
 
     /**
      * The TCP/UDP source port on the system (the src field).
@@ -1930,7 +2157,7 @@ public class SplunkCimLogEvent {
     public void setSystemCenterSrcPort(int systemCenterSrcPort) {
         addField(SYSTEM_CENTER_SRC_PORT, systemCenterSrcPort);
     }
-    public static String SYSTEM_CENTER_SRC_PORT = "src_port";
+    public static final String SYSTEM_CENTER_SRC_PORT = "src_port";
 
     /**
      * The sshd protocol version.
@@ -1938,7 +2165,7 @@ public class SplunkCimLogEvent {
     public void setSystemCenterSshdProtocol(String systemCenterSshdProtocol) {
         addField(SYSTEM_CENTER_SSHD_PROTOCOL, systemCenterSshdProtocol);
     }
-    public static String SYSTEM_CENTER_SSHD_PROTOCOL = "sshd_protocol";
+    public static final String SYSTEM_CENTER_SSHD_PROTOCOL = "sshd_protocol";
 
     /**
      * The start mode of the given service.
@@ -1946,7 +2173,7 @@ public class SplunkCimLogEvent {
     public void setSystemCenterStartmode(String systemCenterStartmode) {
         addField(SYSTEM_CENTER_STARTMODE, systemCenterStartmode);
     }
-    public static String SYSTEM_CENTER_STARTMODE = "Startmode";
+    public static final String SYSTEM_CENTER_STARTMODE = "Startmode";
 
     /**
      * The number of seconds since the system (the src) has been "up."
@@ -1954,7 +2181,7 @@ public class SplunkCimLogEvent {
     public void setSystemCenterSystemuptime(long systemCenterSystemuptime) {
         addField(SYSTEM_CENTER_SYSTEMUPTIME, systemCenterSystemuptime);
     }
-    public static String SYSTEM_CENTER_SYSTEMUPTIME = "SystemUptime";
+    public static final String SYSTEM_CENTER_SYSTEMUPTIME = "SystemUptime";
 
     /**
      * The total amount of available memory on the system (the src).
@@ -1962,7 +2189,7 @@ public class SplunkCimLogEvent {
     public void setSystemCenterTotalmbytes(long systemCenterTotalmbytes) {
         addField(SYSTEM_CENTER_TOTALMBYTES, systemCenterTotalmbytes);
     }
-    public static String SYSTEM_CENTER_TOTALMBYTES = "TotalMBytes";
+    public static final String SYSTEM_CENTER_TOTALMBYTES = "TotalMBytes";
 
     /**
      * The amount of used memory on the system (the src).
@@ -1970,7 +2197,7 @@ public class SplunkCimLogEvent {
     public void setSystemCenterUsedmbytes(long systemCenterUsedmbytes) {
         addField(SYSTEM_CENTER_USEDMBYTES, systemCenterUsedmbytes);
     }
-    public static String SYSTEM_CENTER_USEDMBYTES = "UsedMBytes";
+    public static final String SYSTEM_CENTER_USEDMBYTES = "UsedMBytes";
 
     /**
      * The User Account present on the system (the src).
@@ -1978,7 +2205,7 @@ public class SplunkCimLogEvent {
     public void setSystemCenterUser(String systemCenterUser) {
         addField(SYSTEM_CENTER_USER, systemCenterUser);
     }
-    public static String SYSTEM_CENTER_USER = "user";
+    public static final String SYSTEM_CENTER_USER = "user";
 
     /**
      * The number of updates the system (the src) is missing.
@@ -1986,7 +2213,7 @@ public class SplunkCimLogEvent {
     public void setSystemCenterUpdates(long systemCenterUpdates) {
         addField(SYSTEM_CENTER_UPDATES, systemCenterUpdates);
     }
-    public static String SYSTEM_CENTER_UPDATES = "updates";
+    public static final String SYSTEM_CENTER_UPDATES = "updates";
 
 
     // ----------------------------------
@@ -2001,7 +2228,7 @@ public class SplunkCimLogEvent {
     public void setTrafficDest(String trafficDest) {
         addField(TRAFFIC_DEST, trafficDest);
     }
-    public static String TRAFFIC_DEST = "dest";
+    public static final String TRAFFIC_DEST = "dest";
 
     /**
      * The name of the packet filtering device. If your field is named dvc_host,
@@ -2010,7 +2237,7 @@ public class SplunkCimLogEvent {
     public void setTrafficDvc(String trafficDvc) {
         addField(TRAFFIC_DVC, trafficDvc);
     }
-    public static String TRAFFIC_DVC = "dvc";
+    public static final String TRAFFIC_DVC = "dvc";
 
     /**
      * The source of the network traffic. If your field is named src_host,
@@ -2020,7 +2247,7 @@ public class SplunkCimLogEvent {
     public void setTrafficSrc(String trafficSrc) {
         addField(TRAFFIC_SRC, trafficSrc);
     }
-    public static String TRAFFIC_SRC = "src";
+    public static final String TRAFFIC_SRC = "src";
 
 
     // ----------------------------------
@@ -2033,7 +2260,7 @@ public class SplunkCimLogEvent {
     public void setUpdatePackage(String updatePackage) {
         addField(UPDATE_PACKAGE, updatePackage);
     }
-    public static String UPDATE_PACKAGE = "package";
+    public static final String UPDATE_PACKAGE = "package";
 
 
     // ----------------------------------
@@ -2048,7 +2275,7 @@ public class SplunkCimLogEvent {
             String userInfoUpdatesAffectedUser) {
         addField(USER_INFO_UPDATES_AFFECTED_USER, userInfoUpdatesAffectedUser);
     }
-    public static String USER_INFO_UPDATES_AFFECTED_USER = "affected_user";
+    public static final String USER_INFO_UPDATES_AFFECTED_USER = "affected_user";
 
     /**
      * The user group affected by a change.
@@ -2058,7 +2285,7 @@ public class SplunkCimLogEvent {
         addField(USER_INFO_UPDATES_AFFECTED_USER_GROUP,
                 userInfoUpdatesAffectedUserGroup);
     }
-    public static String USER_INFO_UPDATES_AFFECTED_USER_GROUP = "affected_user_group";
+    public static final String USER_INFO_UPDATES_AFFECTED_USER_GROUP = "affected_user_group";
 
     /**
      * The identifier of the user group affected by a change.
@@ -2068,7 +2295,7 @@ public class SplunkCimLogEvent {
         addField(USER_INFO_UPDATES_AFFECTED_USER_GROUP_ID,
                 userInfoUpdatesAffectedUserGroupId);
     }
-    public static String USER_INFO_UPDATES_AFFECTED_USER_GROUP_ID = "affected_user_group_id";
+    public static final String USER_INFO_UPDATES_AFFECTED_USER_GROUP_ID = "affected_user_group_id";
 
     /**
      * The identifier of the user affected by a change.
@@ -2078,7 +2305,7 @@ public class SplunkCimLogEvent {
         addField(USER_INFO_UPDATES_AFFECTED_USER_ID,
                 userInfoUpdatesAffectedUserId);
     }
-    public static String USER_INFO_UPDATES_AFFECTED_USER_ID = "affected_user_id";
+    public static final String USER_INFO_UPDATES_AFFECTED_USER_ID = "affected_user_id";
 
     /**
      * The security context associated with the user affected by a change.
@@ -2088,7 +2315,7 @@ public class SplunkCimLogEvent {
         addField(USER_INFO_UPDATES_AFFECTED_USER_PRIVILEGE,
                 userInfoUpdatesAffectedUserPrivilege);
     }
-    public static String USER_INFO_UPDATES_AFFECTED_USER_PRIVILEGE = "affected_user_privilege";
+    public static final String USER_INFO_UPDATES_AFFECTED_USER_PRIVILEGE = "affected_user_privilege";
 
     /**
      * The name of the user affected by the recorded event.
@@ -2096,7 +2323,7 @@ public class SplunkCimLogEvent {
     public void setUserInfoUpdatesUser(String userInfoUpdatesUser) {
         addField(USER_INFO_UPDATES_USER, userInfoUpdatesUser);
     }
-    public static String USER_INFO_UPDATES_USER = "user";
+    public static final String USER_INFO_UPDATES_USER = "user";
 
     /**
      * A user group that is the object of an event, expressed in human-readable
@@ -2105,7 +2332,7 @@ public class SplunkCimLogEvent {
     public void setUserInfoUpdatesUserGroup(String userInfoUpdatesUserGroup) {
         addField(USER_INFO_UPDATES_USER_GROUP, userInfoUpdatesUserGroup);
     }
-    public static String USER_INFO_UPDATES_USER_GROUP = "user_group";
+    public static final String USER_INFO_UPDATES_USER_GROUP = "user_group";
 
     /**
      * The numeric identifier assigned to the user group event object.
@@ -2113,7 +2340,7 @@ public class SplunkCimLogEvent {
     public void setUserInfoUpdatesUserGroupId(int userInfoUpdatesUserGroupId) {
         addField(USER_INFO_UPDATES_USER_GROUP_ID, userInfoUpdatesUserGroupId);
     }
-    public static String USER_INFO_UPDATES_USER_GROUP_ID = "user_group_id";
+    public static final String USER_INFO_UPDATES_USER_GROUP_ID = "user_group_id";
 
     /**
      * The system-assigned identifier for the user affected by an event.
@@ -2121,7 +2348,7 @@ public class SplunkCimLogEvent {
     public void setUserInfoUpdatesUserId(int userInfoUpdatesUserId) {
         addField(USER_INFO_UPDATES_USER_ID, userInfoUpdatesUserId);
     }
-    public static String USER_INFO_UPDATES_USER_ID = "user_id";
+    public static final String USER_INFO_UPDATES_USER_ID = "user_id";
 
     /**
      * The security context associated with the object of an event (the affected
@@ -2131,7 +2358,7 @@ public class SplunkCimLogEvent {
             String userInfoUpdatesUserPrivilege) {
         addField(USER_INFO_UPDATES_USER_PRIVILEGE, userInfoUpdatesUserPrivilege);
     }
-    public static String USER_INFO_UPDATES_USER_PRIVILEGE = "user_privilege";
+    public static final String USER_INFO_UPDATES_USER_PRIVILEGE = "user_privilege";
 
     /**
      * The name of the user that is the subject of an event--the user executing
@@ -2140,7 +2367,7 @@ public class SplunkCimLogEvent {
     public void setUserInfoUpdatesUserSubject(String userInfoUpdatesUserSubject) {
         addField(USER_INFO_UPDATES_USER_SUBJECT, userInfoUpdatesUserSubject);
     }
-    public static String USER_INFO_UPDATES_USER_SUBJECT = "user_subject";
+    public static final String USER_INFO_UPDATES_USER_SUBJECT = "user_subject";
 
     /**
      * The ID number of the user that is the subject of an event.
@@ -2148,7 +2375,7 @@ public class SplunkCimLogEvent {
     public void setUserInfoUpdatesUserSubjectId(int userInfoUpdatesUserSubjectId) {
         addField(USER_INFO_UPDATES_USER_SUBJECT_ID, userInfoUpdatesUserSubjectId);
     }
-    public static String USER_INFO_UPDATES_USER_SUBJECT_ID = "user_subject_id";
+    public static final String USER_INFO_UPDATES_USER_SUBJECT_ID = "user_subject_id";
 
     /**
      * The security context associated with the subject of an event (the user
@@ -2159,7 +2386,7 @@ public class SplunkCimLogEvent {
         addField(USER_INFO_UPDATES_USER_SUBJECT_PRIVILEGE,
                 userInfoUpdatesUserSubjectPrivilege);
     }
-    public static String USER_INFO_UPDATES_USER_SUBJECT_PRIVILEGE = "user_subject_privilege";
+    public static final String USER_INFO_UPDATES_USER_SUBJECT_PRIVILEGE = "user_subject_privilege";
 
 
     // ----------------------------------
@@ -2172,7 +2399,7 @@ public class SplunkCimLogEvent {
     public void setVulnerabilityCategory(String vulnerabilityCategory) {
         addField(VULNERABILITY_CATEGORY, vulnerabilityCategory);
     }
-    public static String VULNERABILITY_CATEGORY = "category";
+    public static final String VULNERABILITY_CATEGORY = "category";
 
     /**
      * The host with the discovered vulnerability. If your field is named
@@ -2182,7 +2409,7 @@ public class SplunkCimLogEvent {
     public void setVulnerabilityDest(String vulnerabilityDest) {
         addField(VULNERABILITY_DEST, vulnerabilityDest);
     }
-    public static String VULNERABILITY_DEST = "dest";
+    public static final String VULNERABILITY_DEST = "dest";
 
     /**
      * The operating system of the host containing the vulnerability detected on
@@ -2192,7 +2419,7 @@ public class SplunkCimLogEvent {
     public void setVulnerabilityOs(String vulnerabilityOs) {
         addField(VULNERABILITY_OS, vulnerabilityOs);
     }
-    public static String VULNERABILITY_OS = "os";
+    public static final String VULNERABILITY_OS = "os";
 
     /**
      * The severity of the discovered vulnerability.
@@ -2200,7 +2427,7 @@ public class SplunkCimLogEvent {
     public void setVulnerabilitySeverity(String vulnerabilitySeverity) {
         addField(VULNERABILITY_SEVERITY, vulnerabilitySeverity);
     }
-    public static String VULNERABILITY_SEVERITY = "severity";
+    public static final String VULNERABILITY_SEVERITY = "severity";
 
     /**
      * The name of the vulnerability detected on the client (the src field),
@@ -2209,7 +2436,7 @@ public class SplunkCimLogEvent {
     public void setVulnerabilitySignature(String vulnerabilitySignature) {
         addField(VULNERABILITY_SIGNATURE, vulnerabilitySignature);
     }
-    public static String VULNERABILITY_SIGNATURE = "signature";
+    public static final String VULNERABILITY_SIGNATURE = "signature";
 
 
     // ----------------------------------
@@ -2222,7 +2449,7 @@ public class SplunkCimLogEvent {
     public void setWindowsAdminObjectName(String windowsAdminObjectName) {
         addField(WINDOWS_ADMIN_OBJECT_NAME, windowsAdminObjectName);
     }
-    public static String WINDOWS_ADMIN_OBJECT_NAME = "object_name";
+    public static final String WINDOWS_ADMIN_OBJECT_NAME = "object_name";
 
     /**
      * The object type (associated only with Windows).
@@ -2230,7 +2457,7 @@ public class SplunkCimLogEvent {
     public void setWindowsAdminObjectType(String windowsAdminObjectType) {
         addField(WINDOWS_ADMIN_OBJECT_TYPE, windowsAdminObjectType);
     }
-    public static String WINDOWS_ADMIN_OBJECT_TYPE = "object_type";
+    public static final String WINDOWS_ADMIN_OBJECT_TYPE = "object_type";
 
     /**
      * The object handle (associated only with Windows).
@@ -2238,5 +2465,5 @@ public class SplunkCimLogEvent {
     public void setWindowsAdminObjectHandle(String windowsAdminObjectHandle) {
         addField(WINDOWS_ADMIN_OBJECT_HANDLE, windowsAdminObjectHandle);
     }
-    public static String WINDOWS_ADMIN_OBJECT_HANDLE = "object_handle";
+    public static final String WINDOWS_ADMIN_OBJECT_HANDLE = "object_handle";
 }
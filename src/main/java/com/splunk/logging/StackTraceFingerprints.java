@@ -0,0 +1,310 @@
+package com.splunk.logging;
+
+/**
+ * @copyright
+ *
+ * Copyright 2013-2015 Splunk, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"): you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Stack traces of logged exceptions, deduplicated by fingerprint.
+ *
+ * The fingerprint of a stack trace is a hash of the exception classes and of the frames of the
+ * exception and its causes, messages excluded, so it is the same for every occurrence of a failure
+ * and across restarts. The full stack trace is rendered only the first time a fingerprint is seen
+ * within a window, later occurrences in the window are rendered as a single line carrying the
+ * fingerprint and the number of occurrences so far, e.g.
+ * <pre>
+ * java.lang.IllegalStateException: boom [fingerprint=3c5b0e2fd3a1b0f7 count=1]
+ * 	at com.example.Service.call(Service.java:42)
+ * 	...
+ * java.lang.IllegalStateException: boom [fingerprint=3c5b0e2fd3a1b0f7 count=2]
+ * </pre>
+ *
+ * Frames are rendered once per fingerprint and cached. Memory is bounded: fingerprints are kept in a
+ * table of MaxTraces slots indexed by the fingerprint, a new fingerprint takes the slot of the one
+ * there. A cached trace is used only if its exception classes and frames are equal to those of the
+ * exception, so fingerprints colliding in a slot, or colliding outright, are told apart.
+ */
+public class StackTraceFingerprints {
+    public static final long DefaultWindow = 60 * 1000; // 1 minute
+    public static final int MaxTraces = 1024; // a power of 2
+    static final int JoinedFramesSlots = 1024;
+    // causes rendered at most, guards against cause cycles
+    static final int MaxCauses = 16;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // entries are immutable, a slot is simply overwritten by the frames of another stack trace
+    private static final JoinedFrames[] JOINED_FRAMES = new JoinedFrames[JoinedFramesSlots];
+
+    private final long window;
+    // a trace is replaced, never updated in place, when its window ends or another one takes its slot
+    private final AtomicReferenceArray<Trace> traces = new AtomicReferenceArray<>(MaxTraces);
+
+    /**
+     * Create stack traces deduplication.
+     * @param window time in milliseconds during which a stack trace is rendered in full only once,
+     *               0 to render every occurrence in full
+     */
+    public StackTraceFingerprints(long window) {
+        this.window = Math.max(0, window);
+    }
+
+    /**
+     * @param throwable exception
+     * @return fingerprint of the stack trace of the exception and its causes, messages excluded
+     */
+    public static long fingerprint(Throwable throwable) {
+        Throwable[] chain = chain(throwable);
+        return fingerprint(chain, stackTraces(chain));
+    }
+
+    private static long fingerprint(Throwable[] chain, StackTraceElement[][] stacks) {
+        long hash = FNV_OFFSET;
+        for (int cause = 0; cause < chain.length; cause++) {
+            hash = hash(hash, chain[cause].getClass().getName());
+            for (StackTraceElement element : stacks[cause]) {
+                hash = hash(hash, element.getClassName());
+                hash = hash(hash, element.getMethodName());
+                hash = (hash ^ element.getLineNumber()) * FNV_PRIME;
+            }
+            hash = (hash ^ '\n') * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    // the exception and its causes, at most MaxCauses of them
+    private static Throwable[] chain(Throwable throwable) {
+        int length = 0;
+        for (Throwable t = throwable; t != null && length <= MaxCauses; t = t.getCause()) {
+            length++;
+        }
+        Throwable[] chain = new Throwable[length];
+        Throwable t = throwable;
+        for (int cause = 0; cause < length; cause++, t = t.getCause()) {
+            chain[cause] = t;
+        }
+        return chain;
+    }
+
+    private static StackTraceElement[][] stackTraces(Throwable[] chain) {
+        StackTraceElement[][] stacks = new StackTraceElement[chain.length][];
+        for (int cause = 0; cause < chain.length; cause++) {
+            stacks[cause] = chain[cause].getStackTrace();
+        }
+        return stacks;
+    }
+
+    private static long hash(long hash, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            hash = (hash ^ s.charAt(i)) * FNV_PRIME;
+        }
+        return (hash ^ 0xffff) * FNV_PRIME;
+    }
+
+    /**
+     * @param fingerprint stack trace fingerprint
+     * @return the fingerprint as 16 hexadecimal digits
+     */
+    public static String toString(long fingerprint) {
+        String hex = Long.toHexString(fingerprint);
+        return "0000000000000000".substring(hex.length()) + hex;
+    }
+
+    /**
+     * Render an exception, with its full stack trace if it is the first occurrence of the stack trace
+     * in the window.
+     * @param throwable exception
+     * @return text of the exception
+     */
+    public String render(Throwable throwable) {
+        Throwable[] chain = chain(throwable);
+        StackTraceElement[][] stacks = stackTraces(chain);
+        long fingerprint = fingerprint(chain, stacks);
+        int index = (int) (fingerprint ^ (fingerprint >>> 32)) & (MaxTraces - 1);
+        long now = System.currentTimeMillis();
+        Trace trace;
+        long count;
+        while (true) {
+            Trace current = traces.get(index);
+            boolean same = current != null && current.matches(fingerprint, chain, stacks);
+            if (same && now - current.windowStart < window) {
+                trace = current;
+                count = current.count.incrementAndGet();
+                break;
+            }
+            // a new window, or a new stack trace: the frames are kept only for the same stack trace
+            Trace started = new Trace(fingerprint, chain, stacks, now, same ? current.frames : null);
+            if (traces.compareAndSet(index, current, started)) {
+                trace = started;
+                count = 1;
+                break;
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        header(sb, throwable);
+        sb.append(" [fingerprint=").append(toString(fingerprint)).append(" count=").append(count).append(']');
+        if (count > 1) {
+            return sb.toString();
+        }
+        String[] frames = trace.frames;
+        if (frames == null) {
+            frames = renderFrames(stacks);
+            trace.frames = frames;
+        }
+        for (int cause = 0; cause < chain.length; cause++) {
+            if (cause > 0) {
+                sb.append("\nCaused by: ");
+                header(sb, chain[cause]);
+            }
+            sb.append(frames[cause]);
+        }
+        return sb.toString();
+    }
+
+    private static void header(StringBuilder sb, Throwable throwable) {
+        sb.append(throwable.getClass().getName());
+        String message = throwable.getLocalizedMessage();
+        if (message != null) {
+            sb.append(": ").append(message);
+        }
+    }
+
+    // frames of each exception of the chain, frames in common with the enclosing exception are elided
+    private static String[] renderFrames(StackTraceElement[][] stacks) {
+        String[] frames = new String[stacks.length];
+        StackTraceElement[] enclosing = new StackTraceElement[0];
+        for (int cause = 0; cause < stacks.length; cause++) {
+            StackTraceElement[] elements = stacks[cause];
+            int last = elements.length - 1;
+            for (int e = enclosing.length - 1; last >= 0 && e >= 0 && elements[last].equals(enclosing[e]); e--) {
+                last--;
+            }
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i <= last; i++) {
+                sb.append("\n\tat ").append(elements[i]);
+            }
+            if (last < elements.length - 1) {
+                sb.append("\n\t... ").append(elements.length - 1 - last).append(" more");
+            }
+            frames[cause] = sb.toString();
+            enclosing = elements;
+        }
+        return frames;
+    }
+
+    /**
+     * Render the first frames of the stack trace of an exception. Joined frames are cached in a table
+     * of JoinedFramesSlots slots indexed by the hash of the frames, a cached entry is used only if its
+     * frames are equal to the frames of the exception.
+     * @param throwable exception
+     * @param depth maximum number of frames
+     * @return frames separated by commas
+     */
+    static String joinedFrames(Throwable throwable, int depth) {
+        StackTraceElement[] elements = throwable.getStackTrace();
+        int length = Math.min(elements.length, depth);
+        long hash = hashFrames(elements, length);
+        int index = (int) (hash ^ (hash >>> 32)) & (JoinedFramesSlots - 1);
+        JoinedFrames cached = JOINED_FRAMES[index];
+        if (cached != null && cached.matches(elements, length)) {
+            return cached.joined;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            sb.append(elements[i].toString());
+        }
+        String joined = sb.toString();
+        JOINED_FRAMES[index] = new JoinedFrames(Arrays.copyOf(elements, length), joined);
+        return joined;
+    }
+
+    private static long hashFrames(StackTraceElement[] elements, int length) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < length; i++) {
+            StackTraceElement element = elements[i];
+            hash = hash(hash, element.getClassName());
+            hash = hash(hash, element.getMethodName());
+            hash = (hash ^ element.getLineNumber()) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static final class Trace {
+        private final long fingerprint;
+        private final String[] classes;
+        private final StackTraceElement[][] stacks;
+        private final long windowStart;
+        private final AtomicLong count = new AtomicLong(1);
+        // rendered frames of the exception and each of its causes, set on the first full rendering
+        private volatile String[] frames;
+
+        Trace(long fingerprint, Throwable[] chain, StackTraceElement[][] stacks, long windowStart, String[] frames) {
+            this.fingerprint = fingerprint;
+            this.classes = new String[chain.length];
+            for (int cause = 0; cause < chain.length; cause++) {
+                classes[cause] = chain[cause].getClass().getName();
+            }
+            this.stacks = stacks;
+            this.windowStart = windowStart;
+            this.frames = frames;
+        }
+
+        boolean matches(long fingerprint, Throwable[] chain, StackTraceElement[][] stacks) {
+            if (this.fingerprint != fingerprint || classes.length != chain.length) {
+                return false;
+            }
+            for (int cause = 0; cause < chain.length; cause++) {
+                if (!classes[cause].equals(chain[cause].getClass().getName())
+                        || !Arrays.equals(this.stacks[cause], stacks[cause])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class JoinedFrames {
+        private final StackTraceElement[] elements;
+        private final String joined;
+
+        JoinedFrames(StackTraceElement[] elements, String joined) {
+            this.elements = elements;
+            this.joined = joined;
+        }
+
+        boolean matches(StackTraceElement[] other, int length) {
+            if (elements.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (!elements[i].equals(other[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
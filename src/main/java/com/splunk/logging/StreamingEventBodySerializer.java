@@ -0,0 +1,42 @@
+package com.splunk.logging;
+
+import com.splunk.logging.serialization.HecJsonWriter;
+
+/**
+ *
+ * Event body serializer writing the body directly into the batch being sent, instead of returning a String
+ * which is then escaped and copied again. The body may be any JSON value: a string, an object, an array...
+ *
+ * Implementations are configured the same way as a plain {@link EventBodySerializer}, with the
+ * `eventBodySerializer` property of the adapter.
+ *
+ * @see com.splunk.logging.serialization.PlainTextEventBodySerializer
+ *
+*/
+public interface StreamingEventBodySerializer extends EventBodySerializer {
+
+    /**
+     * Write the event body as exactly one JSON value.
+     * @param eventInfo event to serialize
+     * @param formattedMessage message of the event
+     * @param writer writer positioned on the value of the "event" member
+     */
+    void writeEventBody(
+            HttpEventCollectorEventInfo eventInfo,
+            Object formattedMessage,
+            HecJsonWriter writer
+    );
+
+    /**
+     * @return JSON text of the body written by {@link #writeEventBody}
+     */
+    @Override
+    default String serializeEventBody(
+            HttpEventCollectorEventInfo eventInfo,
+            Object formattedMessage
+    ) {
+        HecJsonWriter writer = new HecJsonWriter(256);
+        writeEventBody(eventInfo, formattedMessage, writer);
+        return writer.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package com.splunk.logging;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.splunk.logging.serialization.HecJsonWriter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ *
+ * Event header serializer writing the header members directly into the batch being sent, instead of
+ * returning a Map which is then converted to JSON.
+ *
+ * Implementations are configured the same way as a plain {@link EventHeaderSerializer}, with the
+ * `eventHeaderSerializer` property of the adapter.
+ *
+*/
+public interface StreamingEventHeaderSerializer extends EventHeaderSerializer {
+
+    /**
+     * Write the header as members of the event object, e.g. {@code writer.name("index").value("main")}.
+     * The "event" member is written by the caller and must not be written here. When the body serializer
+     * provides the event time, "time" has already been written and is not part of the metadata.
+     *
+     * @param eventInfo event to serialize
+     * @param metadata read only metadata configured for the adapter
+     * @param writer writer positioned inside the event object
+     */
+    void writeEventHeader(
+            final HttpEventCollectorEventInfo eventInfo,
+            final Map<String, Object> metadata,
+            final HecJsonWriter writer
+    );
+
+    /**
+     * @return members written by {@link #writeEventHeader}, as JSON elements
+     */
+    @Override
+    default Map<String, Object> serializeEventHeader(
+            final HttpEventCollectorEventInfo eventInfo,
+            final Map<String, Object> metadata
+    ) {
+        HecJsonWriter writer = new HecJsonWriter(256);
+        writer.beginObject();
+        writeEventHeader(eventInfo, metadata, writer);
+        JsonObject header = JsonParser.parseString(writer.endObject().toString()).getAsJsonObject();
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (Map.Entry<String, JsonElement> entry : header.entrySet()) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+}
@@ -17,8 +17,9 @@ public class MetadataTags {
     public static final String SOURCE = "source";
     public static final String SOURCETYPE = "sourcetype";
     public static final String MESSAGEFORMAT = "messageFormat";
+    public static final String METRICS_INDEX = "metrics_index";
     public static final Set<String> HEC_TAGS =
             new HashSet<>(Arrays.asList(TIME, HOST, INDEX, SOURCE, SOURCETYPE));
     public static final Set<String> INTERNAL_TAGS=
-            new HashSet<>(Collections.singletonList(MESSAGEFORMAT));
+            new HashSet<>(Arrays.asList(MESSAGEFORMAT, METRICS_INDEX));
 }
@@ -0,0 +1,68 @@
+/*
+ Copyright © 2019 Splunk Inc.
+ SPLUNK CONFIDENTIAL – Use or disclosure of this material in whole or in part
+ without a valid written license from Splunk Inc. is PROHIBITED.
+ */
+package com.splunk.logging.serialization;
+
+/**
+ * Bounded cache of JSON strings already quoted, escaped and UTF-8 encoded, for values which repeat in
+ * almost every event: logger and thread names, severities, property keys.
+ * <p>
+ * The cache is a direct mapped table indexed by the string hash code. A miss replaces whatever was in
+ * the slot, so high cardinality values simply evict each other instead of growing the cache. Entries are
+ * immutable, the table can be read and updated concurrently without locking; a lost update only costs
+ * encoding the string once more.
+ * </p>
+ */
+public final class EncodedStringCache {
+    public static final int DEFAULT_SIZE = 1024;
+    public static final int DEFAULT_MAX_LENGTH = 128;
+
+    private final Entry[] table;
+    private final int mask;
+    private final int maxLength;
+
+    public EncodedStringCache() {
+        this(DEFAULT_SIZE, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * @param size number of slots, rounded up to a power of two
+     * @param maxLength longest string cached, longer ones are encoded on every call
+     */
+    public EncodedStringCache(int size, int maxLength) {
+        int slots = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.table = new Entry[slots];
+        this.mask = slots - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * @param value string to encode
+     * @return the quoted and escaped UTF-8 bytes of the string, or null if it is not cacheable
+     */
+    byte[] get(String value) {
+        if (value.length() > maxLength) {
+            return null;
+        }
+        int index = value.hashCode() & mask;
+        Entry entry = table[index];
+        if (entry != null && (entry.value == value || entry.value.equals(value))) {
+            return entry.encoded;
+        }
+        byte[] encoded = new HecJsonWriter(value.length() + 8).value(value).toByteArray();
+        table[index] = new Entry(value, encoded);
+        return encoded;
+    }
+
+    private static final class Entry {
+        private final String value;
+        private final byte[] encoded;
+
+        Entry(String value, byte[] encoded) {
+            this.value = value;
+            this.encoded = encoded;
+        }
+    }
+}
@@ -6,15 +6,33 @@
 package com.splunk.logging.serialization;
 
 import com.google.gson.*;
-import com.splunk.logging.EventBodySerializer;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.splunk.logging.HttpEventCollectorEventInfo;
+import com.splunk.logging.HttpEventCollectorExceptionInfo;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.lang.reflect.Type;
 import java.util.HashMap;
-import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class EventInfoTypeAdapter implements JsonSerializer<HttpEventCollectorEventInfo> {
+    private final MessagePolicy messagePolicy;
+    // severities, logger and thread names and property keys repeat in almost every event
+    private final EncodedStringCache encodedStrings = new EncodedStringCache();
+    // and so do the stack frames of recurring exceptions
+    private final EncodedStringCache encodedFrames = new EncodedStringCache(
+            HttpEventCollectorExceptionInfo.FrameCacheSize, 256);
+
+    public EventInfoTypeAdapter() {
+        this(MessagePolicy.SNIFF);
+    }
+
+    public EventInfoTypeAdapter(MessagePolicy messagePolicy) {
+        this.messagePolicy = messagePolicy;
+    }
 
     @Override
     public JsonElement serialize(HttpEventCollectorEventInfo src, Type typeOfSrc, JsonSerializationContext context) {
@@ -23,18 +41,23 @@ public class EventInfoTypeAdapter implements JsonSerializer<HttpEventCollectorEv
         // but Spring Boot does some Gradle magic that downgrades (as of 11/2019) to 1.8.5. This
         // should move to static methods once 1.8.6 has widespread adoption.
         JsonParser parser = new JsonParser();
-        if (src.getTime() > 0) {
-            event.put("time", String.format(Locale.US, "%.3f", src.getTime()));
+        if (src.getTimeMillis() > 0) {
+            long fraction = Math.floorMod(src.getTimeMillis(), 1000L);
+            event.put("time", Math.floorDiv(src.getTimeMillis(), 1000L) + "." + String.valueOf(1000 + fraction).substring(1));
         }
         if (src.getSeverity() != null) {
             event.put("severity", src.getSeverity());
         }
 
         // Always put a message, even if it's empty.
-        try {
-            // TODO: Move to JsonParser.parseString (see note above)
-            event.put("message", parser.parse(src.getMessage()));
-        } catch (JsonSyntaxException e) {
+        if (messagePolicy.mayBeJson(src.getMessage())) {
+            try {
+                // TODO: Move to JsonParser.parseString (see note above)
+                event.put("message", parser.parse(src.getMessage()));
+            } catch (JsonSyntaxException e) {
+                event.put("message", src.getMessage());
+            }
+        } else {
             event.put("message", src.getMessage());
         }
 
@@ -46,7 +69,9 @@ public class EventInfoTypeAdapter implements JsonSerializer<HttpEventCollectorEv
             event.put("thread", src.getThreadName());
         }
 
-        if (src.getExceptionMessage() != null && ! src.getExceptionMessage().isEmpty()) {
+        if (src.getException() != null) {
+            event.put("exception", exception(src.getException()));
+        } else if (src.getExceptionMessage() != null && ! src.getExceptionMessage().isEmpty()) {
             event.put("exception", src.getExceptionMessage());
         }
 
@@ -64,4 +89,186 @@ public class EventInfoTypeAdapter implements JsonSerializer<HttpEventCollectorEv
 
         return context.serialize(event);
     }
+
+    /**
+     * Stream the event body straight into a writer, producing the same fields as
+     * {@link #serialize(HttpEventCollectorEventInfo, Type, JsonSerializationContext)} without
+     * building intermediate maps or Gson trees for plain text messages.
+     *
+     * @param src event to write
+     * @param writer destination writer, positioned where the event body value is expected
+     */
+    public void write(HttpEventCollectorEventInfo src, HecJsonWriter writer) {
+        writer.beginObject();
+        if (src.getTimeMillis() > 0) {
+            writer.name("time").epochTimeValue(src.getTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+        if (src.getSeverity() != null) {
+            writer.name("severity").value(src.getSeverity(), encodedStrings);
+        }
+
+        writeMessage(src.getMessage(), writer);
+
+        if (src.getLoggerName() != null && !src.getLoggerName().isEmpty()) {
+            writer.name("logger").value(src.getLoggerName(), encodedStrings);
+        }
+
+        if (src.getThreadName() != null && !src.getThreadName().isEmpty()) {
+            writer.name("thread").value(src.getThreadName(), encodedStrings);
+        }
+
+        if (src.getException() != null) {
+            writer.name("exception");
+            writeException(src.getException(), writer);
+        } else if (src.getExceptionMessage() != null && !src.getExceptionMessage().isEmpty()) {
+            writer.name("exception").value(src.getExceptionMessage());
+        }
+
+        Map<String, String> props = src.getProperties();
+        if (props != null && props.size() > 0) {
+            writer.name("properties").value(props, encodedStrings);
+        }
+
+        if (src.getMarker() != null) {
+            String markerString = src.getMarker().toString();
+            if (!markerString.isEmpty()) {
+                writer.name("marker").value(markerString);
+            }
+        }
+        writer.endObject();
+    }
+
+    private static Map<String, Object> exception(HttpEventCollectorExceptionInfo exception) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("class", exception.getClassName());
+        map.put("message", exception.getMessage());
+        map.put("frames", exception.getFrames());
+        if (exception.getOmittedFrames() > 0) {
+            map.put("omitted_frames", exception.getOmittedFrames());
+        }
+        if (exception.getCause() != null) {
+            map.put("cause", exception(exception.getCause()));
+        }
+        return map;
+    }
+
+    private void writeException(HttpEventCollectorExceptionInfo exception, HecJsonWriter writer) {
+        writer.beginObject();
+        writer.name("class").value(exception.getClassName(), encodedStrings);
+        if (exception.getMessage() != null) {
+            writer.name("message").value(exception.getMessage());
+        }
+        writer.name("frames").beginArray();
+        for (String frame : exception.getFrames()) {
+            writer.value(frame, encodedFrames);
+        }
+        writer.endArray();
+        if (exception.getOmittedFrames() > 0) {
+            writer.name("omitted_frames").value(exception.getOmittedFrames());
+        }
+        if (exception.getCause() != null) {
+            writer.name("cause");
+            writeException(exception.getCause(), writer);
+        }
+        writer.endObject();
+    }
+
+    private void writeMessage(String message, HecJsonWriter writer) {
+        if (message == null) {
+            return;
+        }
+        if (messagePolicy.isPassThrough()) {
+            if (writeRawMessage(message, writer)) {
+                return;
+            }
+        } else if (messagePolicy.mayBeJson(message)) {
+            long mark = writer.mark();
+            try {
+                JsonReader reader = new JsonReader(new StringReader(message));
+                if (reader.peek() == JsonToken.NULL) {
+                    // a null message is dropped from the output, the same way Gson does it
+                    return;
+                }
+                writer.name("message");
+                copy(reader, writer);
+                if (reader.peek() == JsonToken.END_DOCUMENT) {
+                    return;
+                }
+            } catch (IOException | IllegalStateException | NumberFormatException e) {
+                // not valid JSON, sent as text below
+            }
+            writer.rewind(mark);
+        }
+        writer.name("message").value(message);
+    }
+
+    private boolean writeRawMessage(String message, HecJsonWriter writer) {
+        int start = JsonScanner.valueStart(message);
+        if (start == message.length()) {
+            return false;
+        }
+        int end;
+        if (messagePolicy == MessagePolicy.TRUSTED_JSON) {
+            // no JSON value starts with other whitespace, e.g. a form feed
+            if (Character.isWhitespace(message.charAt(start))) {
+                return false;
+            }
+            end = JsonScanner.valueTrimmedEnd(message, start);
+        } else {
+            end = JsonScanner.valueEnd(message, start);
+            if (end < 0) {
+                return false;
+            }
+        }
+        writer.name("message").rawValue(message, start, end);
+        return true;
+    }
+
+    /**
+     * Copy a JSON value token by token, without building a tree. Object members with a null value
+     * are skipped, the same way Gson does when null serialization is disabled.
+     */
+    private static void copy(JsonReader reader, HecJsonWriter writer) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                reader.beginObject();
+                writer.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                        continue;
+                    }
+                    writer.name(name);
+                    copy(reader, writer);
+                }
+                reader.endObject();
+                writer.endObject();
+                break;
+            case BEGIN_ARRAY:
+                reader.beginArray();
+                writer.beginArray();
+                while (reader.hasNext()) {
+                    copy(reader, writer);
+                }
+                reader.endArray();
+                writer.endArray();
+                break;
+            case STRING:
+                writer.value(reader.nextString());
+                break;
+            case NUMBER:
+                writer.numberValue(reader.nextString());
+                break;
+            case BOOLEAN:
+                writer.value(reader.nextBoolean());
+                break;
+            case NULL:
+                reader.nextNull();
+                writer.nullValue();
+                break;
+            default:
+                throw new IllegalStateException("Unexpected JSON token: " + reader.peek());
+        }
+    }
 }
@@ -7,33 +7,118 @@ package com.splunk.logging.serialization;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
 import com.splunk.logging.EventBodySerializer;
 import com.splunk.logging.EventHeaderSerializer;
 import com.splunk.logging.HttpEventCollectorEventInfo;
+import com.splunk.logging.HttpEventCollectorMetricInfo;
+import com.splunk.logging.StreamingEventBodySerializer;
+import com.splunk.logging.StreamingEventHeaderSerializer;
 import com.splunk.logging.hec.MetadataTags;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class HecJsonSerializer {
     private static final Set<String> KEYWORDS = MetadataTags.HEC_TAGS;
-    private Map<String, Object> template = new LinkedHashMap<>();
-    private EventInfoTypeAdapter typeAdapter = new EventInfoTypeAdapter();
-    private Gson gson = new GsonBuilder()
-            .registerTypeAdapter(HttpEventCollectorEventInfo.class, typeAdapter)
-            .disableHtmlEscaping()
-            .create();
-    private EventBodySerializer eventBodySerializer;
-    private EventHeaderSerializer eventHeaderSerializer;
+    private static final String[] TEMPLATE_ORDER = {
+            MetadataTags.TIME, MetadataTags.HOST, MetadataTags.INDEX, MetadataTags.SOURCE, MetadataTags.SOURCETYPE, "fields"
+    };
+    private static final String METRIC_NAME_PREFIX = "metric_name:";
+    private static final int VARIANT_CACHE_SIZE = 256;
+    private volatile Map<String, Object> template = new LinkedHashMap<>();
+    private volatile String metricsIndex;
+    private volatile CompiledTemplate compiledTemplate;
+    private final EventInfoTypeAdapter typeAdapter;
+    private final Gson gson;
+    private final EncodedStringCache dimensionNames = new EncodedStringCache();
+    private volatile int maxEventBytes;
+    private volatile int maxFieldBytes;
+    private final AtomicLong truncatedEvents = new AtomicLong();
+    private volatile MetadataProperty[] metadataProperties = new MetadataProperty[0];
+    // templates with metadata taken from event properties, direct mapped like EncodedStringCache
+    private final TemplateVariant[] variants = new TemplateVariant[VARIANT_CACHE_SIZE];
+    private StreamingEventBodySerializer eventBodySerializer;
+    private StreamingEventHeaderSerializer eventHeaderSerializer;
 
     public HecJsonSerializer(Map<String, String> metadata) {
         for (Map.Entry<String, String> entry : metadata.entrySet()) {
-            setValue(entry.getKey(), entry.getValue());
+            setValue(template, entry.getKey(), entry.getValue());
         }
+        metricsIndex = metadata.get(MetadataTags.METRICS_INDEX);
+        compiledTemplate = new CompiledTemplate(template, metricsIndex);
+        typeAdapter = new EventInfoTypeAdapter(MessagePolicy.fromFormat(metadata.get(MetadataTags.MESSAGEFORMAT)));
+        gson = new GsonBuilder()
+                .registerTypeAdapter(HttpEventCollectorEventInfo.class, typeAdapter)
+                .disableHtmlEscaping()
+                .create();
+    }
+
+    /**
+     * Change metadata values sent with every event. The template is recompiled once per call,
+     * events serialized concurrently see either the old or the new metadata.
+     *
+     * @param metadata metadata values to add or replace
+     */
+    public synchronized void updateMetadata(Map<String, String> metadata) {
+        Map<String, Object> updated = merge(template, metadata);
+        if (metadata.containsKey(MetadataTags.METRICS_INDEX)) {
+            metricsIndex = metadata.get(MetadataTags.METRICS_INDEX);
+        }
+        template = updated;
+        compiledTemplate = new CompiledTemplate(updated, metricsIndex);
+    }
+
+    /**
+     * Compile the metadata of another destination, such as a route with its own index, for
+     * {@link #serialize(HttpEventCollectorEventInfo, HecJsonWriter, CompiledTemplate)}. Later updates of
+     * the metadata of this serializer do not apply to the returned template.
+     *
+     * @param metadata metadata values to add or replace
+     * @return the metadata of this serializer with the given values, compiled
+     */
+    public synchronized CompiledTemplate compileTemplate(Map<String, String> metadata) {
+        return new CompiledTemplate(merge(template, metadata), metadata.containsKey(MetadataTags.METRICS_INDEX)
+                ? metadata.get(MetadataTags.METRICS_INDEX) : metricsIndex);
+    }
+
+    /**
+     * Take metadata values from event properties, such as an index following a tenant id in the MDC.
+     * Events without any of the properties get the metadata of the serializer. The templates of each
+     * combination of values are compiled once and cached, up to a few hundred combinations.
+     *
+     * @param metadataProperties property key by metadata name, e.g. "index" to "tenant_index"
+     */
+    public void setMetadataProperties(Map<String, String> metadataProperties) {
+        List<MetadataProperty> mapping = new ArrayList<>();
+        for (Map.Entry<String, String> entry : metadataProperties.entrySet()) {
+            if (MetadataTags.TIME.equals(entry.getKey()) || MetadataTags.INTERNAL_TAGS.contains(entry.getKey())) {
+                throw new IllegalArgumentException("Metadata " + entry.getKey() + " can't be taken from event properties");
+            }
+            mapping.add(new MetadataProperty(entry.getKey(), entry.getValue()));
+        }
+        this.metadataProperties = mapping.toArray(new MetadataProperty[0]);
+    }
+
+    private static Map<String, Object> merge(Map<String, Object> template, Map<String, String> metadata) {
+        Map<String, Object> merged = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : template.entrySet()) {
+            merged.put(entry.getKey(), entry.getValue() instanceof Map
+                    ? new HashMap<>((Map<?, ?>) entry.getValue()) : entry.getValue());
+        }
+        for (Map.Entry<String, String> entry : metadata.entrySet()) {
+            setValue(merged, entry.getKey(), entry.getValue());
+        }
+        return merged;
     }
 
     @SuppressWarnings("unchecked")
-    private void setValue(String key, String value) {
+    private static void setValue(Map<String, Object> template, String key, String value) {
+        if (MetadataTags.INTERNAL_TAGS.contains(key)) {
+            // settings consumed by the serializer itself, not sent to Splunk
+            return;
+        }
         if (KEYWORDS.contains(key)) {
             template.put(key, value);
         } else {
@@ -48,29 +133,369 @@ public class HecJsonSerializer {
     }
 
     public String serialize(HttpEventCollectorEventInfo info) {
-        Map<String, Object> event;
+        HecJsonWriter writer = new HecJsonWriter();
+        serialize(info, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Append a single HEC event to the writer. Fields are written in a fixed order: time, metadata, event.
+     *
+     * @param info event to serialize
+     * @param writer destination writer
+     */
+    public void serialize(HttpEventCollectorEventInfo info, HecJsonWriter writer) {
+        serialize(info, writer, null);
+    }
+
+    /**
+     * Append a single HEC event to the writer, with the metadata of another destination.
+     *
+     * @param info event to serialize
+     * @param writer destination writer
+     * @param template metadata compiled by {@link #compileTemplate}, the metadata of this serializer if null
+     */
+    public void serialize(HttpEventCollectorEventInfo info, HecJsonWriter writer, CompiledTemplate template) {
+        CompiledTemplate compiled = template != null ? template : compiledTemplate;
+        if (info instanceof HttpEventCollectorMetricInfo) {
+            serializeMetric((HttpEventCollectorMetricInfo) info, writer, compiled);
+            return;
+        }
+        compiled = variant(compiled, info);
+        double eventTime = eventTime(info);
+        int maxEventBytes = this.maxEventBytes;
+        int maxFieldBytes = this.maxFieldBytes;
+        boolean limited = maxEventBytes > 0 || maxFieldBytes > 0;
+        if (limited) {
+            writer.limitValues(maxEventBytes, maxFieldBytes);
+        }
+        writer.beginObject();
+        if (eventTime > 0) {
+            writer.name(MetadataTags.TIME).epochTimeValue(Math.round(eventTime * 1000), TimeUnit.MILLISECONDS);
+        }
         if (this.eventHeaderSerializer != null) {
-            event = eventHeaderSerializer.serializeEventHeader(info, new HashMap<>(template));
+            Map<String, Object> metadata = compiled.template;
+            if (eventTime > 0 && metadata.containsKey(MetadataTags.TIME)) {
+                metadata = new LinkedHashMap<>(metadata);
+                metadata.remove(MetadataTags.TIME);
+            }
+            eventHeaderSerializer.writeEventHeader(info, Collections.unmodifiableMap(metadata), writer);
         } else {
-            event = new HashMap<>(template);
+            if (eventTime <= 0) {
+                writer.rawMembers(compiled.time);
+            }
+            writer.rawMembers(compiled.metadata);
         }
+
+        writer.name("event");
         if (this.eventBodySerializer != null) {
-            event.put("event", eventBodySerializer.serializeEventBody(info, info.getMessage()));
-            double eventTime = eventBodySerializer.getEventTime(info);
-            if (eventTime > 0) {
-                event.put("time", String.format(Locale.US, "%.3f", eventTime));
+            eventBodySerializer.writeEventBody(info, info.getMessage(), writer);
+        } else {
+            typeAdapter.write(info, writer);
+        }
+        writer.endObject();
+        if (limited && writer.endLimits() > 0) {
+            truncatedEvents.incrementAndGet();
+        }
+    }
+
+    /**
+     * Limit the size of the events, values exceeding the limits are truncated while they are
+     * written, see {@link HecJsonWriter#limitValues(int, int)}.
+     *
+     * @param maxEventBytes approximate limit of a serialized event, 0 for no limit
+     * @param maxFieldBytes limit of each string value of an event, such as the message, 0 for no limit
+     */
+    public void setSizeLimits(int maxEventBytes, int maxFieldBytes) {
+        this.maxEventBytes = maxEventBytes;
+        this.maxFieldBytes = maxFieldBytes;
+    }
+
+    /**
+     * @return number of events serialized with truncated values so far
+     */
+    public long getTruncatedEventsCount() {
+        return truncatedEvents.get();
+    }
+
+    /**
+     * Write a HEC multi-metric event. The format is fixed by HEC, custom body and header serializers
+     * do not apply: metadata comes from the template, with the metrics index replacing the index when
+     * one is configured; template fields, dimensions and measurements all go into "fields".
+     */
+    private void serializeMetric(HttpEventCollectorMetricInfo info, HecJsonWriter writer, CompiledTemplate compiled) {
+        Map<String, String> dimensions = info.getDimensions();
+        writer.beginObject()
+                .name(MetadataTags.TIME).epochTimeValue(info.getTimeMillis(), TimeUnit.MILLISECONDS)
+                .rawMembers(compiled.metricMetadata)
+                .name("event").value("metric")
+                .name("fields").beginObject();
+        if (dimensions == null || dimensions.isEmpty() || Collections.disjoint(compiled.fields.keySet(), dimensions.keySet())) {
+            writer.rawMembers(compiled.fieldMembers);
+        } else {
+            // dimensions of the metric override template fields with the same name
+            for (Map.Entry<String, String> field : compiled.fields.entrySet()) {
+                if (field.getValue() != null && !dimensions.containsKey(field.getKey())) {
+                    writer.name(field.getKey()).value(field.getValue());
+                }
             }
+        }
+        if (dimensions != null) {
+            for (Map.Entry<String, String> dimension : dimensions.entrySet()) {
+                if (dimension.getKey() != null && dimension.getValue() != null) {
+                    writer.name(dimension.getKey(), dimensionNames).value(dimension.getValue());
+                }
+            }
+        }
+        for (Map.Entry<String, Number> measurement : info.getMeasurements().entrySet()) {
+            Number value = measurement.getValue();
+            if (measurement.getKey() == null || value == null
+                    || ((value instanceof Double || value instanceof Float) && !Double.isFinite(value.doubleValue()))) {
+                continue;
+            }
+            writer.name(METRIC_NAME_PREFIX + measurement.getKey()).value(value);
+        }
+        writer.endObject().endObject();
+    }
+
+    /**
+     * @return the template with the metadata taken from the properties of the event
+     */
+    private CompiledTemplate variant(CompiledTemplate base, HttpEventCollectorEventInfo info) {
+        MetadataProperty[] mapping = metadataProperties;
+        Map<String, String> properties = info.getProperties();
+        if (mapping.length == 0 || properties == null || properties.isEmpty()) {
+            return base;
+        }
+        int hash = System.identityHashCode(base);
+        boolean found = false;
+        for (MetadataProperty property : mapping) {
+            String value = properties.get(property.key);
+            if (value != null) {
+                found = true;
+                hash = 31 * hash + value.hashCode();
+            } else {
+                hash = 31 * hash;
+            }
+        }
+        if (!found) {
+            return base;
+        }
+        int index = (hash ^ (hash >>> 16)) & (VARIANT_CACHE_SIZE - 1);
+        TemplateVariant variant = variants[index];
+        if (variant != null && variant.matches(base, mapping, properties)) {
+            return variant.template;
+        }
+
+        String[] values = new String[mapping.length];
+        Map<String, String> metadata = new HashMap<>();
+        for (int i = 0; i < mapping.length; i++) {
+            values[i] = properties.get(mapping[i].key);
+            if (values[i] != null) {
+                metadata.put(mapping[i].name, values[i]);
+            }
+        }
+        variant = new TemplateVariant(base, mapping, values,
+                new CompiledTemplate(merge(base.template, metadata), base.metricsIndex));
+        variants[index] = variant;
+        return variant.template;
+    }
+
+    private double eventTime(HttpEventCollectorEventInfo info) {
+        StreamingEventBodySerializer bodySerializer = this.eventBodySerializer;
+        return bodySerializer != null ? bodySerializer.getEventTime(info) : 0;
+    }
+
+    // header values may be anything a custom EventHeaderSerializer put in the map, fall back to Gson for
+    // types the writer does not know about
+    private void writeHeaderValue(Object value, HecJsonWriter writer) {
+        if (value instanceof String) {
+            writer.value((String) value);
+        } else if (value instanceof Number) {
+            writer.value((Number) value);
+        } else if (value instanceof Boolean) {
+            writer.value(((Boolean) value).booleanValue());
+        } else if (value instanceof JsonElement) {
+            writer.value((JsonElement) value);
         } else {
-            event.put("event", info);
+            writer.value(gson.toJsonTree(value));
+        }
+    }
+
+    /**
+     * Metadata template encoded once into UTF-8 object members, ready to be spliced into every event.
+     */
+    public static final class CompiledTemplate {
+        private final Map<String, Object> template; // for custom header serializers and variants
+        private final String metricsIndex;
+        private final byte[] time;
+        private final byte[] metadata;
+        // metric events: metadata without fields, and the fields as members to merge with dimensions
+        private final byte[] metricMetadata;
+        private final Map<String, String> fields;
+        private final byte[] fieldMembers;
+
+        @SuppressWarnings("unchecked")
+        private CompiledTemplate(Map<String, Object> template, String metricsIndex) {
+            this.template = template;
+            this.metricsIndex = metricsIndex;
+            HecJsonWriter writer = new HecJsonWriter(256);
+            Object timeValue = template.get(MetadataTags.TIME);
+            if (timeValue != null) {
+                writer.beginObject().name(MetadataTags.TIME).value(timeValue.toString()).endObject();
+            }
+            time = writer.toMembers();
+
+            writer.reset().beginObject();
+            for (String key : TEMPLATE_ORDER) {
+                Object value = template.get(key);
+                if (value == null || MetadataTags.TIME.equals(key)) {
+                    continue;
+                }
+                writer.name(key);
+                if (value instanceof Map) {
+                    writer.value((Map<String, String>) value);
+                } else {
+                    writer.value(value.toString());
+                }
+            }
+            metadata = writer.endObject().toMembers();
+
+            writer.reset().beginObject();
+            for (String key : TEMPLATE_ORDER) {
+                Object value = template.get(key);
+                if (value == null || value instanceof Map || MetadataTags.TIME.equals(key)) {
+                    continue;
+                }
+                if (MetadataTags.INDEX.equals(key) && metricsIndex != null && !metricsIndex.isEmpty()) {
+                    continue;
+                }
+                writer.name(key).value(value.toString());
+            }
+            if (metricsIndex != null && !metricsIndex.isEmpty()) {
+                writer.name(MetadataTags.INDEX).value(metricsIndex);
+            }
+            metricMetadata = writer.endObject().toMembers();
+
+            Object fieldsValue = template.get("fields");
+            fields = fieldsValue instanceof Map
+                    ? new HashMap<>((Map<String, String>) fieldsValue) : Collections.<String, String>emptyMap();
+            fieldMembers = writer.reset().value(fields).toMembers();
+        }
+    }
+
+    private static final class MetadataProperty {
+        private final String name;
+        private final String key;
+
+        MetadataProperty(String name, String key) {
+            this.name = name;
+            this.key = key;
+        }
+    }
+
+    /**
+     * Template compiled for one combination of property values, entries are immutable.
+     */
+    private static final class TemplateVariant {
+        private final CompiledTemplate base;
+        private final MetadataProperty[] mapping;
+        private final String[] values;
+        private final CompiledTemplate template;
+
+        TemplateVariant(CompiledTemplate base, MetadataProperty[] mapping, String[] values, CompiledTemplate template) {
+            this.base = base;
+            this.mapping = mapping;
+            this.values = values;
+            this.template = template;
+        }
+
+        boolean matches(CompiledTemplate base, MetadataProperty[] mapping, Map<String, String> properties) {
+            if (this.base != base || this.mapping != mapping) {
+                return false;
+            }
+            for (int i = 0; i < mapping.length; i++) {
+                String value = properties.get(mapping[i].key);
+                if (value == null ? values[i] != null : !value.equals(values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Adapts a String returning {@link EventBodySerializer} to the streaming interface,
+     * the returned body is written as a JSON string.
+     */
+    private static final class EventBodySerializerAdapter implements StreamingEventBodySerializer {
+        private final EventBodySerializer delegate;
+
+        EventBodySerializerAdapter(EventBodySerializer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void writeEventBody(HttpEventCollectorEventInfo eventInfo, Object formattedMessage, HecJsonWriter writer) {
+            writer.value(delegate.serializeEventBody(eventInfo, formattedMessage));
+        }
+
+        @Override
+        public String serializeEventBody(HttpEventCollectorEventInfo eventInfo, Object formattedMessage) {
+            return delegate.serializeEventBody(eventInfo, formattedMessage);
+        }
+
+        @Override
+        public double getEventTime(HttpEventCollectorEventInfo eventInfo) {
+            return delegate.getEventTime(eventInfo);
+        }
+    }
+
+    /**
+     * Adapts a Map returning {@link EventHeaderSerializer} to the streaming interface. The serializer
+     * gets its own copy of the metadata, "event" and null values in the returned map are ignored.
+     */
+    private final class EventHeaderSerializerAdapter implements StreamingEventHeaderSerializer {
+        private final EventHeaderSerializer delegate;
+
+        EventHeaderSerializerAdapter(EventHeaderSerializer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void writeEventHeader(HttpEventCollectorEventInfo eventInfo, Map<String, Object> metadata, HecJsonWriter writer) {
+            boolean timeWritten = eventTime(eventInfo) > 0;
+            Map<String, Object> header = delegate.serializeEventHeader(eventInfo, new HashMap<>(metadata));
+            for (Map.Entry<String, Object> entry : header.entrySet()) {
+                String key = entry.getKey();
+                if (key == null || entry.getValue() == null
+                        || "event".equals(key) || (timeWritten && MetadataTags.TIME.equals(key))) {
+                    continue;
+                }
+                writer.name(key);
+                writeHeaderValue(entry.getValue(), writer);
+            }
+        }
+
+        @Override
+        public Map<String, Object> serializeEventHeader(HttpEventCollectorEventInfo eventInfo, Map<String, Object> metadata) {
+            return delegate.serializeEventHeader(eventInfo, metadata);
         }
-        return gson.toJson(event);
     }
 
     public void setEventBodySerializer(EventBodySerializer eventBodySerializer) {
-        this.eventBodySerializer = eventBodySerializer;
+        if (eventBodySerializer == null || eventBodySerializer instanceof StreamingEventBodySerializer) {
+            this.eventBodySerializer = (StreamingEventBodySerializer) eventBodySerializer;
+        } else {
+            this.eventBodySerializer = new EventBodySerializerAdapter(eventBodySerializer);
+        }
     }
 
     public void setEventHeaderSerializer(EventHeaderSerializer eventHeaderSerializer) {
-        this.eventHeaderSerializer = eventHeaderSerializer;
+        if (eventHeaderSerializer == null || eventHeaderSerializer instanceof StreamingEventHeaderSerializer) {
+            this.eventHeaderSerializer = (StreamingEventHeaderSerializer) eventHeaderSerializer;
+        } else {
+            this.eventHeaderSerializer = new EventHeaderSerializerAdapter(eventHeaderSerializer);
+        }
     }
 }
@@ -0,0 +1,689 @@
+/*
+ Copyright © 2019 Splunk Inc.
+ SPLUNK CONFIDENTIAL – Use or disclosure of this material in whole or in part
+ without a valid written license from Splunk Inc. is PROHIBITED.
+ */
+package com.splunk.logging.serialization;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming JSON writer that encodes HEC events as UTF-8 directly into a growable byte buffer.
+ * <p>
+ * The writer is meant to be reused: call {@link #reset()} to discard its content while keeping
+ * the allocated buffer. String escaping matches Gson with HTML escaping disabled, so the produced
+ * output is equivalent to what the Gson based serialization used to produce.
+ * </p>
+ * <p>
+ * Instances are not thread safe.
+ * </p>
+ */
+public final class HecJsonWriter {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Replacement for each ASCII character which has to be escaped in a JSON string,
+     * {@code null} for characters which are written as is.
+     */
+    private static final byte[][] ASCII_ESCAPES = new byte[128][];
+    // strings at least this long are escaped by writeEscapedBulk
+    private static final int BULK_ESCAPE_LENGTH = 64;
+    // room kept for the rest of an event when its string values are limited
+    private static final int LIMIT_RESERVE = 256;
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ASCII_ESCAPES[c] = String.format("\\u%04x", c).getBytes(StandardCharsets.US_ASCII);
+        }
+        ASCII_ESCAPES['"'] = "\\\"".getBytes(StandardCharsets.US_ASCII);
+        ASCII_ESCAPES['\\'] = "\\\\".getBytes(StandardCharsets.US_ASCII);
+        ASCII_ESCAPES['\t'] = "\\t".getBytes(StandardCharsets.US_ASCII);
+        ASCII_ESCAPES['\b'] = "\\b".getBytes(StandardCharsets.US_ASCII);
+        ASCII_ESCAPES['\n'] = "\\n".getBytes(StandardCharsets.US_ASCII);
+        ASCII_ESCAPES['\r'] = "\\r".getBytes(StandardCharsets.US_ASCII);
+        ASCII_ESCAPES['\f'] = "\\f".getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private byte[] buf;
+    private int count;
+
+    // one entry per open object/array, true once the first element has been written
+    private boolean[] nonEmpty = new boolean[16];
+    private int depth;
+    // set after a name has been written, the following value must not be preceded by a comma
+    private boolean afterName;
+
+    // size limits of the string values, see limitValues
+    private boolean limited;
+    private int limitStart;
+    private int maxTotalBytes;
+    private int maxValueBytes;
+    private int truncatedValues;
+
+    public HecJsonWriter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public HecJsonWriter(int initialCapacity) {
+        buf = new byte[Math.max(16, initialCapacity)];
+    }
+
+    /**
+     * Discard the written content, keeping the allocated buffer for reuse.
+     */
+    public HecJsonWriter reset() {
+        count = 0;
+        depth = 0;
+        afterName = false;
+        limited = false;
+        return this;
+    }
+
+    /**
+     * Limit the size of the string and raw values written from now on, until {@link #endLimits()}.
+     * Each value is truncated to {@code maxValueBytes} bytes of UTF-8 text, and to what is left of
+     * {@code maxTotalBytes} since this call, minus a few hundred bytes kept for the rest of the event.
+     * A truncated value ends with a marker telling how many characters were dropped. Values are
+     * truncated while they are written, oversized strings are never encoded in full.
+     *
+     * @param maxTotalBytes limit of everything written until endLimits, 0 for no limit
+     * @param maxValueBytes limit of a single value, 0 for no limit
+     */
+    public HecJsonWriter limitValues(int maxTotalBytes, int maxValueBytes) {
+        limited = maxTotalBytes > 0 || maxValueBytes > 0;
+        limitStart = count;
+        this.maxTotalBytes = maxTotalBytes > 0 ? maxTotalBytes : Integer.MAX_VALUE;
+        this.maxValueBytes = maxValueBytes > 0 ? maxValueBytes : Integer.MAX_VALUE;
+        truncatedValues = 0;
+        return this;
+    }
+
+    /**
+     * Stop limiting the size of the values.
+     * @return number of values truncated since {@link #limitValues(int, int)}
+     */
+    public int endLimits() {
+        limited = false;
+        return truncatedValues;
+    }
+
+    /**
+     * @return size of the allocated buffer
+     */
+    public int capacity() {
+        return buf.length;
+    }
+
+    /**
+     * @return number of bytes written so far
+     */
+    public int size() {
+        return count;
+    }
+
+    public HecJsonWriter beginObject() {
+        return open((byte) '{');
+    }
+
+    public HecJsonWriter endObject() {
+        return close((byte) '}');
+    }
+
+    public HecJsonWriter beginArray() {
+        return open((byte) '[');
+    }
+
+    public HecJsonWriter endArray() {
+        return close((byte) ']');
+    }
+
+    /**
+     * Write the name of the next object member.
+     * @param name member name, escaped as needed
+     */
+    public HecJsonWriter name(String name) {
+        beforeValue();
+        writeQuoted(name);
+        writeByte((byte) ':');
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Write a member name which is likely to repeat, reusing its encoded form from the cache.
+     */
+    public HecJsonWriter name(String name, EncodedStringCache cache) {
+        byte[] encoded = cache.get(name);
+        if (encoded == null) {
+            return name(name);
+        }
+        beforeValue();
+        writeBytes(encoded, 0, encoded.length);
+        writeByte((byte) ':');
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Write a string value which is likely to repeat, reusing its encoded form from the cache.
+     */
+    public HecJsonWriter value(String value, EncodedStringCache cache) {
+        byte[] encoded = value != null ? cache.get(value) : null;
+        if (encoded == null || limited && !withinLimits(encoded.length)) {
+            return value(value);
+        }
+        beforeValue();
+        writeBytes(encoded, 0, encoded.length);
+        return this;
+    }
+
+    public HecJsonWriter value(String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        if (limited && writeTruncated(value, 0, value.length(), true, true)) {
+            return this;
+        }
+        writeQuoted(value);
+        return this;
+    }
+
+    public HecJsonWriter value(long value) {
+        beforeValue();
+        writeLong(value);
+        return this;
+    }
+
+    /**
+     * Write an epoch timestamp the way HEC expects it: a string holding seconds with millisecond
+     * precision, such as {@code "1571933417.123"}. Uses fixed-point arithmetic, no floating point
+     * formatting and no allocation.
+     *
+     * @param time time since the epoch
+     * @param unit unit of {@code time}, typically milliseconds or nanoseconds
+     */
+    public HecJsonWriter epochTimeValue(long time, TimeUnit unit) {
+        long millis = unit.toMillis(time);
+        beforeValue();
+        writeByte((byte) '"');
+        writeLong(Math.floorDiv(millis, 1000L));
+        int fraction = (int) Math.floorMod(millis, 1000L);
+        ensureCapacity(5);
+        buf[count++] = '.';
+        buf[count++] = (byte) ('0' + fraction / 100);
+        buf[count++] = (byte) ('0' + fraction / 10 % 10);
+        buf[count++] = (byte) ('0' + fraction % 10);
+        buf[count++] = '"';
+        return this;
+    }
+
+    public HecJsonWriter value(boolean value) {
+        beforeValue();
+        writeBytes(value ? TRUE : FALSE, 0, value ? TRUE.length : FALSE.length);
+        return this;
+    }
+
+    public HecJsonWriter value(Number value) {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeAscii(value.toString());
+        return this;
+    }
+
+    /**
+     * Copy an already serialized JSON value as is, only encoding it to UTF-8.
+     * <p>
+     * The caller is responsible for the value being valid JSON, see {@link JsonScanner}.
+     * </p>
+     * @param json text holding the value
+     * @param start index of the first character of the value
+     * @param end index after the last character of the value
+     */
+    public HecJsonWriter rawValue(CharSequence json, int start, int end) {
+        beforeValue();
+        // a truncated value isn't valid JSON anymore, it is written as a string
+        if (limited && writeTruncated(json, start, end, true, false)) {
+            return this;
+        }
+        writeUtf8(json, start, end, false);
+        return this;
+    }
+
+    /**
+     * Write a number exactly as given.
+     * @param literal JSON number literal, written without validation
+     */
+    HecJsonWriter numberValue(String literal) {
+        beforeValue();
+        writeAscii(literal);
+        return this;
+    }
+
+    public HecJsonWriter nullValue() {
+        beforeValue();
+        writeBytes(NULL, 0, NULL.length);
+        return this;
+    }
+
+    /**
+     * Write a Gson tree. Object members with a {@code null} value are omitted, the same way Gson
+     * does when null serialization is disabled.
+     * @param element JSON tree to write
+     */
+    public HecJsonWriter value(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return nullValue();
+        }
+        if (element.isJsonPrimitive()) {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                return value(primitive.getAsBoolean());
+            } else if (primitive.isNumber()) {
+                return value(primitive.getAsNumber());
+            }
+            return value(primitive.getAsString());
+        }
+        if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            beginArray();
+            for (JsonElement item : array) {
+                value(item);
+            }
+            return endArray();
+        }
+        beginObject();
+        for (Map.Entry<String, JsonElement> member : element.getAsJsonObject().entrySet()) {
+            if (member.getValue() != null && !member.getValue().isJsonNull()) {
+                name(member.getKey());
+                value(member.getValue());
+            }
+        }
+        return endObject();
+    }
+
+    /**
+     * Write a map of strings as a JSON object, skipping {@code null} values.
+     * @param map entries to write
+     */
+    public HecJsonWriter value(Map<String, String> map) {
+        return value(map, null);
+    }
+
+    /**
+     * Write a map of strings as an object, taking the encoded keys from the cache when one is given.
+     */
+    public HecJsonWriter value(Map<String, String> map, EncodedStringCache keyCache) {
+        beginObject();
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                if (keyCache != null) {
+                    name(entry.getKey(), keyCache);
+                } else {
+                    name(entry.getKey());
+                }
+                value(entry.getValue());
+            }
+        }
+        return endObject();
+    }
+
+    /**
+     * Append text as UTF-8, without escaping nor separators, for request bodies which are not JSON.
+     */
+    public HecJsonWriter text(CharSequence text) {
+        if (limited && writeTruncated(text, 0, text.length(), false, false)) {
+            return this;
+        }
+        writeUtf8(text, 0, text.length(), false);
+        return this;
+    }
+
+    /**
+     * Splice pre-encoded object members into the current object.
+     *
+     * @param members comma separated name/value pairs, already escaped and UTF-8 encoded,
+     *                as returned by {@link #toMembers()}; nothing is written when empty
+     */
+    public HecJsonWriter rawMembers(byte[] members) {
+        if (members.length > 0) {
+            beforeValue();
+            writeBytes(members, 0, members.length);
+        }
+        return this;
+    }
+
+    /**
+     * @return members of the single object written so far, without the enclosing braces,
+     * to be spliced later with {@link #rawMembers(byte[])}
+     */
+    public byte[] toMembers() {
+        if (count < 2) {
+            return new byte[0];
+        }
+        return Arrays.copyOfRange(buf, 1, count - 1);
+    }
+
+    /**
+     * Remember the current position, so a partially written value can be discarded with {@link #rewind(long)}.
+     * @return opaque mark
+     */
+    long mark() {
+        // bits 0-31: byte count, 32-61: depth, 62: enclosing container is not empty, 63: a name was just written
+        long mark = count | ((long) depth << 32);
+        if (depth > 0 && nonEmpty[depth - 1]) {
+            mark |= 1L << 62;
+        }
+        if (afterName) {
+            mark |= 1L << 63;
+        }
+        return mark;
+    }
+
+    /**
+     * Discard everything written since the mark was taken.
+     * @param mark value returned by {@link #mark()}
+     */
+    void rewind(long mark) {
+        count = (int) mark;
+        depth = (int) ((mark >>> 32) & 0x3fffffff);
+        if (depth > 0) {
+            nonEmpty[depth - 1] = (mark & (1L << 62)) != 0;
+        }
+        afterName = (mark & (1L << 63)) != 0;
+    }
+
+    /**
+     * @return a copy of the written bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, count);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buf, 0, count);
+    }
+
+    /**
+     * @return the written content decoded as a string
+     */
+    @Override
+    public String toString() {
+        return new String(buf, 0, count, StandardCharsets.UTF_8);
+    }
+
+    private HecJsonWriter open(byte bracket) {
+        beforeValue();
+        writeByte(bracket);
+        if (depth == nonEmpty.length) {
+            nonEmpty = Arrays.copyOf(nonEmpty, depth * 2);
+        }
+        nonEmpty[depth++] = false;
+        return this;
+    }
+
+    private HecJsonWriter close(byte bracket) {
+        if (depth == 0) {
+            throw new IllegalStateException("Nesting problem: no open object or array");
+        }
+        depth--;
+        afterName = false;
+        writeByte(bracket);
+        return this;
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (nonEmpty[depth - 1]) {
+                writeByte((byte) ',');
+            } else {
+                nonEmpty[depth - 1] = true;
+            }
+        }
+    }
+
+    private boolean withinLimits(int bytes) {
+        return bytes <= maxValueBytes && (long) count + bytes <= (long) limitStart + maxTotalBytes - LIMIT_RESERVE;
+    }
+
+    /**
+     * Write the characters in [start, end) truncated to the current limits, if they exceed them.
+     * @param quoted write the truncated characters as a quoted and escaped JSON string, or as plain text
+     * @param escaped the characters are escaped when they are not truncated, their size is counted escaped
+     * @return false if the characters are within the limits, nothing was written
+     */
+    private boolean writeTruncated(CharSequence s, int start, int end, boolean quoted, boolean escaped) {
+        long left = (long) limitStart + maxTotalBytes - count - (quoted ? LIMIT_RESERVE : 0);
+        int allowed = (int) Math.max(0, Math.min(maxValueBytes, left));
+        // at most 3 bytes per char in UTF-8, and 6 once escaped
+        if ((long) (end - start) * (escaped ? 6 : 3) <= allowed) {
+            // within the limits whatever the characters
+            return false;
+        }
+        int i = fittingEnd(s, start, end, allowed, escaped);
+        if (i == end) {
+            return false;
+        }
+        if (quoted && !escaped) {
+            // raw JSON is written as a string once truncated, the characters kept are escaped
+            i = fittingEnd(s, start, i, allowed, true);
+        }
+        if (quoted) {
+            writeByte((byte) '"');
+        }
+        writeUtf8(s, start, i, quoted);
+        writeAscii("...[" + (end - i) + " chars truncated]");
+        if (quoted) {
+            writeByte((byte) '"');
+        }
+        truncatedValues++;
+        return true;
+    }
+
+    /**
+     * @return the end of the longest prefix of the characters in [start, end) which fits in the given
+     * number of bytes once UTF-8 encoded, and escaped for a JSON string if requested
+     */
+    private static int fittingEnd(CharSequence s, int start, int end, int allowed, boolean escape) {
+        int bytes = 0;
+        int i = start;
+        while (i < end) {
+            char c = s.charAt(i);
+            int length;
+            if (c < 0x80) {
+                length = escape && ASCII_ESCAPES[c] != null ? ASCII_ESCAPES[c].length : 1;
+            } else if (c < 0x800) {
+                length = 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length = 4;
+            } else {
+                length = escape && (c == '\u2028' || c == '\u2029') ? 6 : 3;
+            }
+            if (bytes + length > allowed) {
+                break;
+            }
+            bytes += length;
+            i += length == 4 ? 2 : 1;
+        }
+        return i;
+    }
+
+    private void writeQuoted(String s) {
+        writeByte((byte) '"');
+        writeEscaped(s);
+        writeByte((byte) '"');
+    }
+
+    private void writeEscaped(String s) {
+        if (s.length() >= BULK_ESCAPE_LENGTH) {
+            writeEscapedBulk(s);
+        } else {
+            writeUtf8(s, 0, s.length(), true);
+        }
+    }
+
+    /**
+     * Escape a long string in place: each run of ASCII characters which need no escaping is found by a
+     * tight scan and copied straight to the buffer, the characters between the runs are escaped, or
+     * encoded by writeUtf8. Unlike encoding the whole string to UTF-8 first, nothing is allocated.
+     */
+    @SuppressWarnings("deprecation")
+    private void writeEscapedBulk(String s) {
+        final int length = s.length();
+        int i = 0;
+        while (i < length) {
+            int run = i;
+            char c = 0;
+            while (i < length && (c = s.charAt(i)) < 0x80 && ASCII_ESCAPES[c] == null) {
+                i++;
+            }
+            if (i > run) {
+                ensureCapacity(i - run);
+                // keeps the low byte of each char, which is the whole char in a run of ASCII characters
+                s.getBytes(run, i, buf, count);
+                count += i - run;
+            }
+            if (i == length) {
+                return;
+            }
+            if (c < 0x80) {
+                byte[] replacement = ASCII_ESCAPES[c];
+                writeBytes(replacement, 0, replacement.length);
+                i++;
+            } else {
+                // a run of non-ASCII characters never ends between the two chars of a surrogate pair
+                run = i;
+                do {
+                    i++;
+                } while (i < length && s.charAt(i) >= 0x80);
+                writeUtf8(s, run, i, true);
+            }
+        }
+    }
+
+    /**
+     * UTF-8 encode the characters in [start, end), escaping them for a JSON string if requested.
+     */
+    private void writeUtf8(CharSequence s, int start, int end, boolean escape) {
+        for (int i = start; i < end; i++) {
+            // fast path: copy a run of ASCII characters which need no escaping, every char is at
+            // least one byte in UTF-8 so the remaining length is a safe lower bound for the capacity
+            ensureCapacity(end - i);
+            final byte[] bytes = buf;
+            int n = count;
+            char c = s.charAt(i);
+            while (c < 0x80 && !(escape && ASCII_ESCAPES[c] != null)) {
+                bytes[n++] = (byte) c;
+                if (++i == end) {
+                    count = n;
+                    return;
+                }
+                c = s.charAt(i);
+            }
+            count = n;
+
+            if (c < 0x80) {
+                byte[] replacement = escape ? ASCII_ESCAPES[c] : null;
+                if (replacement == null) {
+                    writeByte((byte) c);
+                } else {
+                    writeBytes(replacement, 0, replacement.length);
+                }
+            } else if (c < 0x800) {
+                ensureCapacity(2);
+                buf[count++] = (byte) (0xc0 | (c >> 6));
+                buf[count++] = (byte) (0x80 | (c & 0x3f));
+            } else if (escape && (c == '\u2028' || c == '\u2029')) {
+                ensureCapacity(6);
+                buf[count++] = '\\';
+                buf[count++] = 'u';
+                buf[count++] = HEX[(c >> 12) & 0xf];
+                buf[count++] = HEX[(c >> 8) & 0xf];
+                buf[count++] = HEX[(c >> 4) & 0xf];
+                buf[count++] = HEX[c & 0xf];
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                    ensureCapacity(4);
+                    buf[count++] = (byte) (0xf0 | (codePoint >> 18));
+                    buf[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                    buf[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                    buf[count++] = (byte) (0x80 | (codePoint & 0x3f));
+                } else {
+                    // unpaired surrogate, replaced the same way the UTF-8 encoder of the JDK does
+                    writeByte((byte) '?');
+                }
+            } else {
+                ensureCapacity(3);
+                buf[count++] = (byte) (0xe0 | (c >> 12));
+                buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buf[count++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+    }
+
+    private void writeAscii(String s) {
+        final int length = s.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            buf[count++] = (byte) s.charAt(i);
+        }
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            writeByte((byte) '-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        ensureCapacity(digits);
+        count += digits;
+        for (int i = count - 1; i >= count - digits; i--) {
+            buf[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private void writeByte(byte b) {
+        ensureCapacity(1);
+        buf[count++] = b;
+    }
+
+    private void writeBytes(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buf, count, length);
+        count += length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (count + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, count + extra));
+        }
+    }
+}
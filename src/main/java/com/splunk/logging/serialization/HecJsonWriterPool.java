@@ -0,0 +1,54 @@
+/*
+ Copyright © 2019 Splunk Inc.
+ SPLUNK CONFIDENTIAL – Use or disclosure of this material in whole or in part
+ without a valid written license from Splunk Inc. is PROHIBITED.
+ */
+package com.splunk.logging.serialization;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded pool of {@link HecJsonWriter} buffers, so serialized batches are written into
+ * the same few byte arrays instead of allocating new ones for every request.
+ * <p>
+ * A writer taken from the pool must be released once its content is no longer needed, i.e.
+ * after the HTTP request carrying it has completed. Writers which grew beyond the retained
+ * capacity, because of an unusually large batch, are left to the garbage collector.
+ * </p>
+ */
+public final class HecJsonWriterPool {
+    public static final int DEFAULT_POOL_SIZE = 8;
+    public static final int DEFAULT_MAX_RETAINED_CAPACITY = 1024 * 1024; // 1MB
+    private static final int INITIAL_CAPACITY = 16 * 1024;
+
+    private final BlockingQueue<HecJsonWriter> writers;
+    private final int maxRetainedCapacity;
+
+    public HecJsonWriterPool() {
+        this(DEFAULT_POOL_SIZE, DEFAULT_MAX_RETAINED_CAPACITY);
+    }
+
+    public HecJsonWriterPool(int poolSize, int maxRetainedCapacity) {
+        this.writers = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+        this.maxRetainedCapacity = maxRetainedCapacity;
+    }
+
+    /**
+     * @return an empty writer, reused from the pool when one is available
+     */
+    public HecJsonWriter acquire() {
+        HecJsonWriter writer = writers.poll();
+        return writer != null ? writer.reset() : new HecJsonWriter(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Return a writer to the pool. The writer must not be used afterwards.
+     * @param writer writer obtained from {@link #acquire()}
+     */
+    public void release(HecJsonWriter writer) {
+        if (writer != null && writer.capacity() <= maxRetainedCapacity) {
+            writers.offer(writer.reset());
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ Copyright © 2019 Splunk Inc.
+ SPLUNK CONFIDENTIAL – Use or disclosure of this material in whole or in part
+ without a valid written license from Splunk Inc. is PROHIBITED.
+ */
+package com.splunk.logging.serialization;
+
+/**
+ * Allocation free validator for messages which already are serialized JSON.
+ * <p>
+ * It checks the message against the strict JSON grammar in a single pass, without building
+ * tokens or a tree, so a valid message can then be copied into the HEC event as is.
+ * Nesting is limited to {@value #MAX_DEPTH} levels, deeper messages are reported as invalid.
+ * </p>
+ */
+public final class JsonScanner {
+    static final int MAX_DEPTH = 64;
+
+    private JsonScanner() {
+    }
+
+    /**
+     * @param json text to check
+     * @return true if the text holds exactly one JSON value, optionally surrounded by whitespace
+     */
+    public static boolean isValid(CharSequence json) {
+        return json != null && valueEnd(json, valueStart(json)) >= 0;
+    }
+
+    /**
+     * @param json text to check
+     * @return index of the first non-whitespace character, the length of the text if there is none
+     */
+    public static int valueStart(CharSequence json) {
+        return skipWhitespace(json, 0);
+    }
+
+    /**
+     * @param json text to check
+     * @param start index of the first character of the value
+     * @return index after the last non-whitespace character, not lower than start
+     */
+    public static int valueTrimmedEnd(CharSequence json, int start) {
+        int end = json.length();
+        while (end > start && isWhitespace(json.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Scan the JSON value starting at {@code start}.
+     *
+     * @param json text to check
+     * @param start index of the first character of the value
+     * @return index after the last character of the value, -1 if the text is not exactly one valid JSON
+     * value optionally followed by whitespace
+     */
+    public static int valueEnd(CharSequence json, int start) {
+        final int length = json.length();
+        // one bit per open container, set for objects
+        long objects = 0;
+        int depth = 0;
+        int i = start;
+        boolean expectMemberName = false;
+
+        while (true) {
+            // a value, or a member name followed by a value
+            i = skipWhitespace(json, i);
+            if (i >= length) {
+                return -1;
+            }
+            if (expectMemberName) {
+                i = skipString(json, i);
+                if (i < 0) {
+                    return -1;
+                }
+                i = skipWhitespace(json, i);
+                if (i >= length || json.charAt(i) != ':') {
+                    return -1;
+                }
+                i = skipWhitespace(json, i + 1);
+                if (i >= length) {
+                    return -1;
+                }
+                expectMemberName = false;
+            }
+
+            char c = json.charAt(i);
+            if (c == '{' || c == '[') {
+                if (depth == MAX_DEPTH) {
+                    return -1;
+                }
+                boolean object = c == '{';
+                objects = object ? objects | (1L << depth) : objects & ~(1L << depth);
+                depth++;
+                i = skipWhitespace(json, i + 1);
+                if (i < length && json.charAt(i) == (object ? '}' : ']')) {
+                    depth--;
+                    i++;
+                } else {
+                    expectMemberName = object;
+                    continue;
+                }
+            } else if (c == '"') {
+                i = skipString(json, i);
+            } else if (c == '-' || (c >= '0' && c <= '9')) {
+                i = skipNumber(json, i);
+            } else if (c == 't') {
+                i = skipLiteral(json, i, "true");
+            } else if (c == 'f') {
+                i = skipLiteral(json, i, "false");
+            } else if (c == 'n') {
+                i = skipLiteral(json, i, "null");
+            } else {
+                return -1;
+            }
+            if (i < 0) {
+                return -1;
+            }
+
+            // after a value: separators and closing brackets
+            while (true) {
+                int end = i;
+                i = skipWhitespace(json, i);
+                if (depth == 0) {
+                    return i == length ? end : -1;
+                }
+                if (i >= length) {
+                    return -1;
+                }
+                boolean inObject = (objects & (1L << (depth - 1))) != 0;
+                c = json.charAt(i);
+                if (c == ',') {
+                    i++;
+                    expectMemberName = inObject;
+                    break;
+                } else if (c == (inObject ? '}' : ']')) {
+                    depth--;
+                    i++;
+                } else {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    private static int skipWhitespace(CharSequence json, int i) {
+        final int length = json.length();
+        while (i < length && isWhitespace(json.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    private static int skipString(CharSequence json, int i) {
+        final int length = json.length();
+        if (i >= length || json.charAt(i) != '"') {
+            return -1;
+        }
+        i++;
+        while (i < length) {
+            char c = json.charAt(i++);
+            if (c == '"') {
+                return i;
+            } else if (c == '\\') {
+                if (i >= length) {
+                    return -1;
+                }
+                c = json.charAt(i++);
+                if (c == 'u') {
+                    if (i + 4 > length) {
+                        return -1;
+                    }
+                    for (int end = i + 4; i < end; i++) {
+                        if (Character.digit(json.charAt(i), 16) < 0) {
+                            return -1;
+                        }
+                    }
+                } else if ("\"\\/bfnrt".indexOf(c) < 0) {
+                    return -1;
+                }
+            } else if (c < 0x20) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipNumber(CharSequence json, int i) {
+        final int length = json.length();
+        if (json.charAt(i) == '-') {
+            i++;
+        }
+        if (i >= length) {
+            return -1;
+        }
+        if (json.charAt(i) == '0') {
+            i++;
+        } else {
+            int digits = skipDigits(json, i);
+            if (digits == i) {
+                return -1;
+            }
+            i = digits;
+        }
+        if (i < length && json.charAt(i) == '.') {
+            int digits = skipDigits(json, i + 1);
+            if (digits == i + 1) {
+                return -1;
+            }
+            i = digits;
+        }
+        if (i < length && (json.charAt(i) == 'e' || json.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (json.charAt(i) == '+' || json.charAt(i) == '-')) {
+                i++;
+            }
+            int digits = skipDigits(json, i);
+            if (digits == i) {
+                return -1;
+            }
+            i = digits;
+        }
+        return i;
+    }
+
+    private static int skipDigits(CharSequence json, int i) {
+        final int length = json.length();
+        while (i < length && json.charAt(i) >= '0' && json.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipLiteral(CharSequence json, int i, String literal) {
+        final int length = literal.length();
+        if (i + length > json.length()) {
+            return -1;
+        }
+        for (int k = 0; k < length; k++) {
+            if (json.charAt(i + k) != literal.charAt(k)) {
+                return -1;
+            }
+        }
+        return i + length;
+    }
+}
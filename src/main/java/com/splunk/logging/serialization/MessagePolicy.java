@@ -0,0 +1,98 @@
+/*
+ Copyright © 2019 Splunk Inc.
+ SPLUNK CONFIDENTIAL – Use or disclosure of this material in whole or in part
+ without a valid written license from Splunk Inc. is PROHIBITED.
+ */
+package com.splunk.logging.serialization;
+
+/**
+ * Decides how the message of an event is put into the HEC event body. It is configured with the
+ * {@code messageFormat} setting of the appenders:
+ * <ul>
+ *     <li>{@code text}: the message is always sent as a JSON string</li>
+ *     <li>{@code json}: the message is always embedded as JSON, falling back to a string when it is not valid JSON</li>
+ *     <li>{@code sniff} (default): only messages starting with <code>{</code> or <code>[</code> are embedded as JSON</li>
+ *     <li>{@code raw_json}: messages which are valid JSON are copied into the event as is, without being parsed
+ *     and rendered again; other messages are sent as strings</li>
+ *     <li>{@code trusted_json}: every non blank message is copied into the event as is, without validation.
+ *     Only use it when the layout is known to produce JSON, an invalid message corrupts the whole batch</li>
+ * </ul>
+ */
+public enum MessagePolicy {
+
+    TEXT("text"),
+    JSON("json"),
+    SNIFF("sniff"),
+    RAW_JSON("raw_json"),
+    TRUSTED_JSON("trusted_json");
+
+    private final String format;
+
+    MessagePolicy(final String format) {
+        this.format = format;
+    }
+
+    /**
+     * @param message the message string
+     * @return true if the message should be parsed as JSON
+     */
+    public boolean mayBeJson(final String message) {
+        switch (this) {
+            case TEXT:
+                return false;
+            case JSON:
+            case RAW_JSON:
+            case TRUSTED_JSON:
+                return message != null;
+            case SNIFF:
+            default:
+                return looksLikeJson(message);
+        }
+    }
+
+    /**
+     * @return true if JSON messages are copied into the event as is, instead of being re-serialized
+     */
+    public boolean isPassThrough() {
+        return this == RAW_JSON || this == TRUSTED_JSON;
+    }
+
+    /**
+     * Cheap check on the first non-whitespace character, so plain text messages are never parsed.
+     *
+     * @param message the message string
+     * @return true if the message starts like a JSON object or array
+     */
+    static boolean looksLikeJson(final String message) {
+        if (message == null) {
+            return false;
+        }
+        final int length = message.length();
+        for (int i = 0; i < length; i++) {
+            char c = message.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                continue;
+            }
+            return c == '{' || c == '[';
+        }
+        return false;
+    }
+
+    /**
+     * Gets MessagePolicy instance from format string.
+     *
+     * @param format the message format
+     * @return the MessagePolicy enum, SNIFF if the format is not set or unknown
+     */
+    public static MessagePolicy fromFormat(String format) {
+        if (format != null && format.trim().length() > 0) {
+            format = format.trim().toLowerCase();
+            for (final MessagePolicy policy : values()) {
+                if (policy.format.equals(format)) {
+                    return policy;
+                }
+            }
+        }
+        return SNIFF;
+    }
+}
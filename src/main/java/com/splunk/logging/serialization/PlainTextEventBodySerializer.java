@@ -1,18 +1,23 @@
 package com.splunk.logging.serialization;
 
-import com.splunk.logging.EventBodySerializer;
 import com.splunk.logging.HttpEventCollectorEventInfo;
+import com.splunk.logging.StreamingEventBodySerializer;
 
 /**
  * Custom serializer which sends message in plain-text format and provides message timestamp with millisecond precision.
  */
-public class PlainTextEventBodySerializer implements EventBodySerializer {
+public class PlainTextEventBodySerializer implements StreamingEventBodySerializer {
 
 	@Override
 	public String serializeEventBody(HttpEventCollectorEventInfo eventInfo, Object formattedMessage) {
 		return String.valueOf(formattedMessage);
 	}
 
+	@Override
+	public void writeEventBody(HttpEventCollectorEventInfo eventInfo, Object formattedMessage, HecJsonWriter writer) {
+		writer.value(String.valueOf(formattedMessage));
+	}
+
 	@Override
 	public double getEventTime(HttpEventCollectorEventInfo eventInfo) {
 		return eventInfo.getTime();
@@ -0,0 +1,506 @@
+/*
+ * Copyright 2013-2014 Splunk, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"): you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.splunk.logging.EventBodySerializer;
+import com.splunk.logging.EventHeaderSerializer;
+import com.splunk.logging.HttpEventCollectorEventInfo;
+import com.splunk.logging.HttpEventCollectorExceptionInfo;
+import com.splunk.logging.HttpEventCollectorMetricInfo;
+import com.splunk.logging.StreamingEventBodySerializer;
+import com.splunk.logging.StreamingEventHeaderSerializer;
+import com.splunk.logging.hec.MetadataTags;
+import com.splunk.logging.serialization.EncodedStringCache;
+import com.splunk.logging.serialization.EventInfoTypeAdapter;
+import com.splunk.logging.serialization.HecJsonSerializer;
+import com.splunk.logging.serialization.HecJsonWriter;
+import com.splunk.logging.serialization.HecJsonWriterPool;
+import com.splunk.logging.serialization.JsonScanner;
+import com.splunk.logging.serialization.PlainTextEventBodySerializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Check that the streaming HEC serialization produces what we expect it to.
+ */
+public class HecJsonSerializerUnitTest {
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(HttpEventCollectorEventInfo.class, new EventInfoTypeAdapter())
+            .disableHtmlEscaping()
+            .create();
+
+    @Test
+    public void streamingOutputMatchesGson() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("key", "value\n\"quoted\"");
+        String[] messages = {
+                "hello", "hello world", "{\"a\":1,\"b\":[1,2,{\"c\":null}]}", "[1,2]", "123",
+                "tab\t\u0001 \u2028 caf\u00e9 \ud83d\ude00 <>&=",
+                // long enough for the bulk escaping path
+                String.join("", Collections.nCopies(8, "tab\t\u0001 \u2028\u2029 \u2027 caf\u00e9 \ud83d\ude00 <\"\\>&=")),
+                String.join("", Collections.nCopies(8, "plain ascii text, "))
+        };
+        for (String message : messages) {
+            HttpEventCollectorEventInfo info = new HttpEventCollectorEventInfo(
+                    "INFO", message, "logger", "thread", properties, "exception", "marker");
+            Map<String, Object> expected = new HashMap<>(metadata());
+            expected.remove("custom");
+            Map<String, String> fields = new HashMap<>();
+            fields.put("custom", "c\"v");
+            expected.put("fields", fields);
+            expected.put("event", info);
+
+            Assert.assertEquals(
+                    JsonParser.parseString(gson.toJson(expected)),
+                    JsonParser.parseString(new HecJsonSerializer(metadata()).serialize(info)));
+        }
+    }
+
+    @Test
+    public void writerReuseAndBatching() {
+        HecJsonSerializer serializer = new HecJsonSerializer(metadata());
+        HecJsonWriter writer = new HecJsonWriter(16);
+        serializer.serialize(new HttpEventCollectorEventInfo("INFO", "one", null, null, null, null, null), writer);
+        serializer.serialize(new HttpEventCollectorEventInfo("INFO", "two", null, null, null, null, null), writer);
+        String batch = writer.toString();
+        Assert.assertTrue(batch.startsWith("{\"host\":\"localhost\",\"index\":\"main\","));
+        Assert.assertTrue(batch.contains("}{"));
+
+        writer.reset();
+        serializer.serialize(new HttpEventCollectorEventInfo("WARN", "three", null, null, null, null, null), writer);
+        JsonObject event = JsonParser.parseString(writer.toString()).getAsJsonObject().getAsJsonObject("event");
+        Assert.assertEquals("three", event.get("message").getAsString());
+        Assert.assertEquals("WARN", event.get("severity").getAsString());
+
+        HecJsonWriterPool pool = new HecJsonWriterPool(1, 64);
+        HecJsonWriter pooled = pool.acquire();
+        pool.release(new HecJsonWriter(32));
+        Assert.assertNotSame(pooled, pool.acquire());
+        pool.release(pooled.value("oversized"));
+        Assert.assertNotSame(pooled, pool.acquire());
+        HecJsonWriter small = new HecJsonWriter(32).value("released");
+        pool.release(small);
+        Assert.assertSame(small, pool.acquire());
+        Assert.assertEquals(0, small.size());
+    }
+
+    @Test
+    public void metadataUpdateRecompilesTemplate() {
+        HecJsonSerializer serializer = new HecJsonSerializer(metadata());
+        HttpEventCollectorEventInfo info = new HttpEventCollectorEventInfo("INFO", "hello", null, null, null, null, null);
+        JsonObject before = JsonParser.parseString(serializer.serialize(info)).getAsJsonObject();
+        Assert.assertEquals("main", before.get(MetadataTags.INDEX).getAsString());
+
+        Map<String, String> update = new HashMap<>();
+        update.put(MetadataTags.INDEX, "audit");
+        update.put("team", "core");
+        serializer.updateMetadata(update);
+
+        JsonObject after = JsonParser.parseString(serializer.serialize(info)).getAsJsonObject();
+        Assert.assertEquals("audit", after.get(MetadataTags.INDEX).getAsString());
+        Assert.assertEquals("localhost", after.get(MetadataTags.HOST).getAsString());
+        Assert.assertEquals("core", after.getAsJsonObject("fields").get("team").getAsString());
+        Assert.assertEquals("c\"v", after.getAsJsonObject("fields").get("custom").getAsString());
+    }
+
+    @Test
+    public void compiledTemplates() {
+        HecJsonSerializer serializer = new HecJsonSerializer(metadata());
+        Map<String, String> route = new HashMap<>();
+        route.put(MetadataTags.INDEX, "audit");
+        route.put(MetadataTags.SOURCETYPE, "app:audit");
+        HecJsonSerializer.CompiledTemplate template = serializer.compileTemplate(route);
+
+        HttpEventCollectorEventInfo info = new HttpEventCollectorEventInfo("INFO", "hello", null, null, null, null, null);
+        HecJsonWriter writer = new HecJsonWriter();
+        serializer.serialize(info, writer, template);
+        JsonObject routed = JsonParser.parseString(writer.toString()).getAsJsonObject();
+        Assert.assertEquals("audit", routed.get(MetadataTags.INDEX).getAsString());
+        Assert.assertEquals("app:audit", routed.get(MetadataTags.SOURCETYPE).getAsString());
+        Assert.assertEquals("localhost", routed.get(MetadataTags.HOST).getAsString());
+        Assert.assertEquals("c\"v", routed.getAsJsonObject("fields").get("custom").getAsString());
+
+        // the metadata of the serializer itself is unchanged
+        Assert.assertEquals(serializer.serialize(info), serialize(serializer, info, null));
+        Assert.assertEquals("main", JsonParser.parseString(serializer.serialize(info)).getAsJsonObject()
+                .get(MetadataTags.INDEX).getAsString());
+    }
+
+    @Test
+    public void metadataFromProperties() {
+        HecJsonSerializer serializer = new HecJsonSerializer(metadata());
+        Map<String, String> mapping = new LinkedHashMap<>();
+        mapping.put(MetadataTags.INDEX, "tenant");
+        mapping.put("team", "team");
+        serializer.setMetadataProperties(mapping);
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("tenant", "blue");
+        HttpEventCollectorEventInfo blue = new HttpEventCollectorEventInfo("INFO", "hello", null, null, properties, null, null);
+        JsonObject event = JsonParser.parseString(serializer.serialize(blue)).getAsJsonObject();
+        Assert.assertEquals("blue", event.get(MetadataTags.INDEX).getAsString());
+        Assert.assertEquals("localhost", event.get(MetadataTags.HOST).getAsString());
+        Assert.assertFalse(event.getAsJsonObject("fields").has("team"));
+        Assert.assertEquals("blue", event.getAsJsonObject("event").getAsJsonObject("properties").get("tenant").getAsString());
+        Assert.assertEquals(serializer.serialize(blue), serializer.serialize(blue));
+
+        properties = new HashMap<>();
+        properties.put("tenant", "red");
+        properties.put("team", "core");
+        event = JsonParser.parseString(serializer.serialize(
+                new HttpEventCollectorEventInfo("INFO", "hello", null, null, properties, null, null))).getAsJsonObject();
+        Assert.assertEquals("red", event.get(MetadataTags.INDEX).getAsString());
+        Assert.assertEquals("core", event.getAsJsonObject("fields").get("team").getAsString());
+
+        // events without the properties, and routes
+        HttpEventCollectorEventInfo other = new HttpEventCollectorEventInfo("INFO", "hello", null, null, null, null, null);
+        Assert.assertEquals("main", JsonParser.parseString(serializer.serialize(other)).getAsJsonObject()
+                .get(MetadataTags.INDEX).getAsString());
+        HecJsonSerializer.CompiledTemplate route = serializer.compileTemplate(
+                Collections.singletonMap(MetadataTags.SOURCETYPE, "audit"));
+        event = JsonParser.parseString(serialize(serializer, blue, route)).getAsJsonObject();
+        Assert.assertEquals("blue", event.get(MetadataTags.INDEX).getAsString());
+        Assert.assertEquals("audit", event.get(MetadataTags.SOURCETYPE).getAsString());
+    }
+
+    @Test
+    public void sizeLimits() {
+        HecJsonSerializer serializer = new HecJsonSerializer(metadata());
+        serializer.setSizeLimits(0, 100);
+        StringBuilder longMessage = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            longMessage.append(i % 10 == 9 ? "é" : "x");
+        }
+        Map<String, String> properties = new HashMap<>();
+        properties.put("short", "value");
+        properties.put("long", longMessage.toString());
+        HttpEventCollectorEventInfo info = new HttpEventCollectorEventInfo("INFO", longMessage.toString(), null, null, properties, null, null);
+        JsonObject event = JsonParser.parseString(serializer.serialize(info)).getAsJsonObject().getAsJsonObject("event");
+        String message = event.get("message").getAsString();
+        Assert.assertTrue(message, message.endsWith("...[909 chars truncated]"));
+        Assert.assertTrue(longMessage.toString().startsWith(message.substring(0, 91)));
+        Assert.assertEquals(message, event.getAsJsonObject("properties").get("long").getAsString());
+        Assert.assertEquals("value", event.getAsJsonObject("properties").get("short").getAsString());
+        Assert.assertEquals(1, serializer.getTruncatedEventsCount());
+
+        // whole event limit, events within the limits are untouched
+        serializer.setSizeLimits(600, 0);
+        String serialized = serializer.serialize(info);
+        Assert.assertTrue(serialized, serialized.length() < 600);
+        Assert.assertEquals(2, serializer.getTruncatedEventsCount());
+        HttpEventCollectorEventInfo small = new HttpEventCollectorEventInfo("INFO", "hello", null, null,
+                Collections.singletonMap("short", "value"), null, null);
+        serializer.setSizeLimits(0, 0);
+        String expected = serializer.serialize(small);
+        serializer.setSizeLimits(600, 100);
+        Assert.assertEquals(expected, serializer.serialize(small));
+        Assert.assertEquals(2, serializer.getTruncatedEventsCount());
+    }
+
+    @Test
+    public void sizeLimitsCountEscapedBytes() {
+        HecJsonSerializer serializer = new HecJsonSerializer(metadata());
+        serializer.setSizeLimits(0, 100);
+        // 60 chars, 360 bytes once escaped as \u0001
+        String control = repeat('\u0001', 60);
+        JsonObject event = JsonParser.parseString(serializer.serialize(
+                new HttpEventCollectorEventInfo("INFO", control, null, null, null, null, null)))
+                .getAsJsonObject().getAsJsonObject("event");
+        Assert.assertEquals(repeat('\u0001', 16) + "...[44 chars truncated]", event.get("message").getAsString());
+
+        String quotes = repeat('"', 60) + repeat(' ', 20);
+        event = JsonParser.parseString(serializer.serialize(
+                new HttpEventCollectorEventInfo("INFO", quotes, null, null, null, null, null)))
+                .getAsJsonObject().getAsJsonObject("event");
+        Assert.assertEquals(repeat('"', 50) + "...[30 chars truncated]", event.get("message").getAsString());
+        Assert.assertEquals(2, serializer.getTruncatedEventsCount());
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    @Test
+    public void structuredExceptions() {
+        Exception exception;
+        try {
+            throw new IllegalStateException("failed", new java.io.IOException("closed"));
+        } catch (IllegalStateException e) {
+            exception = e;
+        }
+        HttpEventCollectorExceptionInfo captured = HttpEventCollectorExceptionInfo.of(exception, 1);
+        HttpEventCollectorEventInfo info = new HttpEventCollectorEventInfo(
+                1000, "ERROR", "hello", null, null, null, "ignored", captured, null);
+        Map<String, Object> expected = new HashMap<>(metadata());
+        expected.remove("custom");
+        expected.put("fields", Collections.singletonMap("custom", "c\"v"));
+        expected.put("event", info);
+        JsonObject event = JsonParser.parseString(new HecJsonSerializer(metadata()).serialize(info)).getAsJsonObject();
+        Assert.assertEquals(JsonParser.parseString(gson.toJson(expected)), event);
+
+        JsonObject structured = event.getAsJsonObject("event").getAsJsonObject("exception");
+        Assert.assertEquals("java.lang.IllegalStateException", structured.get("class").getAsString());
+        Assert.assertEquals("failed", structured.get("message").getAsString());
+        Assert.assertEquals(1, structured.getAsJsonArray("frames").size());
+        Assert.assertTrue(structured.getAsJsonArray("frames").get(0).getAsString().startsWith(
+                getClass().getName() + ".structuredExceptions("));
+        Assert.assertEquals(exception.getStackTrace().length - 1, structured.get("omitted_frames").getAsInt());
+        JsonObject cause = structured.getAsJsonObject("cause");
+        Assert.assertEquals("java.io.IOException", cause.get("class").getAsString());
+        Assert.assertFalse(cause.has("cause"));
+
+        // frames in common with the enclosing exception are left out, rendered frames are reused
+        captured = HttpEventCollectorExceptionInfo.of(exception, 1000);
+        Assert.assertEquals(exception.getStackTrace().length, captured.getFrames().length);
+        Assert.assertEquals(0, captured.getCause().getFrames().length);
+        Assert.assertEquals(exception.getStackTrace().length, captured.getCause().getOmittedFrames());
+        Assert.assertSame(captured.getFrames()[0], HttpEventCollectorExceptionInfo.of(exception, 1).getFrames()[0]);
+    }
+
+    @Test
+    public void messageFormatPolicies() {
+        String json = " {\"a\":{\"b\":[1,2.50,true,null,\"x\"],\"n\":null}}";
+        Assert.assertEquals("{\"a\":{\"b\":[1,2.50,true,null,\"x\"]}}", message(null, json).toString());
+        Assert.assertEquals(json, message("text", json).getAsString());
+        Assert.assertEquals("{\"a\":{\"b\":[1,2.50,true,null,\"x\"]}}", message("json", json).toString());
+
+        // only objects and arrays are sniffed, scalars need the json format
+        Assert.assertEquals("\"123\"", message("sniff", "123").toString());
+        Assert.assertEquals("123", message("json", "123").toString());
+
+        // malformed JSON falls back to text, without leaving partial output behind
+        Assert.assertEquals("{\"a\":[1,2", message(null, "{\"a\":[1,2").getAsString());
+        Assert.assertEquals("{\"a\":1} trailing", message("json", "{\"a\":1} trailing").getAsString());
+        Assert.assertEquals("[1,", message("json", "[1,").getAsString());
+    }
+
+    @Test
+    public void rawJsonPassThrough() {
+        String json = "{\"a\" : {\"n\":null, \"u\":\"\\u00e9\\n\", \"d\":1.0E+2}}";
+        String serialized = serialize("raw_json", "  " + json + "\n");
+        Assert.assertTrue(serialized, serialized.contains("\"message\":" + json + ","));
+        Assert.assertEquals("hello", message("raw_json", "hello").getAsString());
+        Assert.assertEquals("{\"a\":", message("raw_json", "{\"a\":").getAsString());
+        Assert.assertEquals("\"quoted\"", serialize("raw_json", "\"quoted\"").split("\"message\":")[1].split(",")[0]);
+
+        serialized = serialize("trusted_json", json + "\r\n");
+        Assert.assertTrue(serialized, serialized.contains("\"message\":" + json + ","));
+        Assert.assertEquals("  ", message("trusted_json", "  ").getAsString());
+        // whitespace JSON doesn't allow, nothing to trust
+        Assert.assertEquals("\f", message("trusted_json", "\f").getAsString());
+        Assert.assertEquals(" \u000B\r\n", message("trusted_json", " \u000B\r\n").getAsString());
+        Assert.assertEquals("\u000B", message("raw_json", "\u000B").getAsString());
+    }
+
+    @Test
+    public void jsonScanner() {
+        String[] valid = {
+                "{}", "[]", " 0 ", "-0.5e-3", "\"\"", "\"\\u0041\\/\"", "true", "null",
+                "{\"a\":[{\"b\":[]},{}],\"c\":\"\\\"\"}", "[1, 2 ,3]\n"
+        };
+        String[] invalid = {
+                "", " ", "{", "[1,]", "{\"a\"}", "{\"a\":1,}", "{a:1}", "'a'", "01", "1.", "-", "1e", "tru",
+                "\"\\x\"", "\"\\u12\"", "\"tab\there\"", "{} {}", "[1] x", "NaN", "{\"a\":1]"
+        };
+        for (String json : valid) {
+            Assert.assertTrue(json, JsonScanner.isValid(json));
+        }
+        for (String json : invalid) {
+            Assert.assertFalse(json, JsonScanner.isValid(json));
+        }
+        StringBuilder deep = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            deep.append('[');
+        }
+        for (int i = 0; i < 100; i++) {
+            deep.append(']');
+        }
+        Assert.assertFalse(JsonScanner.isValid(deep));
+    }
+
+    @Test
+    public void encodedStringCache() {
+        EncodedStringCache cache = new EncodedStringCache(2, 8);
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("k\"1", "v");
+        properties.put("k\u00e92", "w");
+        String[] values = {"a", "b", "c", "caf\u00e9", "t\tab", "longer than eight", null};
+        for (int round = 0; round < 3; round++) {
+            HecJsonWriter cached = new HecJsonWriter(8);
+            HecJsonWriter plain = new HecJsonWriter(8);
+            cached.beginObject();
+            plain.beginObject();
+            for (String value : values) {
+                cached.name(String.valueOf(value), cache).value(value, cache);
+                plain.name(String.valueOf(value)).value(value);
+            }
+            cached.name("p").value(properties, cache).endObject();
+            plain.name("p").value(properties).endObject();
+            Assert.assertEquals(plain.toString(), cached.toString());
+        }
+    }
+
+    @Test
+    public void epochTimestamps() {
+        HecJsonWriter writer = new HecJsonWriter();
+        writer.beginArray()
+                .epochTimeValue(1571933417123L, TimeUnit.MILLISECONDS)
+                .epochTimeValue(5L, TimeUnit.MILLISECONDS)
+                .epochTimeValue(1000L, TimeUnit.MILLISECONDS)
+                .epochTimeValue(1571933417123456789L, TimeUnit.NANOSECONDS)
+                .endArray();
+        Assert.assertEquals("[\"1571933417.123\",\"0.005\",\"1.000\",\"1571933417.123\"]", writer.toString());
+
+        HttpEventCollectorEventInfo info = new HttpEventCollectorEventInfo(
+                1571933417020L, "INFO", "hello", null, null, null, null, null);
+        Assert.assertEquals(1571933417.02, info.getTime(), 0.0001);
+        JsonObject event = JsonParser.parseString(new HecJsonSerializer(metadata()).serialize(info)).getAsJsonObject();
+        Assert.assertEquals("1571933417.020", event.getAsJsonObject("event").get("time").getAsString());
+        Assert.assertEquals("1571933417.020", gson.toJsonTree(info).getAsJsonObject().get("time").getAsString());
+
+        HecJsonSerializer serializer = new HecJsonSerializer(metadata());
+        serializer.setEventBodySerializer(new PlainTextEventBodySerializer());
+        event = JsonParser.parseString(serializer.serialize(info)).getAsJsonObject();
+        Assert.assertEquals("1571933417.020", event.get("time").getAsString());
+        Assert.assertEquals("hello", event.get("event").getAsString());
+    }
+
+    @Test
+    public void streamingSerializers() {
+        HttpEventCollectorEventInfo info = new HttpEventCollectorEventInfo(
+                1571933417020L, "INFO", "hello", "logger", null, null, null, null);
+        HecJsonSerializer serializer = new HecJsonSerializer(metadata());
+        serializer.setEventBodySerializer(new StreamingEventBodySerializer() {
+            @Override
+            public void writeEventBody(HttpEventCollectorEventInfo eventInfo, Object formattedMessage, HecJsonWriter writer) {
+                writer.beginObject().name("msg").value(String.valueOf(formattedMessage)).endObject();
+            }
+
+            @Override
+            public double getEventTime(HttpEventCollectorEventInfo eventInfo) {
+                return eventInfo.getTime();
+            }
+        });
+        serializer.setEventHeaderSerializer((StreamingEventHeaderSerializer) (eventInfo, metadata, writer) ->
+                writer.name(MetadataTags.INDEX).value(metadata.get(MetadataTags.INDEX) + "_" + eventInfo.getSeverity()));
+        Assert.assertEquals("{\"time\":\"1571933417.020\",\"index\":\"main_INFO\",\"event\":{\"msg\":\"hello\"}}",
+                serializer.serialize(info));
+
+        // legacy serializers are adapted: the body is a string, and time is not written twice
+        serializer.setEventBodySerializer(new EventBodySerializer() {
+            @Override
+            public String serializeEventBody(HttpEventCollectorEventInfo eventInfo, Object formattedMessage) {
+                return "{" + formattedMessage + "}";
+            }
+
+            @Override
+            public double getEventTime(HttpEventCollectorEventInfo eventInfo) {
+                return eventInfo.getTime();
+            }
+        });
+        serializer.setEventHeaderSerializer((EventHeaderSerializer) (eventInfo, metadata) -> {
+            Map<String, Object> header = new LinkedHashMap<>();
+            header.put(MetadataTags.TIME, 1);
+            header.put(MetadataTags.HOST, metadata.get(MetadataTags.HOST));
+            header.put("event", "ignored");
+            return header;
+        });
+        Assert.assertEquals("{\"time\":\"1571933417.020\",\"host\":\"localhost\",\"event\":\"{hello}\"}",
+                serializer.serialize(info));
+    }
+
+    @Test
+    public void metricEvents() {
+        Map<String, String> mdc = new HashMap<>();
+        mdc.put("region", "us-west-1");
+        mdc.put("custom", "dimension");
+        HttpEventCollectorMetricInfo metric = HttpEventCollectorMetricInfo.parse(
+                1571933417020L, "cpu.idle=95.5, mem.free=1024 host_group=web bad=1e999 =3 nan=NaN", mdc);
+        Assert.assertEquals(2, metric.getMeasurements().size());
+        Assert.assertEquals(1024L, metric.getMeasurements().get("mem.free"));
+        Assert.assertEquals("web", metric.getDimensions().get("host_group"));
+        Assert.assertFalse(mdc.containsKey("host_group"));
+        Assert.assertNull(HttpEventCollectorMetricInfo.parse(0, "no measurements here", null));
+
+        Map<String, String> metadata = metadata();
+        metadata.put(MetadataTags.METRICS_INDEX, "metrics");
+        JsonObject event = JsonParser.parseString(new HecJsonSerializer(metadata).serialize(metric)).getAsJsonObject();
+        Assert.assertEquals("metric", event.get("event").getAsString());
+        Assert.assertEquals("1571933417.020", event.get(MetadataTags.TIME).getAsString());
+        Assert.assertEquals("metrics", event.get(MetadataTags.INDEX).getAsString());
+        Assert.assertEquals("localhost", event.get(MetadataTags.HOST).getAsString());
+        JsonObject fields = event.getAsJsonObject("fields");
+        Assert.assertEquals(95.5, fields.get("metric_name:cpu.idle").getAsDouble(), 0);
+        Assert.assertEquals(1024, fields.get("metric_name:mem.free").getAsLong());
+        Assert.assertEquals("us-west-1", fields.get("region").getAsString());
+        Assert.assertEquals("web", fields.get("host_group").getAsString());
+        // dimensions override template fields, which are kept otherwise
+        Assert.assertEquals("dimension", fields.get("custom").getAsString());
+        Assert.assertEquals(7, fields.size());
+
+        Map<String, Number> measurements = new LinkedHashMap<>();
+        measurements.put("requests", 3);
+        measurements.put("infinite", Double.POSITIVE_INFINITY);
+        event = JsonParser.parseString(new HecJsonSerializer(metadata())
+                .serialize(new HttpEventCollectorMetricInfo(1000L, measurements, null))).getAsJsonObject();
+        Assert.assertEquals("main", event.get(MetadataTags.INDEX).getAsString());
+        Assert.assertEquals("{\"custom\":\"c\\\"v\",\"metric_name:requests\":3}", event.getAsJsonObject("fields").toString());
+    }
+
+    private static String serialize(HecJsonSerializer serializer, HttpEventCollectorEventInfo info,
+                                    HecJsonSerializer.CompiledTemplate template) {
+        HecJsonWriter writer = new HecJsonWriter();
+        serializer.serialize(info, writer, template);
+        return writer.toString();
+    }
+
+    private static String serialize(String messageFormat, String message) {
+        Map<String, String> metadata = metadata();
+        metadata.put(MetadataTags.MESSAGEFORMAT, messageFormat);
+        return new HecJsonSerializer(metadata).serialize(
+                new HttpEventCollectorEventInfo("INFO", message, "logger", null, null, null, null));
+    }
+
+    private static JsonElement message(String messageFormat, String message) {
+        String serialized = serialize(messageFormat, message);
+        JsonObject parsed = JsonParser.parseString(serialized).getAsJsonObject();
+        Assert.assertFalse(parsed.getAsJsonObject("fields").has(MetadataTags.MESSAGEFORMAT));
+        Assert.assertEquals("logger", parsed.getAsJsonObject("event").get("logger").getAsString());
+        return parsed.getAsJsonObject("event").get("message");
+    }
+
+    private static Map<String, String> metadata() {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put(MetadataTags.HOST, "localhost");
+        metadata.put(MetadataTags.INDEX, "main");
+        metadata.put(MetadataTags.SOURCETYPE, "_json");
+        metadata.put("custom", "c\"v");
+        return metadata;
+    }
+}
@@ -0,0 +1,439 @@
+/*
+ * Copyright 2013-2014 Splunk, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"): you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+import com.splunk.logging.HttpEventCollectorAggregationStage;
+import com.splunk.logging.HttpEventCollectorDedupStage;
+import com.splunk.logging.HttpEventCollectorEventInfo;
+import com.splunk.logging.HttpEventCollectorExceptionInfo;
+import com.splunk.logging.HttpEventCollectorFlightRecorderStage;
+import com.splunk.logging.HttpEventCollectorLoadSheddingStage;
+import com.splunk.logging.HttpEventCollectorMetricInfo;
+import com.splunk.logging.HttpEventCollectorMiddleware;
+import com.splunk.logging.HttpEventCollectorSamplingStage;
+import com.splunk.logging.HttpEventCollectorSender;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Check the event stages run by the sender before events are batched.
+ */
+public class HttpEventCollectorEventStageUnitTest {
+    private final List<HttpEventCollectorEventInfo> received = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        HttpEventCollectorUnitTestMiddleware.eventsReceived = 0;
+        HttpEventCollectorUnitTestMiddleware.io = new HttpEventCollectorUnitTestMiddleware.IO() {
+            @Override
+            public void input(List<HttpEventCollectorEventInfo> events) {
+                received.addAll(events);
+            }
+        };
+    }
+
+    @Test
+    public void aggregation() {
+        HttpEventCollectorSender sender = sender(1);
+        HttpEventCollectorAggregationStage stage = new HttpEventCollectorAggregationStage("chatty", "WARN, error", 0, false);
+        sender.addEventStage(stage);
+        for (int i = 0; i < 100; i++) {
+            sender.send("WARN", "retry " + i + " of 100 after 1.5s", "chatty.client", null, null, null, null);
+        }
+        sender.send("ERROR", "failed", "chatty", null, null, null, null);
+        sender.send("INFO", "not aggregated", "chatty", null, null, null, null);
+        sender.send("WARN", "other logger", "chattyness", null, null, null, null);
+        Assert.assertEquals(2, received.size());
+
+        stage.drain();
+        Assert.assertEquals(4, received.size());
+        Assert.assertEquals("retry # of # after #s", received.get(2).getMessage());
+        Assert.assertEquals("100", received.get(2).getProperties().get("count"));
+        Assert.assertEquals("chatty.client", received.get(2).getLoggerName());
+        Assert.assertEquals("1", received.get(3).getProperties().get("count"));
+
+        // nothing left to send
+        stage.drain();
+        Assert.assertEquals(4, received.size());
+
+        received.clear();
+        sender = sender(1);
+        stage = new HttpEventCollectorAggregationStage(null, "WARN", 1000, true);
+        sender.addEventStage(stage);
+        sender.send("WARN", "slow", "any", null, null, null, null);
+        sender.send("WARN", "slow", "any", null, null, null, null);
+        stage.tick(System.currentTimeMillis());
+        Assert.assertTrue(received.isEmpty());
+        stage.tick(System.currentTimeMillis() + 1000);
+        HttpEventCollectorMetricInfo metric = (HttpEventCollectorMetricInfo) received.get(0);
+        Assert.assertEquals(2L, metric.getMeasurements().get(HttpEventCollectorAggregationStage.MetricName));
+        Assert.assertEquals("slow", metric.getDimensions().get("template"));
+    }
+
+    @Test
+    public void aggregationFromSeveralThreads() throws InterruptedException {
+        final HttpEventCollectorSender sender = sender(1);
+        HttpEventCollectorAggregationStage stage = new HttpEventCollectorAggregationStage("chatty", null, 0, false);
+        sender.addEventStage(stage);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 1000; i++) {
+                        sender.send("WARN", "retry " + i, "chatty", null, null, null, null);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        // intervals end while the events are counted
+        for (int i = 0; i < 10; i++) {
+            stage.drain();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        stage.drain();
+        long count = 0;
+        for (HttpEventCollectorEventInfo event : received) {
+            Assert.assertEquals("retry #", event.getMessage());
+            count += Long.parseLong(event.getProperties().get("count"));
+        }
+        Assert.assertEquals(4000, count);
+    }
+
+    @Test
+    public void deduplication() {
+        HttpEventCollectorSender sender = sender(1);
+        HttpEventCollectorDedupStage stage = new HttpEventCollectorDedupStage(1000);
+        sender.addEventStage(stage);
+        for (int i = 0; i < 10; i++) {
+            sender.send(10000 + i * 100, "ERROR", "connection lost", "dedup", null, null, "java.io.IOException", null);
+        }
+        sender.send(11000, "ERROR", "connection lost", "dedup", null, null, "java.net.ConnectException", null);
+        sender.send(11000, "WARN", "connection lost", "dedup", null, null, "java.io.IOException", null);
+        Assert.assertEquals(3, received.size());
+        Assert.assertNull(received.get(0).getProperties());
+
+        // the window slides with the copies
+        sender.send(11800, "ERROR", "connection lost", "dedup", null, null, "java.io.IOException", null);
+        Assert.assertEquals(3, received.size());
+        stage.tick(11400);
+        Assert.assertEquals(4, received.size());
+        HttpEventCollectorEventInfo repeated = received.get(3);
+        Assert.assertEquals("connection lost", repeated.getMessage());
+        Assert.assertEquals("java.io.IOException", repeated.getExceptionMessage());
+        Assert.assertEquals("10", repeated.getProperties().get("repeated"));
+        Assert.assertEquals("10100", repeated.getProperties().get("first_repeat_time"));
+        Assert.assertEquals("11800", repeated.getProperties().get("last_repeat_time"));
+
+        // copies after the window are sent again
+        sender.send(13000, "ERROR", "connection lost", "dedup", null, null, "java.io.IOException", null);
+        sender.send(13100, "ERROR", "connection lost", "dedup", null, null, "java.io.IOException", null);
+        Assert.assertEquals(5, received.size());
+        stage.drain();
+        Assert.assertEquals(6, received.size());
+        Assert.assertEquals("1", received.get(5).getProperties().get("repeated"));
+        stage.drain();
+        Assert.assertEquals(6, received.size());
+    }
+
+    @Test
+    public void deduplicationComparesStackTraces() {
+        HttpEventCollectorSender sender = sender(1);
+        HttpEventCollectorDedupStage stage = new HttpEventCollectorDedupStage(1000);
+        sender.addEventStage(stage);
+        for (int i = 0; i < 3; i++) {
+            sender.send(10000 + i, "ERROR", "request failed", "dedup", null, null, null,
+                    HttpEventCollectorExceptionInfo.of(new IllegalStateException("closed"), 10), null);
+            sender.send(10000 + i, "ERROR", "request failed", "dedup", null, null, null,
+                    HttpEventCollectorExceptionInfo.of(new IllegalStateException("closed"), 10), null);
+        }
+        // the same message and exception, thrown from two places
+        Assert.assertEquals(2, received.size());
+        Assert.assertNotEquals(received.get(0).getException(), received.get(1).getException());
+
+        stage.drain();
+        Assert.assertEquals(4, received.size());
+        Assert.assertEquals("2", received.get(2).getProperties().get("repeated"));
+        Assert.assertEquals("2", received.get(3).getProperties().get("repeated"));
+    }
+
+    @Test
+    public void deduplicationFromSeveralThreads() throws InterruptedException {
+        final HttpEventCollectorSender sender = sender(1);
+        HttpEventCollectorDedupStage stage = new HttpEventCollectorDedupStage(1000);
+        sender.addEventStage(stage);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 1000; i++) {
+                        sender.send(20000, "ERROR", "connection lost", "dedup", null, null, null, null);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        stage.drain();
+        Assert.assertEquals(2, received.size());
+        Assert.assertEquals("3999", received.get(1).getProperties().get("repeated"));
+    }
+
+    @Test
+    public void flightRecorder() {
+        HttpEventCollectorSender sender = sender(1);
+        HttpEventCollectorFlightRecorderStage stage = new HttpEventCollectorFlightRecorderStage("debug", null, "trace_id", 3, 1000);
+        sender.addEventStage(stage);
+        for (int i = 0; i < 5; i++) {
+            sender.send(10000 + i * 100, "DEBUG", "step " + i, "recorder", "main", traceId("a"), null, null);
+            sender.send(10000 + i * 100, "DEBUG", "step " + i, "recorder", "main", traceId("b"), null, null);
+        }
+        sender.send(10500, "INFO", "done", "recorder", "main", traceId("a"), null, null);
+        Assert.assertEquals(1, received.size());
+
+        // the last events of the same context are sent before the error
+        sender.send(11250, "ERROR", "failed", "recorder", "main", traceId("a"), null, null);
+        Assert.assertEquals(4, received.size());
+        Assert.assertEquals("step 3", received.get(1).getMessage());
+        Assert.assertEquals("step 4", received.get(2).getMessage());
+        Assert.assertEquals("failed", received.get(3).getMessage());
+        sender.send(11300, "ERROR", "failed again", "recorder", "main", traceId("a"), null, null);
+        Assert.assertEquals(5, received.size());
+
+        // contexts age out
+        stage.tick(11500);
+        sender.send(11500, "ERROR", "failed", "recorder", "main", traceId("b"), null, null);
+        Assert.assertEquals(6, received.size());
+
+        // without the property, the thread is the context
+        sender.send(12000, "DEBUG", "step", "recorder", "worker", null, null, null);
+        sender.send(12000, "ERROR", "failed", "recorder", "main", null, null, null);
+        Assert.assertEquals(7, received.size());
+        sender.send(12000, "SEVERE", "failed", "recorder", "worker", null, null, null);
+        Assert.assertEquals(9, received.size());
+    }
+
+    @Test
+    public void flightRecorderEvictions() {
+        HttpEventCollectorSender sender = sender(1);
+        HttpEventCollectorFlightRecorderStage stage = new HttpEventCollectorFlightRecorderStage("debug", null, "trace_id", 3, 1000);
+        sender.addEventStage(stage);
+        int contexts = 2 * HttpEventCollectorFlightRecorderStage.MaxContexts;
+        for (int i = 0; i < contexts; i++) {
+            sender.send(10000, "DEBUG", "step", "recorder", "main", traceId("live-" + i), null, null);
+        }
+        long evicted = stage.getEvictedCount();
+        Assert.assertTrue(evicted >= contexts - HttpEventCollectorFlightRecorderStage.MaxContexts);
+
+        // contexts older than the maximum age are replaced without counting
+        for (int i = 0; i < 100; i++) {
+            sender.send(12000, "DEBUG", "step", "recorder", "main", traceId("next-" + i), null, null);
+        }
+        Assert.assertEquals(evicted, stage.getEvictedCount());
+        sender.send(12000, "ERROR", "failed", "recorder", "main", traceId("next-99"), null, null);
+        Assert.assertEquals(2, received.size());
+    }
+
+    @Test
+    public void flightRecorderFromSeveralThreads() throws InterruptedException {
+        final HttpEventCollectorSender sender = sender(1);
+        sender.addEventStage(new HttpEventCollectorFlightRecorderStage("debug", null, null, 3, 1000));
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final String threadName = "worker-" + t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 5; i++) {
+                        sender.send(10000 + i, "DEBUG", "step " + i, "recorder", threadName, null, null, null);
+                    }
+                    sender.send(10010, "ERROR", "failed", "recorder", threadName, null, null, null);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Map<String, Integer> perThread = new HashMap<>();
+        for (HttpEventCollectorEventInfo event : received) {
+            Integer count = perThread.get(event.getThreadName());
+            perThread.put(event.getThreadName(), count == null ? 1 : count + 1);
+        }
+        Assert.assertEquals(threads.length, perThread.size());
+        for (Integer count : perThread.values()) {
+            Assert.assertEquals(4, count.intValue());
+        }
+    }
+
+    @Test
+    public void sampling() {
+        HttpEventCollectorSender sender = sender(1);
+        sender.addEventStage(new HttpEventCollectorSamplingStage(
+                "access:INFO=0.1, access=0.5, access.health=0, *=1", "request_id"));
+        for (int i = 0; i < 1000; i++) {
+            sender.send("INFO", "GET /", "access.http", null, null, null, null);
+        }
+        for (int i = 0; i < 1000; i++) {
+            sender.send("WARN", "GET /", "access", null, null, null, null);
+        }
+        int info = 0;
+        for (HttpEventCollectorEventInfo event : received) {
+            if (event.getSeverity().equals("INFO")) {
+                info++;
+                Assert.assertEquals("0.1", event.getProperties().get(HttpEventCollectorSamplingStage.SampleRateProperty));
+            } else {
+                Assert.assertEquals("0.5", event.getProperties().get(HttpEventCollectorSamplingStage.SampleRateProperty));
+            }
+        }
+        Assert.assertTrue(info > 50 && info < 150);
+        Assert.assertTrue(received.size() - info > 400 && received.size() - info < 600);
+
+        // other loggers are not sampled, nor tagged
+        received.clear();
+        sender.send("INFO", "GET /", "accessor", null, null, null, null);
+        sender.send("INFO", "GET /health", "access.health", null, null, null, null);
+        sender.send("", "GET /", "", null, null, null, null);
+        Assert.assertEquals(2, received.size());
+        Assert.assertNull(received.get(0).getProperties());
+
+        // the events of a request are kept or dropped together
+        received.clear();
+        for (int request = 0; request < 100; request++) {
+            Map<String, String> properties = Collections.singletonMap("request_id", "r" + request);
+            for (int i = 0; i < 10; i++) {
+                sender.send("INFO", "step " + i, "access", null, properties, null, null);
+            }
+        }
+        Assert.assertEquals(0, received.size() % 10);
+        Assert.assertTrue(received.size() > 0 && received.size() < 400);
+
+        try {
+            new HttpEventCollectorSamplingStage("access=2", null);
+            Assert.fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void samplingFromSeveralThreads() throws InterruptedException {
+        final HttpEventCollectorSender sender = sender(1);
+        sender.addEventStage(new HttpEventCollectorSamplingStage("access=0.5", "request_id"));
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int request = 0; request < 100; request++) {
+                        sender.send("INFO", "GET /", "access", null,
+                                Collections.singletonMap("request_id", "r" + request), null, null);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // every thread keeps the same requests
+        Map<String, Integer> perRequest = new HashMap<>();
+        for (HttpEventCollectorEventInfo event : received) {
+            String request = event.getProperties().get("request_id");
+            Integer count = perRequest.get(request);
+            perRequest.put(request, count == null ? 1 : count + 1);
+        }
+        Assert.assertTrue(perRequest.size() > 0 && perRequest.size() < 100);
+        for (Integer count : perRequest.values()) {
+            Assert.assertEquals(threads.length, count.intValue());
+        }
+    }
+
+    @Test
+    public void loadShedding() {
+        // the server doesn't reply until told to
+        final List<HttpEventCollectorMiddleware.IHttpSenderCallback> pending = new ArrayList<>();
+        HttpEventCollectorSender sender = new HttpEventCollectorSender(
+                "http://localhost:8088", "TOKEN", null, null, 0, 1, 0, null, new HashMap<>(), null);
+        sender.addMiddleware(new HttpEventCollectorMiddleware.HttpSenderMiddleware() {
+            @Override
+            public void postEvents(List<HttpEventCollectorEventInfo> events,
+                                   HttpEventCollectorMiddleware.IHttpSender sender,
+                                   HttpEventCollectorMiddleware.IHttpSenderCallback callback) {
+                received.addAll(events);
+                pending.add(callback);
+            }
+        });
+        HttpEventCollectorLoadSheddingStage stage = new HttpEventCollectorLoadSheddingStage(100);
+        sender.addEventStage(stage);
+
+        for (int i = 0; i < 25; i++) {
+            sender.send("DEBUG", "debug", "shed", null, null, null, null);
+        }
+        for (int i = 0; i < 25; i++) {
+            sender.send("INFO", "info", "shed", null, null, null, null);
+        }
+        Assert.assertEquals(50, sender.getQueuedEventsCount());
+        Assert.assertEquals(25, stage.getSentCount("FINE"));
+
+        // half full: debug events are shed, info ones are about to be
+        for (int i = 0; i < 100; i++) {
+            sender.send("DEBUG", "debug", "shed", null, null, null, null);
+        }
+        Assert.assertEquals(100, stage.getShedCount("DEBUG"));
+        for (int i = 0; i < 100; i++) {
+            sender.send("ERROR", "error", "shed", null, null, null, null);
+        }
+        Assert.assertEquals(100, stage.getSentCount("SEVERE"));
+        sender.send("WARN", "warn", "shed", null, null, null, null);
+        sender.send("INFO", "info", "shed", null, null, null, null);
+        Assert.assertEquals(1, stage.getShedCount("WARNING"));
+        Assert.assertEquals(1, stage.getShedCount("INFO"));
+        Assert.assertEquals(150, sender.getQueuedEventsCount());
+        Assert.assertEquals(150, received.size());
+
+        // shedding relaxes as the queue drains
+        for (HttpEventCollectorMiddleware.IHttpSenderCallback callback : pending) {
+            callback.completed(200, "");
+        }
+        Assert.assertEquals(0, sender.getQueuedEventsCount());
+        sender.send("DEBUG", "debug", "shed", null, null, null, null);
+        Assert.assertEquals(26, stage.getSentCount("DEBUG"));
+    }
+
+    private static Map<String, String> traceId(String traceId) {
+        return Collections.singletonMap("trace_id", traceId);
+    }
+
+    private static HttpEventCollectorSender sender(long batchCount) {
+        HttpEventCollectorSender sender = new HttpEventCollectorSender(
+                "http://localhost:8088", "TOKEN", null, null, 0, batchCount, 0, null, new HashMap<>(), null);
+        sender.addMiddleware(new HttpEventCollectorUnitTestMiddleware());
+        return sender;
+    }
+}
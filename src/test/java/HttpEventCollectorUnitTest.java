@@ -27,6 +27,8 @@ import org.junit.Test;
 import sun.rmi.runtime.Log;
 
 import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -95,6 +97,71 @@ public class HttpEventCollectorUnitTest {
         Assert.assertTrue(HttpEventCollectorUnitTestMiddleware.eventsReceived == 3);
     }
 
+    @Test
+    public void log4j_mdc_keys() throws Exception {
+        HashMap<String, String> userInputs = new HashMap<String, String>();
+        String loggerName = "splunk.log4jMdcKeys";
+        userInputs.put("user_logger_name", loggerName);
+        userInputs.put("user_httpEventCollector_token", "11111111-2222-3333-4444-555555555555");
+        userInputs.put("user_middleware", "HttpEventCollectorUnitTestMiddleware");
+        userInputs.put("user_batch_size_count", "1");
+        userInputs.put("user_batch_size_bytes", "0");
+        userInputs.put("user_includeMDCKeys", "tenant, request_id");
+        org.apache.logging.log4j.core.LoggerContext context =
+                TestUtil.resetLog4j2Configuration("log4j2_template.xml", "log4j2.xml", userInputs);
+        org.apache.logging.log4j.Logger LOG4J = context.getLogger(loggerName);
+
+        HttpEventCollectorUnitTestMiddleware.eventsReceived = 0;
+        HttpEventCollectorUnitTestMiddleware.io = new HttpEventCollectorUnitTestMiddleware.IO() {
+            @Override
+            public void input(List<HttpEventCollectorEventInfo> events) {
+                Assert.assertEquals(1, events.get(0).getProperties().size());
+                Assert.assertEquals("blue", events.get(0).getProperties().get("tenant"));
+            }
+        };
+        org.apache.logging.log4j.ThreadContext.put("tenant", "blue");
+        org.apache.logging.log4j.ThreadContext.put("user", "someone");
+        try {
+            LOG4J.info("hello log4j");
+        } finally {
+            org.apache.logging.log4j.ThreadContext.clearMap();
+        }
+        if (HttpEventCollectorUnitTestMiddleware.eventsReceived == 0)
+            sleep(15000);
+        Assert.assertTrue(HttpEventCollectorUnitTestMiddleware.eventsReceived == 1);
+    }
+
+    @Test
+    public void logback_mdc_keys() throws Exception {
+        HashMap<String, String> userInputs = new HashMap<String, String>();
+        final String loggerName = "splunk.logbackMdcKeys";
+        userInputs.put("user_logger_name", loggerName);
+        userInputs.put("user_httpEventCollector_token", "11111111-2222-3333-4444-555555555555");
+        userInputs.put("user_middleware", "HttpEventCollectorUnitTestMiddleware");
+        userInputs.put("user_excludeMDCKeys", "user");
+        TestUtil.resetLogbackConfiguration("logback_template.xml", "logback.xml", userInputs);
+        org.slf4j.Logger LOGBACK = org.slf4j.LoggerFactory.getLogger(loggerName);
+
+        HttpEventCollectorUnitTestMiddleware.eventsReceived = 0;
+        HttpEventCollectorUnitTestMiddleware.io = new HttpEventCollectorUnitTestMiddleware.IO() {
+            @Override
+            public void input(List<HttpEventCollectorEventInfo> events) {
+                Assert.assertEquals(2, events.get(0).getProperties().size());
+                Assert.assertEquals("blue", events.get(0).getProperties().get("tenant"));
+                Assert.assertEquals("42", events.get(0).getProperties().get("request_id"));
+            }
+        };
+        org.slf4j.MDC.put("tenant", "blue");
+        org.slf4j.MDC.put("request_id", "42");
+        org.slf4j.MDC.put("user", "someone");
+        try {
+            LOGBACK.error("hello logback");
+        } finally {
+            org.slf4j.MDC.clear();
+        }
+        Assert.assertTrue(HttpEventCollectorUnitTestMiddleware.eventsReceived == 1);
+    }
+
     @Test
     public void java_util_logger_simple() {
         java.util.logging.Logger LOGGER = java.util.logging.Logger.getLogger("splunk.java.util");
@@ -266,6 +333,142 @@ public class HttpEventCollectorUnitTest {
         Assert.assertTrue(HttpEventCollectorUnitTestMiddleware.eventsReceived == 3);
     }
 
+    @Test
+    public void java_util_logger_raw_batching() {
+        java.util.logging.Logger LOGGER = java.util.logging.Logger.getLogger("splunk.java.util");
+        readConf(
+            "handlers=com.splunk.logging.HttpEventCollectorLoggingHandler\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.url=http://localhost:8088\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.token=TOKEN\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.type=raw\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.raw_event_delimiter=\\\\n\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.middleware=HttpEventCollectorUnitTestMiddleware\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.batch_size_count=3\n"
+        );
+
+        HttpEventCollectorUnitTestMiddleware.eventsReceived = 0;
+        HttpEventCollectorUnitTestMiddleware.io = new HttpEventCollectorUnitTestMiddleware.IO() {
+            @Override
+            public void input(List<HttpEventCollectorEventInfo> events) {
+                Assert.assertTrue(events.size() == 3);
+                Assert.assertTrue(events.get(0).getMessage().compareTo("one") == 0);
+                Assert.assertTrue(events.get(2).getMessage().compareTo("three") == 0);
+            }
+        };
+        LOGGER.info("one");
+        LOGGER.info("two");
+        LOGGER.info("three");
+        Assert.assertTrue(HttpEventCollectorUnitTestMiddleware.eventsReceived == 3);
+    }
+
+    @Test
+    public void java_util_logger_priority() {
+        java.util.logging.Logger LOGGER = java.util.logging.Logger.getLogger("splunk.java.util");
+        readConf(
+            "handlers=com.splunk.logging.HttpEventCollectorLoggingHandler\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.url=http://localhost:8088\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.token=TOKEN\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.middleware=HttpEventCollectorUnitTestMiddleware\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.batch_size_count=3\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.priority_level=WARNING\n"
+        );
+
+        final List<String> received = new ArrayList<>();
+        HttpEventCollectorUnitTestMiddleware.eventsReceived = 0;
+        HttpEventCollectorUnitTestMiddleware.io = new HttpEventCollectorUnitTestMiddleware.IO() {
+            @Override
+            public void input(List<HttpEventCollectorEventInfo> events) {
+                StringBuilder batch = new StringBuilder();
+                for (HttpEventCollectorEventInfo event : events) {
+                    batch.append(batch.length() > 0 ? "," : "").append(event.getMessage());
+                }
+                received.add(batch.toString());
+            }
+        };
+        LOGGER.info("one");
+        LOGGER.severe("alert");
+        LOGGER.info("two");
+        LOGGER.warning("warning");
+        Assert.assertEquals(Arrays.asList("alert", "warning"), received);
+        LOGGER.info("three");
+        Assert.assertEquals(Arrays.asList("alert", "warning", "one,two,three"), received);
+    }
+
+    @Test
+    public void java_util_logger_routes() {
+        java.util.logging.Logger LOGGER = java.util.logging.Logger.getLogger("splunk.java.util");
+        readConf(
+            "handlers=com.splunk.logging.HttpEventCollectorLoggingHandler\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.url=http://localhost:8088\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.token=TOKEN\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.middleware=HttpEventCollectorUnitTestMiddleware\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.batch_size_count=2\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.routes=" +
+                "logger=splunk.java.util.audit -> index=audit, token=AUDIT; level=WARNING -> sourcetype=warnings\n"
+        );
+
+        final List<String> received = new ArrayList<>();
+        HttpEventCollectorUnitTestMiddleware.eventsReceived = 0;
+        HttpEventCollectorUnitTestMiddleware.io = new HttpEventCollectorUnitTestMiddleware.IO() {
+            @Override
+            public void input(List<HttpEventCollectorEventInfo> events) {
+                StringBuilder batch = new StringBuilder();
+                for (HttpEventCollectorEventInfo event : events) {
+                    batch.append(batch.length() > 0 ? "," : "").append(event.getMessage());
+                }
+                received.add(batch.toString());
+            }
+        };
+        java.util.logging.Logger AUDIT = java.util.logging.Logger.getLogger("splunk.java.util.audit.login");
+        LOGGER.info("one");
+        AUDIT.info("login");
+        LOGGER.warning("warning");
+        AUDIT.warning("failed login");
+        LOGGER.info("two");
+        LOGGER.warning("another warning");
+        Assert.assertEquals(Arrays.asList("login,failed login", "one,two", "warning,another warning"), received);
+    }
+
+    @Test
+    public void java_util_logger_stacktrace() {
+        java.util.logging.Logger LOGGER = java.util.logging.Logger.getLogger("splunk.java.util");
+        readConf(
+            "handlers=com.splunk.logging.HttpEventCollectorLoggingHandler\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.url=http://localhost:8088\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.token=TOKEN\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.middleware=HttpEventCollectorUnitTestMiddleware\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.batch_size_count=1\n" +
+            "com.splunk.logging.HttpEventCollectorLoggingHandler.stacktrace_window=60000\n"
+        );
+
+        final List<String> received = new ArrayList<>();
+        HttpEventCollectorUnitTestMiddleware.eventsReceived = 0;
+        HttpEventCollectorUnitTestMiddleware.io = new HttpEventCollectorUnitTestMiddleware.IO() {
+            @Override
+            public void input(List<HttpEventCollectorEventInfo> events) {
+                received.add(events.get(0).getExceptionMessage());
+            }
+        };
+        for (int i = 0; i < 3; i++) {
+            try {
+                throw new IllegalStateException("failure " + i, new java.io.IOException("closed"));
+            } catch (IllegalStateException e) {
+                LOGGER.log(java.util.logging.Level.SEVERE, "failed", e);
+            }
+        }
+        Assert.assertEquals(3, received.size());
+        String fingerprint = received.get(0).substring(received.get(0).indexOf("[fingerprint="), received.get(0).indexOf(" count="));
+        Assert.assertTrue(received.get(0), received.get(0).startsWith("java.lang.IllegalStateException: failure 0 " + fingerprint + " count=1]\n\tat " + getClass().getName() + ".java_util_logger_stacktrace("));
+        Assert.assertTrue(received.get(0), received.get(0).contains("\nCaused by: java.io.IOException: closed\n\t... "));
+        Assert.assertEquals("java.lang.IllegalStateException: failure 1 " + fingerprint + " count=2]", received.get(1));
+        Assert.assertEquals("java.lang.IllegalStateException: failure 2 " + fingerprint + " count=3]", received.get(2));
+
+        // another stack trace
+        LOGGER.log(java.util.logging.Level.SEVERE, "failed", new IllegalStateException("failure"));
+        Assert.assertFalse(received.get(3).contains(fingerprint));
+        Assert.assertTrue(received.get(3).contains(" count=1]\n\tat "));
+    }
+
     @Test
     public void java_util_logger_batching_default_count() {
         java.util.logging.Logger LOGGER = java.util.logging.Logger.getLogger("splunk.java.util");
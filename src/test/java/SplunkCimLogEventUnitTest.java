@@ -118,6 +118,48 @@ public class SplunkCimLogEventUnitTest {
         Assert.assertEquals("\"name=name\" \"event_id=event-id\" \"key=I contain \\\" double quotes\"", event.toString());
     }
 
+    @Test
+    public void appendToEscapesKeysAndValues() throws Exception {
+        SplunkCimLogEvent event = new SplunkCimLogEvent("name", "event-id");
+        event.addField("\"key\"", "\"quoted\" twice\"");
+        event.addField("null", null);
+        event.addField("builder", new StringBuilder("a\"b"));
+
+        String expected = "\"name=name\" \"event_id=event-id\" \"\\\"key\\\"=\\\"quoted\\\" twice\\\"\" " +
+                "\"null=null\" \"builder=a\\\"b\"";
+        Assert.assertEquals(expected, event.toString());
+        Assert.assertEquals("> " + expected, event.appendTo(new StringBuilder("> ")).toString());
+        java.io.StringWriter writer = new java.io.StringWriter();
+        Assert.assertSame(writer, event.appendTo(writer));
+        Assert.assertEquals(expected, writer.toString());
+    }
+
+    @Test
+    public void primitiveFieldsAndReuse() {
+        SplunkCimLogEvent event = SplunkCimLogEvent.acquire("name", "event-id");
+        event.setCommonDuration(1500L);
+        event.setPacketFilteringDestPort(443);
+        event.addField("ratio", 0.25);
+        event.addField("quote", '"');
+        event.setCommonDuration(2000L);
+        event.addField(SplunkCimLogEvent.COMMON_DURATION, "unknown");
+        Assert.assertEquals("\"name=name\" \"event_id=event-id\" \"duration=unknown\" \"dest_port=443\" " +
+                "\"ratio=0.25\" \"quote=\\\"\"", event.toString());
+
+        SplunkCimLogEvent.release(event);
+        SplunkCimLogEvent reused = SplunkCimLogEvent.acquire("other", "other-id");
+        Assert.assertSame(event, reused);
+        Assert.assertNotSame(reused, SplunkCimLogEvent.acquire("nested", "nested-id"));
+        reused.addField("key", 1L);
+        Assert.assertEquals("\"name=other\" \"event_id=other-id\" \"key=1\"", reused.toString());
+
+        reused.reset("name", "event-id");
+        for (int i = 0; i < 20; i++) {
+            reused.addField("key" + i, i);
+        }
+        Assert.assertTrue(reused.toString().endsWith("\"key18=18\" \"key19=19\""));
+    }
+
     @Test
     public void addThrowableWorks() {
         SplunkCimLogEvent event = new SplunkCimLogEvent("name", "event-id");
@@ -156,4 +198,51 @@ public class SplunkCimLogEventUnitTest {
         Assert.assertEquals(expected, event.toString().replaceAll(":\\d+\\)", ":???)"));
     }
 
+    @Test
+    public void releaseClearsAndGuardsTheEvent() {
+        SplunkCimLogEvent event = SplunkCimLogEvent.acquire("name", "event-id");
+        event.addField("key", "value");
+        event.addField("count", 3L);
+        SplunkCimLogEvent.release(event);
+        try {
+            event.addField("late", "value");
+            Assert.fail("used after release");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            event.toString();
+            Assert.fail("rendered after release");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            SplunkCimLogEvent.release(event);
+            Assert.fail("released twice");
+        } catch (IllegalStateException expected) {
+        }
+
+        SplunkCimLogEvent reused = SplunkCimLogEvent.acquire("next", "next-id");
+        Assert.assertSame(event, reused);
+        Assert.assertEquals("\"name=next\" \"event_id=next-id\"", reused.toString());
+        reused.addField("other", "value");
+        Assert.assertEquals("\"name=next\" \"event_id=next-id\" \"other=value\"", reused.toString());
+        SplunkCimLogEvent.release(reused);
+    }
+
+    @Test
+    public void addThrowableRendersEachStackTrace() {
+        Exception first = new Exception("first");
+        Exception second = new Exception("second");
+        String[] rendered = new String[3];
+        Exception[] exceptions = {first, second, first};
+        for (int i = 0; i < exceptions.length; i++) {
+            SplunkCimLogEvent event = new SplunkCimLogEvent("name", "event-id");
+            event.addThrowableWithStacktrace(exceptions[i], 1);
+            rendered[i] = event.toString();
+        }
+        int line = first.getStackTrace()[0].getLineNumber();
+        Assert.assertTrue(rendered[0], rendered[0].endsWith("(SplunkCimLogEventUnitTest.java:" + line + ")\""));
+        Assert.assertTrue(rendered[1], rendered[1].endsWith("(SplunkCimLogEventUnitTest.java:" + (line + 1) + ")\""));
+        Assert.assertEquals(rendered[0], rendered[2]);
+    }
+
 }